@@ -0,0 +1,18 @@
+// The #version line is prepended by GL30InstanceDrawer: 150 on desktop, 300 es on GLES.
+#ifdef GL_ES
+precision mediump float;
+#endif
+
+in vec3 v_normal;
+
+uniform vec4 u_diffuseColor;
+uniform vec3 u_ambientLight;
+uniform vec3 u_lightColor;
+uniform vec3 u_lightDirection;
+
+out vec4 fragColor;
+
+void main() {
+    float diffuse = max(dot(normalize(v_normal), -u_lightDirection), 0.0);
+    fragColor = vec4(u_diffuseColor.rgb * (u_ambientLight + u_lightColor * diffuse), u_diffuseColor.a);
+}
@@ -0,0 +1,13 @@
+// The #version line is prepended by GL30InstanceDrawer: 150 on desktop, 300 es on GLES.
+in vec3 a_position;
+in vec3 a_normal;
+in mat4 i_worldTrans;
+
+uniform mat4 u_projViewTrans;
+
+out vec3 v_normal;
+
+void main() {
+    v_normal = normalize(mat3(i_worldTrans) * a_normal);
+    gl_Position = u_projViewTrans * (i_worldTrans * vec4(a_position, 1.0));
+}
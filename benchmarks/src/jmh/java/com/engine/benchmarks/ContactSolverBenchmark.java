@@ -0,0 +1,84 @@
+package com.engine.benchmarks;
+
+import com.engine.core.MeshAsset;
+import com.engine.core.entity.Entity;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.collisions.Contact;
+import com.engine.utils.CollisionsUtils;
+import com.engine.utils.PhysicsUtils;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PhysicsUtils#resolveContact(Contact)} on {@code bodies / 2} overlapping, approaching cube pairs.
+ * The resolution changes the bodies, so every invocation first restores the state of the setup; the copy
+ * is a small part of the measured time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContactSolverBenchmark {
+
+    @Param({"64", "1024", "16384"})
+    public int bodies;
+
+    @Param({"ALIGNED", "RANDOM"})
+    public Fixtures.Rotation rotation;
+
+    private BodyStore store;
+    private double[][] columns;
+    private double[][] initial;
+    private Contact[] contacts;
+
+    @Setup
+    public void setup() {
+        MeshAsset cube = Fixtures.mesh(Fixtures.cubeObj());
+        Random random = new Random(Fixtures.SEED);
+        Quaterniond orientation = new Quaterniond();
+        store = new BodyStore(bodies);
+        List<Contact> found = new ArrayList<>();
+        for (int i = 0; i < bodies / 2; i++) {
+            double x = 3 * i;
+            Entity a = Fixtures.body(cube, x, 0, 0, rotation.sample(random, orientation));
+            Entity b = Fixtures.body(cube, x + .8, .1, 0, rotation.sample(random, orientation));
+            a.body().setVelocity(new Vector3d(1, 0, 0));
+            b.body().setVelocity(new Vector3d(-1, 0, 0));
+            store.attach(a.body());
+            store.attach(b.body());
+            Contact contact = CollisionsUtils.computeContact(a, b);
+            if (contact != null) found.add(contact);
+        }
+        contacts = found.toArray(new Contact[0]);
+
+        columns = new double[][] {
+            store.px, store.py, store.pz, store.vx, store.vy, store.vz,
+            store.qx, store.qy, store.qz, store.qw, store.wx, store.wy, store.wz
+        };
+        initial = new double[columns.length][];
+        for (int i = 0; i < columns.length; i++) initial[i] = columns[i].clone();
+    }
+
+    @Benchmark
+    public BodyStore resolveContacts() {
+        for (int i = 0; i < columns.length; i++) {
+            System.arraycopy(initial[i], 0, columns[i], 0, store.size());
+        }
+        for (Contact contact : contacts) {
+            PhysicsUtils.resolveContact(contact);
+        }
+        return store;
+    }
+}
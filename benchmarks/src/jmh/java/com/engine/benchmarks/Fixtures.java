@@ -0,0 +1,124 @@
+package com.engine.benchmarks;
+
+import com.engine.core.MeshAsset;
+import com.engine.core.ObjParser;
+import com.engine.core.entity.Entity;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.RidigBody;
+import com.engine.utils.PhysicsUtils;
+import org.joml.Quaterniond;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Deterministic inputs shared by the benchmarks: generated OBJ meshes, bodies and orientations. Public
+ * because the classes JMH generates into the {@code jmh_generated} package parse the {@link Rotation} parameters.
+ */
+public final class Fixtures {
+    static final long SEED = 42;
+    static final double DENSITY = 400;
+
+    private Fixtures() {}
+
+    /**
+     * Orientation distributions of the bodies.
+     */
+    public enum Rotation {
+        /** identity, the SAT axes coincide */
+        ALIGNED,
+        /** small tilts up to 10 degrees, typical of resting stacks */
+        TILTED,
+        /** uniformly distributed over all orientations */
+        RANDOM;
+
+        Quaterniond sample(Random random, Quaterniond dest) {
+            switch (this) {
+                case ALIGNED -> dest.identity();
+                case TILTED -> dest.rotationXYZ(
+                    Math.toRadians(10) * (2 * random.nextDouble() - 1),
+                    Math.toRadians(10) * (2 * random.nextDouble() - 1),
+                    Math.toRadians(10) * (2 * random.nextDouble() - 1));
+                case RANDOM -> {
+                    // Shoemake, uniform on the unit 3-sphere
+                    double u1 = random.nextDouble(), u2 = 2 * Math.PI * random.nextDouble(), u3 = 2 * Math.PI * random.nextDouble();
+                    double a = Math.sqrt(1 - u1), b = Math.sqrt(u1);
+                    dest.set(a * Math.sin(u2), a * Math.cos(u2), b * Math.sin(u3), b * Math.cos(u3));
+                }
+            }
+            return dest;
+        }
+    }
+
+    /**
+     * OBJ text of a UV sphere of radius 0.5 with texture coordinates and normals, {@code 2 * stacks * slices}
+     * triangles before the degenerate pole triangles are dropped.
+     */
+    static byte[] sphereObj(int stacks, int slices) {
+        StringBuilder obj = new StringBuilder(64 * (stacks + 1) * (slices + 1));
+        for (int i = 0; i <= stacks; i++) {
+            double theta = Math.PI * i / stacks;
+            double sin = i == 0 || i == stacks ? 0 : Math.sin(theta);
+            for (int j = 0; j <= slices; j++) {
+                double phi = 2 * Math.PI * (j % slices) / slices;
+                double x = sin * Math.cos(phi), y = Math.cos(theta), z = sin * Math.sin(phi);
+                obj.append(String.format(Locale.ROOT, "v %.6f %.6f %.6f%n", .5 * x, .5 * y, .5 * z));
+                obj.append(String.format(Locale.ROOT, "vt %.6f %.6f%n", j / (double) slices, i / (double) stacks));
+                obj.append(String.format(Locale.ROOT, "vn %.6f %.6f %.6f%n", x, y, z));
+            }
+        }
+        for (int i = 0; i < stacks; i++) {
+            for (int j = 0; j < slices; j++) {
+                int a = i * (slices + 1) + j + 1, b = a + 1, c = a + slices + 1, d = c + 1;
+                if (i != 0) obj.append(face(a, c, b));
+                if (i != stacks - 1) obj.append(face(b, c, d));
+            }
+        }
+        return obj.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String face(int a, int b, int c) {
+        return "f " + a + "/" + a + "/" + a + " " + b + "/" + b + "/" + b + " " + c + "/" + c + "/" + c + "\n";
+    }
+
+    /**
+     * OBJ text of the unit cube, one quad per face.
+     */
+    static byte[] cubeObj() {
+        String obj = """
+            v -0.5 -0.5 -0.5
+            v 0.5 -0.5 -0.5
+            v 0.5 0.5 -0.5
+            v -0.5 0.5 -0.5
+            v -0.5 -0.5 0.5
+            v 0.5 -0.5 0.5
+            v 0.5 0.5 0.5
+            v -0.5 0.5 0.5
+            f 1 4 3 2
+            f 5 6 7 8
+            f 1 2 6 5
+            f 4 8 7 3
+            f 1 5 8 4
+            f 2 3 7 6
+            """;
+        return obj.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static MeshAsset mesh(byte[] obj) {
+        return MeshAsset.of(new ObjParser().parse(new ByteArrayInputStream(obj)));
+    }
+
+    /**
+     * Rigid body with the mass properties of the mesh, not attached to any world.
+     */
+    static Entity body(MeshAsset mesh, double x, double y, double z, Quaterniond orientation) {
+        Body body = new RidigBody(DENSITY);
+        PhysicsUtils.applyMeshProperties(mesh.properties(), body);
+        body.setPosition(x, y, z);
+        body.setOrientation(orientation);
+        body.storePreviousTransform();
+        return new Entity(null, body, mesh.collisionMesh());
+    }
+}
@@ -0,0 +1,60 @@
+package com.engine.benchmarks;
+
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.body.RidigBody;
+import com.engine.physics.forces.BarnesHutGravity;
+import com.engine.physics.forces.DirectGravity;
+import com.engine.physics.forces.ForceGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mutual gravitation of bodies spread uniformly in a cube, exact O(n²) against the Barnes-Hut tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GravityBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    public int bodies;
+
+    @Param({"direct", "barnesHut"})
+    public String method;
+
+    private BodyStore store;
+    private ForceGenerator gravity;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(Fixtures.SEED);
+        store = new BodyStore(bodies);
+        for (int i = 0; i < bodies; i++) {
+            Body body = new RidigBody(Fixtures.DENSITY, store);
+            body.setMass(1 + random.nextDouble());
+            body.setPosition(100 * random.nextDouble(), 100 * random.nextDouble(), 100 * random.nextDouble());
+        }
+        gravity = switch (method) {
+            case "direct" -> new DirectGravity(.01);
+            case "barnesHut" -> new BarnesHutGravity(.5, .01);
+            default -> throw new IllegalArgumentException("Unknown method " + method + ".");
+        };
+    }
+
+    @Benchmark
+    public BodyStore apply() {
+        store.clearForces();
+        gravity.apply(store, 0, store.size());
+        return store;
+    }
+}
@@ -0,0 +1,93 @@
+package com.engine.benchmarks;
+
+import com.engine.config.Constants;
+import com.engine.core.MeshAsset;
+import com.engine.core.entity.Entity;
+import com.engine.physics.BatchIntegrator;
+import com.engine.physics.RK4Integrator;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStore;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One integration step: the RK4 integrator on a single body and the {@link BatchIntegrator} over a whole
+ * {@link BodyStore}. Both start from bodies tumbling with random angular velocities; the state is reset
+ * every iteration so the bodies never drift far from it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class IntegratorBenchmark {
+    private static final double H = Constants.FIXED_TIME_STEP;
+
+    @State(Scope.Thread)
+    public static class SingleBody {
+        @Param({"1", "4", "16"})
+        public int steps;
+
+        @Param({"ALIGNED", "RANDOM"})
+        public Fixtures.Rotation rotation;
+
+        Body body;
+        final Vector3d torque = new Vector3d(.1, 0, 0);
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            Random random = new Random(Fixtures.SEED);
+            MeshAsset cube = Fixtures.mesh(Fixtures.cubeObj());
+            Entity entity = Fixtures.body(cube, 0, 0, 0, rotation.sample(random, new Quaterniond()));
+            body = entity.body();
+            body.setAngularVelocity(new Vector3d(random.nextGaussian(), random.nextGaussian(), random.nextGaussian()));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Store {
+        @Param({"100", "1000", "10000", "100000"})
+        public int bodies;
+
+        final BatchIntegrator integrator = new BatchIntegrator();
+        BodyStore store;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            Random random = new Random(Fixtures.SEED);
+            MeshAsset cube = Fixtures.mesh(Fixtures.cubeObj());
+            Quaterniond orientation = new Quaterniond();
+            store = new BodyStore(bodies);
+            for (int i = 0; i < bodies; i++) {
+                Entity entity = Fixtures.body(cube, 3 * i, 0, 0, Fixtures.Rotation.RANDOM.sample(random, orientation));
+                entity.body().setAngularVelocity(new Vector3d(random.nextGaussian(), random.nextGaussian(), random.nextGaussian()));
+                store.attach(entity.body());
+            }
+            for (int i = 0; i < bodies; i++) {
+                store.fy[i] = -Constants.EARTH_ACC * store.mass[i];
+            }
+        }
+    }
+
+    @Benchmark
+    public Body rk4Step(SingleBody state) {
+        RK4Integrator.gravity(state.body, state.torque, H, 0, state.steps);
+        return state.body;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BodyStore batchStep(Store state) {
+        state.integrator.integrate(state.store, H);
+        return state.store;
+    }
+}
@@ -0,0 +1,80 @@
+package com.engine.benchmarks;
+
+import com.engine.core.MeshAsset;
+import com.engine.core.MeshCache;
+import com.engine.core.ObjMesh;
+import com.engine.core.ObjParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GL-free stages of {@code ObjectLoader.loadObjModel} on UV spheres of {@code 4 * stacks² - 2 * stacks}
+ * triangles: parsing the OBJ text, building the asset with mass properties and collision proxy,
+ * and reading the binary mesh cache that replaces both on later runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoaderBenchmark {
+
+    @Param({"8", "32", "128"})
+    public int stacks;
+
+    private byte[] obj;
+    private ObjParser parser;
+    private ObjMesh parsed;
+    private Path directory;
+    private Path cache;
+    private long hash;
+    private long size;
+
+    @Setup
+    public void setup() throws IOException {
+        obj = Fixtures.sphereObj(stacks, 2 * stacks);
+        parser = new ObjParser();
+        parsed = new ObjParser().parse(new ByteArrayInputStream(obj));
+
+        directory = Files.createTempDirectory("loader-benchmark");
+        Path source = directory.resolve("sphere.obj");
+        Files.write(source, obj);
+        hash = MeshCache.contentHash(source);
+        size = obj.length;
+        cache = MeshCache.cachePath(directory, source);
+        MeshCache.write(cache, hash, size, MeshAsset.of(parsed));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(cache);
+        Files.deleteIfExists(directory.resolve("sphere.obj"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public ObjMesh parse() {
+        return parser.parse(new ByteArrayInputStream(obj));
+    }
+
+    @Benchmark
+    public MeshAsset buildAsset() {
+        return MeshAsset.of(parsed);
+    }
+
+    @Benchmark
+    public MeshAsset readCache() throws IOException {
+        return MeshCache.read(cache, hash, size);
+    }
+}
@@ -0,0 +1,65 @@
+package com.engine.benchmarks;
+
+import com.engine.core.MeshAsset;
+import com.engine.core.entity.Entity;
+import com.engine.utils.CollisionsUtils;
+import org.joml.Quaterniond;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CollisionsUtils#computeContact(Entity, Entity)} on pairs of unit cubes. {@code distance} is the
+ * distance of the centres in edge lengths: at 0.8 every pair overlaps and runs all 15 SAT axes, at 2 every
+ * pair is separated and exits on an early axis.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NarrowphaseBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"ALIGNED", "TILTED", "RANDOM"})
+    public Fixtures.Rotation rotation;
+
+    @Param({"0.8", "2"})
+    public double distance;
+
+    private Entity[] a;
+    private Entity[] b;
+
+    @Setup
+    public void setup() {
+        MeshAsset cube = Fixtures.mesh(Fixtures.cubeObj());
+        Random random = new Random(Fixtures.SEED);
+        Quaterniond orientation = new Quaterniond();
+        a = new Entity[PAIRS];
+        b = new Entity[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            double x = 3 * i;
+            a[i] = Fixtures.body(cube, x, 0, 0, rotation.sample(random, orientation));
+            // random direction, so no axis is favoured
+            double dx = random.nextGaussian(), dy = random.nextGaussian(), dz = random.nextGaussian();
+            double s = distance / Math.sqrt(dx * dx + dy * dy + dz * dz);
+            b[i] = Fixtures.body(cube, x + dx * s, dy * s, dz * s, rotation.sample(random, orientation));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void computeContact(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(CollisionsUtils.computeContact(a[i], b[i]));
+        }
+    }
+}
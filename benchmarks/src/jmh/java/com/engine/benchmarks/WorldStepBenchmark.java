@@ -0,0 +1,49 @@
+package com.engine.benchmarks;
+
+import com.engine.config.Constants;
+import com.engine.core.MeshAsset;
+import com.engine.headless.HeadlessScene;
+import com.engine.physics.PhysicsWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full {@link PhysicsWorld#step(double)} of the {@link HeadlessScene}: cubes falling onto the floor.
+ * The scene is rebuilt every iteration so each one measures the same stretch of the simulation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WorldStepBenchmark {
+
+    @Param({"100", "1000"})
+    public int bodies;
+
+    private MeshAsset cube;
+    private PhysicsWorld world;
+
+    @Setup
+    public void loadMesh() {
+        cube = Fixtures.mesh(Fixtures.cubeObj());
+    }
+
+    @Setup(Level.Iteration)
+    public void createWorld() {
+        world = HeadlessScene.create(cube, bodies);
+    }
+
+    @Benchmark
+    public PhysicsWorld step() {
+        world.step(Constants.FIXED_TIME_STEP);
+        return world;
+    }
+}
@@ -4,10 +4,13 @@ import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.engine.config.Constants;
 import com.engine.core.entity.EntityManager;
 import com.engine.core.SceneManager;
+import com.engine.core.input.CameraController;
 import com.engine.core.render.RenderManager;
 import com.engine.physics.body.RidigBody;
+import com.engine.profiling.StepProfiler;
 import org.joml.Vector3d;
 
 /** {@link com.badlogic.gdx.ApplicationListener} implementation shared by all platforms. */
@@ -16,6 +19,9 @@ public class PhysicsEngine extends ApplicationAdapter {
     private SceneManager scene;
     private EntityManager entityManager;
     private PerspectiveCamera camera;
+    private final CameraController cameraController = new CameraController();
+    private StepProfiler profiler = null;
+    private float sinceReport = 0;
 
     @Override
     public void create() {
@@ -24,8 +30,17 @@ public class PhysicsEngine extends ApplicationAdapter {
         this.scene = new SceneManager();
         renderManager.init();
         entityManager.init();
-        entityManager.createEntity(scene, new RidigBody(400), new Vector3d(10,20,0), "models/Cube.obj");
-        entityManager.createEntity(scene, new RidigBody(400), new Vector3d(0,15,10), "models/Cube.obj");
+        if (Boolean.getBoolean("engine.profile")) {
+            StepProfiler profiler = new StepProfiler();
+            this.profiler = profiler;
+            renderManager.setProfiler(profiler);
+            entityManager.setProfiler(profiler);
+            entityManager.getPhysics().submit(world -> world.setProfiler(profiler));
+        }
+        entityManager.createEntityAsync(scene, new RidigBody(400), new Vector3d(10,20,0), "models/Cube.obj")
+            .exceptionally(PhysicsEngine::logLoadFailure);
+        entityManager.createEntityAsync(scene, new RidigBody(400), new Vector3d(0,15,10), "models/Cube.obj")
+            .exceptionally(PhysicsEngine::logLoadFailure);
         camera = new PerspectiveCamera(
             67,
             Gdx.graphics.getWidth(),
@@ -36,14 +51,25 @@ public class PhysicsEngine extends ApplicationAdapter {
         camera.near = 0.1f;
         camera.far = 100f;
         camera.update();
+        entityManager.start(scene);
     }
 
     @Override
     public void render() {
-        float dt = Gdx.graphics.getDeltaTime();
-        entityManager.update(dt, scene, camera);
+        cameraController.update(camera);
+        entityManager.getPicking().update(camera, entityManager.getPhysics().getSnapshot());
+        entityManager.update();
         renderManager.clear();
-        renderManager.update(scene, camera);
+        renderManager.render(scene, camera);
+        if (profiler != null && (sinceReport += Gdx.graphics.getDeltaTime()) >= Constants.PROFILER_REPORT_INTERVAL) {
+            sinceReport = 0;
+            Gdx.app.log("Profiler", "\n" + profiler.report());
+        }
+    }
+
+    private static Integer logLoadFailure(Throwable failure) {
+        Gdx.app.error("PhysicsEngine", "Could not create entity", failure);
+        return null;
     }
 
     @Override
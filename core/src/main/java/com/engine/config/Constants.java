@@ -30,9 +30,21 @@ public class Constants {
     // Friction coefficients
     public static final double frictionCoefficient = .5;
 
+    // Drag coefficient c_w of a cube facing the flow
+    public static final double DRAG_COEFFICIENT = 1.05;
+
     // Default values
     public static final double DEFAULT_H = 1e-5f;
     public static final double restitution = .1;
+    public static final double FIXED_TIME_STEP = 1 / 60d;
+    public static final int MAX_SUB_STEPS = 5;
+    public static final long ASSET_UPLOAD_BUDGET_NANOS = 4_000_000;
+    public static final int COLLISION_PROXY_TRIANGLES = 1_000;
+    public static final double BROADPHASE_MARGIN = .1;
+    public static final float PROFILER_REPORT_INTERVAL = 5f;
+    public static final int CONTACT_SPIKE_MIN_CONTACTS = 32;
+    public static final double CONTACT_SPIKE_FACTOR = 2;
+    public static final double CONTACT_AVERAGE_SMOOTHING = .05;
     public static final double SQRT_3_5 = Math.sqrt(3.0/5.0);
     public static final double[] ABSCISSA = {-SQRT_3_5, 0f, SQRT_3_5};
     public static final double[] WEIGHT = {5f/9, 8f/9, 5f/9};
@@ -0,0 +1,151 @@
+package com.engine.core;
+
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reference-counted cache of loaded models keyed by asset path. All entities using the same path share
+ * one {@link Model}, one render and collision {@link MeshData} and one {@link MeshProperties}; the model is disposed as soon as
+ * the last user releases it. Only use it from the render thread.
+ */
+public class AssetCache implements Disposable {
+    private final Map<String, Entry> byPath = new HashMap<>();
+    private final Map<Model, Entry> byModel = new IdentityHashMap<>();
+    private final Function<String, MeshAsset> meshLoader;
+    private final Function<MeshAsset, Model> modelFactory;
+
+    public AssetCache(Function<String, MeshAsset> meshLoader, Function<MeshAsset, Model> modelFactory) {
+        this.meshLoader = meshLoader;
+        this.modelFactory = modelFactory;
+    }
+
+    /**
+     * Returns the shared asset of the path, loading it on first use, and counts one more user.
+     */
+    public Entry acquire(String path) {
+        return acquire(path, null);
+    }
+
+    /**
+     * Like {@link #acquire(String)}, but uses the already loaded mesh if the path is not cached yet,
+     * so only the model has to be built.
+     */
+    public Entry acquire(String path, MeshAsset loaded) {
+        Entry entry = byPath.get(path);
+        if (entry == null) {
+            MeshAsset mesh = loaded != null ? loaded : meshLoader.apply(path);
+            entry = new Entry(path, modelFactory.apply(mesh), mesh);
+            byPath.put(path, entry);
+            byModel.put(entry.model, entry);
+        }
+        entry.references++;
+        return entry;
+    }
+
+    /**
+     * Counts one user less and disposes the asset when it was the last one.
+     */
+    public void release(String path) {
+        Entry entry = byPath.get(path);
+        if (entry == null) throw new IllegalArgumentException("Asset " + path + " is not loaded.");
+        release(entry);
+    }
+
+    /**
+     * Releases the asset the model belongs to, e.g. {@code entity.instance().model}. Models that were not
+     * loaded through this cache are ignored.
+     */
+    public void release(Model model) {
+        Entry entry = byModel.get(model);
+        if (entry != null) release(entry);
+    }
+
+    private void release(Entry entry) {
+        if (--entry.references == 0) evict(entry.path);
+    }
+
+    /**
+     * Disposes the asset regardless of its users.
+     * @return false if it was not loaded
+     */
+    public boolean evict(String path) {
+        Entry entry = byPath.remove(path);
+        if (entry == null) return false;
+        byModel.remove(entry.model);
+        entry.references = 0;
+        entry.model.dispose();
+        return true;
+    }
+
+    public boolean contains(String path) {
+        return byPath.containsKey(path);
+    }
+
+    public int getReferenceCount(String path) {
+        Entry entry = byPath.get(path);
+        return entry == null ? 0 : entry.references;
+    }
+
+    public int size() {
+        return byPath.size();
+    }
+
+    @Override
+    public void dispose() {
+        for (Entry entry : byPath.values()) {
+            entry.references = 0;
+            entry.model.dispose();
+        }
+        byPath.clear();
+        byModel.clear();
+    }
+
+    public static final class Entry {
+        private final String path;
+        private final Model model;
+        private final MeshAsset mesh;
+        private int references = 0;
+
+        private Entry(String path, Model model, MeshAsset mesh) {
+            this.path = path;
+            this.model = model;
+            this.mesh = mesh;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public Model getModel() {
+            return model;
+        }
+
+        public MeshData getMeshData() {
+            return mesh.meshData();
+        }
+
+        /**
+         * Mesh the physics side works on, a decimated proxy for high-poly assets.
+         */
+        public MeshData getCollisionMesh() {
+            return mesh.collisionMesh();
+        }
+
+        public MeshProperties getProperties() {
+            return mesh.properties();
+        }
+
+        public MeshAsset getMesh() {
+            return mesh;
+        }
+
+        public int getReferences() {
+            return references;
+        }
+    }
+}
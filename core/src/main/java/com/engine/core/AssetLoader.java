@@ -0,0 +1,125 @@
+package com.engine.core;
+
+import com.badlogic.gdx.utils.Disposable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads assets in the background: parsing, the mesh cache and the mass properties run on worker threads,
+ * only the model creation (GPU upload) runs on the render thread in {@link #update(long)} within a time budget.
+ * Requests for the same path are merged. {@link #load(String)}, {@link #update(long)} and the futures'
+ * completion all happen on the render thread.
+ */
+public class AssetLoader implements Disposable {
+    private final ObjectLoader loader;
+    private final ExecutorService workers;
+    private final Map<String, List<CompletableFuture<AssetCache.Entry>>> pending = new HashMap<>();
+    private final Queue<Loaded> loaded = new ConcurrentLinkedQueue<>();
+    private int requested = 0;
+    private int completed = 0;
+
+    private record Loaded(String path, MeshAsset mesh, Throwable error) {}
+
+    public AssetLoader(ObjectLoader loader) {
+        this(loader, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public AssetLoader(ObjectLoader loader, int threads) {
+        this.loader = loader;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "asset-loader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Requests the asset. The future completes on the render thread with an acquired entry of the
+     * {@link AssetCache}; release it like any other entry.
+     */
+    public CompletableFuture<AssetCache.Entry> load(String path) {
+        CompletableFuture<AssetCache.Entry> future = new CompletableFuture<>();
+        AssetCache assets = loader.getAssets();
+        if (assets.contains(path)) {
+            future.complete(assets.acquire(path));
+            return future;
+        }
+
+        List<CompletableFuture<AssetCache.Entry>> waiting = pending.get(path);
+        if (waiting == null) {
+            waiting = new ArrayList<>();
+            pending.put(path, waiting);
+            requested++;
+            workers.execute(() -> {
+                try {
+                    loaded.add(new Loaded(path, loader.loadAsset(path), null));
+                } catch (Throwable e) {
+                    loaded.add(new Loaded(path, null, e));
+                }
+            });
+        }
+        waiting.add(future);
+        return future;
+    }
+
+    /**
+     * Uploads loaded assets and completes their futures until the budget is used up. At least one asset
+     * is uploaded per call, so loading always makes progress.
+     */
+    public void update(long budgetNanos) {
+        long start = System.nanoTime();
+        Loaded next;
+        while ((next = loaded.poll()) != null) {
+            List<CompletableFuture<AssetCache.Entry>> waiting = pending.remove(next.path());
+            completed++;
+            for (CompletableFuture<AssetCache.Entry> future : waiting) {
+                if (next.error() != null) {
+                    future.completeExceptionally(next.error());
+                    continue;
+                }
+                try {
+                    future.complete(loader.getAssets().acquire(next.path(), next.mesh()));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+            if (System.nanoTime() - start >= budgetNanos) break;
+        }
+    }
+
+    /** Number of distinct assets requested from the workers. */
+    public int getRequested() {
+        return requested;
+    }
+
+    /** Number of requested assets that are uploaded or failed. */
+    public int getCompleted() {
+        return completed;
+    }
+
+    /**
+     * @return share of the requested assets that are done, 1 if nothing is loading
+     */
+    public float getProgress() {
+        return requested == 0 ? 1 : completed / (float) requested;
+    }
+
+    public boolean isIdle() {
+        return pending.isEmpty();
+    }
+
+    @Override
+    public void dispose() {
+        workers.shutdownNow();
+    }
+}
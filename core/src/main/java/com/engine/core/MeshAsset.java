@@ -0,0 +1,63 @@
+package com.engine.core;
+
+import com.engine.config.Constants;
+import com.engine.utils.PhysicsUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.List;
+
+/**
+ * Loaded mesh ready for upload and simulation. The buffers are either wrapped parser output or views on a
+ * memory-mapped {@link MeshCache} file; read them through {@code duplicate()}.
+ * @param vertices interleaved vertices, {@value ObjMesh#STRIDE} floats each
+ * @param meshData positions and indices of the render mesh
+ * @param collisionMesh low-poly proxy of the mesh for the physics side, the mesh data itself if it is small enough;
+ *                      the volume and inertia of the properties are computed from it
+ * @param chunks 16-bit parts of the mesh for upload if it exceeds {@link MeshChunker#MAX_VERTICES}, otherwise empty
+ */
+public record MeshAsset(FloatBuffer vertices, IntBuffer indices, MeshData meshData, MeshData collisionMesh,
+                        MeshProperties properties, List<MeshChunk> chunks) {
+
+    /**
+     * Builds the asset from parser output: meshes above {@link Constants#COLLISION_PROXY_TRIANGLES} triangles
+     * are decimated into a collision proxy. Volume and inertia are computed from the proxy, the bounds, half
+     * extents and fluid coefficients from the render mesh, so they cover everything that is drawn.
+     */
+    public static MeshAsset of(ObjMesh obj) {
+        MeshData meshData = obj.meshData();
+        MeshData collisionMesh = MeshSimplifier.triangleCount(meshData) > Constants.COLLISION_PROXY_TRIANGLES
+            ? MeshSimplifier.simplify(meshData, Constants.COLLISION_PROXY_TRIANGLES)
+            : meshData;
+        return new MeshAsset(FloatBuffer.wrap(obj.vertices()), IntBuffer.wrap(obj.indices()), meshData, collisionMesh,
+            PhysicsUtils.calcMeshProperties(meshData, collisionMesh), List.of());
+    }
+
+    public MeshAsset withChunks(List<MeshChunk> chunks) {
+        return new MeshAsset(vertices, indices, meshData, collisionMesh, properties, List.copyOf(chunks));
+    }
+
+    public boolean hasCollisionProxy() {
+        return collisionMesh != meshData;
+    }
+
+    /**
+     * Triangles of the collision mesh per triangle of the render mesh, 1 without a proxy.
+     */
+    public double collisionRatio() {
+        int triangles = MeshSimplifier.triangleCount(meshData);
+        return triangles == 0 ? 1 : MeshSimplifier.triangleCount(collisionMesh) / (double) triangles;
+    }
+
+    public int vertexCount() {
+        return vertices.limit() / ObjMesh.STRIDE;
+    }
+
+    public int indexCount() {
+        return indices.limit();
+    }
+
+    public boolean isChunked() {
+        return !chunks.isEmpty();
+    }
+}
@@ -0,0 +1,273 @@
+package com.engine.core;
+
+import com.engine.config.Constants;
+import com.engine.core.entity.AABB;
+import com.engine.physics.body.FluidCoefficients;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Binary cache of parsed OBJ meshes and their collision proxies, stored as {@code <name>-<path hash>.meshbin} in a
+ * user cache directory, never next to the source: asset directories may be read-only or packed into the jar. A
+ * cache is invalidated by the size and a 64-bit content hash of the source, and by the collision proxy target
+ * and simplifier parameters it was built with. Cache hits are memory-mapped and the vertex and index blocks are
+ * handed out as views on the mapping.
+ * <pre>
+ * header (256 bytes, little endian)
+ *   0  int      magic 'MESH'
+ *   4  int      format version
+ *   8  long     source content hash
+ *  16  long     source size in bytes
+ *  24  int      vertex count
+ *  28  int      index count
+ *  32  int      floats per vertex (8: position, texture coordinates, normal)
+ *  36  int      collision proxy target triangles
+ *  40  float[6] AABB min x, y, z, max x, y, z
+ *  64  double   volume
+ *  72  double[3] principal inertia per unit mass
+ *  96  double   fluid volume
+ * 104  double[3] projected area
+ * 128  double[3] angular drag moment
+ * 152  double[3] centroid
+ * 176  double[4] principal axes quaternion x, y, z, w
+ * 208  int      collision proxy vertex count, 0 if the render mesh is used
+ * 212  int      collision proxy index count
+ * 216  double[3] half extent about the centroid along the principal axes
+ * 240  long     collision proxy parameter hash, see {@link MeshSimplifier#parameterHash}
+ * 248  -        reserved
+ * 256  float[]  vertices
+ *      int[]    indices
+ *      float[]  collision proxy positions x, y, z
+ *      int[]    collision proxy indices
+ * </pre>
+ */
+public final class MeshCache {
+    public static final String EXTENSION = ".meshbin";
+    public static final int MAGIC = 0x4853454D;
+    public static final int VERSION = 6;
+    public static final int HEADER_BYTES = 256;
+
+    private MeshCache() {}
+
+    /**
+     * {@code $XDG_CACHE_HOME/physics-engine/meshes}, by default under {@code ~/.cache}; the system property
+     * {@code engine.meshCache} overrides it.
+     */
+    public static Path defaultDirectory() {
+        String override = System.getProperty("engine.meshCache");
+        if (override != null) return Path.of(override);
+        String xdg = System.getenv("XDG_CACHE_HOME");
+        Path base = xdg != null && !xdg.isEmpty() ? Path.of(xdg) : Path.of(System.getProperty("user.home"), ".cache");
+        return base.resolve("physics-engine").resolve("meshes");
+    }
+
+    /**
+     * Cache file of the source in the directory; sources with the same name in different folders get different files.
+     */
+    public static Path cachePath(Path directory, Path source) {
+        String path = source.toAbsolutePath().normalize().toString();
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < path.length(); i++) h = (h ^ path.charAt(i)) * 0x100000001B3L;
+        return directory.resolve(source.getFileName() + "-" + String.format(Locale.ROOT, "%016x", mix(h)) + EXTENSION);
+    }
+
+    public static MeshAsset load(Path source, ObjParser parser) throws IOException {
+        return load(source, defaultDirectory(), parser);
+    }
+
+    /**
+     * Loads the mesh from the cache of the source in the directory, or parses the source and writes the cache.
+     * A cache that cannot be written is ignored.
+     */
+    public static MeshAsset load(Path source, Path directory, ObjParser parser) throws IOException {
+        long size = Files.size(source);
+        long hash = contentHash(source);
+        Path cache = cachePath(directory, source);
+
+        MeshAsset cached = read(cache, hash, size);
+        if (cached != null) return cached;
+
+        ObjMesh obj;
+        try (InputStream in = Files.newInputStream(source)) {
+            obj = parser.parse(in);
+        }
+        MeshAsset asset = MeshAsset.of(obj);
+        try {
+            Files.createDirectories(directory);
+            write(cache, hash, size, asset);
+        } catch (IOException ignored) {
+            // no writable cache directory, parse again next time
+        }
+        return asset;
+    }
+
+    /**
+     * Maps the cache file.
+     * @return the mesh, or null if the file is missing, damaged or belongs to another source version
+     */
+    public static MeshAsset read(Path cache, long sourceHash, long sourceSize) throws IOException {
+        if (!Files.isRegularFile(cache)) return null;
+
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) return null;
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        ByteBuffer b = mapped.order(ByteOrder.LITTLE_ENDIAN);
+        if (b.getInt(0) != MAGIC || b.getInt(4) != VERSION) return null;
+        if (b.getLong(8) != sourceHash || b.getLong(16) != sourceSize) return null;
+        if (b.getInt(36) != Constants.COLLISION_PROXY_TRIANGLES || b.getLong(240) != proxyParameterHash()) return null;
+
+        int vertexCount = b.getInt(24);
+        int indexCount = b.getInt(28);
+        int stride = b.getInt(32);
+        int proxyVertexCount = b.getInt(208);
+        int proxyIndexCount = b.getInt(212);
+        if (stride != ObjMesh.STRIDE) return null;
+        long expected = HEADER_BYTES + 4L * vertexCount * stride + 4L * indexCount
+            + 12L * proxyVertexCount + 4L * proxyIndexCount;
+        if (b.capacity() != expected) return null;
+
+        int vertexBytes = 4 * vertexCount * stride;
+        FloatBuffer vertices = b.slice(HEADER_BYTES, vertexBytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+        IntBuffer indices = b.slice(HEADER_BYTES + vertexBytes, 4 * indexCount).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int offset = HEADER_BYTES + vertexBytes + 4 * indexCount;
+
+        AABB bounds = new AABB(
+            new Vector3d(b.getFloat(40), b.getFloat(44), b.getFloat(48)),
+            new Vector3d(b.getFloat(52), b.getFloat(56), b.getFloat(60)));
+        FluidCoefficients fluid = new FluidCoefficients(b.getDouble(96),
+            new Vector3d(b.getDouble(104), b.getDouble(112), b.getDouble(120)),
+            new Vector3d(b.getDouble(128), b.getDouble(136), b.getDouble(144)));
+        MeshProperties properties = new MeshProperties(bounds, b.getDouble(64),
+            new Vector3d(b.getDouble(152), b.getDouble(160), b.getDouble(168)),
+            new Vector3d(b.getDouble(72), b.getDouble(80), b.getDouble(88)),
+            new Quaterniond(b.getDouble(176), b.getDouble(184), b.getDouble(192), b.getDouble(200)),
+            new Vector3d(b.getDouble(216), b.getDouble(224), b.getDouble(232)),
+            fluid);
+
+        // the physics side works on heap arrays, these are the only copies
+        float[] positions = new float[3 * vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            positions[3 * i] = vertices.get(i * stride);
+            positions[3 * i + 1] = vertices.get(i * stride + 1);
+            positions[3 * i + 2] = vertices.get(i * stride + 2);
+        }
+        int[] indexArray = new int[indexCount];
+        indices.duplicate().get(indexArray);
+        MeshData meshData = new MeshData(positions, indexArray);
+
+        MeshData collisionMesh = meshData;
+        if (proxyIndexCount > 0) {
+            float[] proxyPositions = new float[3 * proxyVertexCount];
+            int[] proxyIndices = new int[proxyIndexCount];
+            b.slice(offset, 12 * proxyVertexCount).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(proxyPositions);
+            offset += 12 * proxyVertexCount;
+            b.slice(offset, 4 * proxyIndexCount).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(proxyIndices);
+            collisionMesh = new MeshData(proxyPositions, proxyIndices);
+        }
+
+        return new MeshAsset(vertices, indices, meshData, collisionMesh, properties, List.of());
+    }
+
+    /**
+     * Writes the cache through a temporary file, so readers never see a partial file.
+     */
+    public static void write(Path cache, long sourceHash, long sourceSize, MeshAsset asset) throws IOException {
+        FloatBuffer vertices = asset.vertices().duplicate();
+        IntBuffer indices = asset.indices().duplicate();
+        MeshProperties properties = asset.properties();
+        int vertexCount = asset.vertexCount();
+        int indexCount = asset.indexCount();
+        MeshData proxy = asset.hasCollisionProxy() ? asset.collisionMesh() : new MeshData(new float[0], new int[0]);
+
+        ByteBuffer b = ByteBuffer.allocate(HEADER_BYTES + 4 * vertexCount * ObjMesh.STRIDE + 4 * indexCount
+                + 4 * proxy.positions().length + 4 * proxy.indices().length)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        b.putInt(MAGIC).putInt(VERSION).putLong(sourceHash).putLong(sourceSize);
+        b.putInt(vertexCount).putInt(indexCount).putInt(ObjMesh.STRIDE).putInt(Constants.COLLISION_PROXY_TRIANGLES);
+
+        AABB bounds = properties.bounds();
+        b.putFloat((float) bounds.min().x).putFloat((float) bounds.min().y).putFloat((float) bounds.min().z);
+        b.putFloat((float) bounds.max().x).putFloat((float) bounds.max().y).putFloat((float) bounds.max().z);
+        b.putDouble(properties.volume());
+        putVector(b, properties.unitInertia());
+        FluidCoefficients fluid = properties.fluidCoefficients();
+        b.putDouble(fluid.volume());
+        putVector(b, fluid.projectedArea());
+        putVector(b, fluid.angularDragMoment());
+        putVector(b, properties.centroid());
+        Quaterniond axes = properties.principalAxes();
+        b.putDouble(axes.x).putDouble(axes.y).putDouble(axes.z).putDouble(axes.w);
+        b.putInt(proxy.positions().length / 3).putInt(proxy.indices().length);
+        putVector(b, properties.principalHalfExtent());
+        b.putLong(proxyParameterHash());
+
+        b.position(HEADER_BYTES);
+        b.asFloatBuffer().put(vertices);
+        b.position(HEADER_BYTES + 4 * vertexCount * ObjMesh.STRIDE);
+        b.asIntBuffer().put(indices);
+        b.position(b.position() + 4 * indexCount);
+        b.asFloatBuffer().put(proxy.positions());
+        b.position(b.position() + 4 * proxy.positions().length);
+        b.asIntBuffer().put(proxy.indices());
+        b.rewind();
+
+        Path temporary = cache.resolveSibling(cache.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (b.hasRemaining()) channel.write(b);
+        }
+        Files.move(temporary, cache, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long proxyParameterHash() {
+        return MeshSimplifier.parameterHash(Constants.COLLISION_PROXY_TRIANGLES);
+    }
+
+    private static void putVector(ByteBuffer b, Vector3d v) {
+        b.putDouble(v.x).putDouble(v.y).putDouble(v.z);
+    }
+
+    /**
+     * 64-bit hash of the file content, eight bytes per round.
+     */
+    public static long contentHash(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long h = 0x9E3779B97F4A7C15L ^ size;
+            if (size == 0) return mix(h);
+            ByteBuffer b = channel.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            while (b.remaining() >= Long.BYTES) {
+                h = Long.rotateLeft(h ^ b.getLong() * 0xC2B2AE3D27D4EB4FL, 31) * 0x9E3779B97F4A7C15L;
+            }
+            while (b.hasRemaining()) {
+                h = (h ^ (b.get() & 0xFF)) * 0x100000001B3L;
+            }
+            return mix(h);
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+}
@@ -0,0 +1,16 @@
+package com.engine.core;
+
+import com.engine.core.entity.AABB;
+
+/**
+ * Part of a mesh that fits 16-bit indices, see {@link MeshChunker}.
+ * @param vertices interleaved vertices, {@value ObjMesh#STRIDE} floats each
+ * @param indices unsigned 16-bit indices into the chunk vertices
+ * @param bounds bounding box in model coordinates
+ */
+public record MeshChunk(float[] vertices, short[] indices, AABB bounds) {
+
+    public int vertexCount() {
+        return vertices.length / ObjMesh.STRIDE;
+    }
+}
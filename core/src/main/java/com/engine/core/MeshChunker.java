@@ -0,0 +1,165 @@
+package com.engine.core;
+
+import com.engine.core.entity.AABB;
+import org.joml.Vector3d;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits meshes that exceed the 16-bit index range into spatially coherent chunks. The triangles are
+ * divided at the median centroid along the longest axis until every part references few enough vertices,
+ * so each chunk covers a compact region and the parts of a visible model can be culled by their bounds.
+ */
+public final class MeshChunker {
+    /** Largest vertex count of a mesh with unsigned 16-bit indices. */
+    public static final int MAX_VERTICES = 65535;
+
+    private MeshChunker() {}
+
+    public static List<MeshChunk> split(MeshAsset asset) {
+        return split(asset.vertices(), asset.indices(), MAX_VERTICES);
+    }
+
+    public static List<MeshChunk> split(FloatBuffer vertices, IntBuffer indices, int maxVertices) {
+        if (maxVertices < 3) throw new IllegalArgumentException("A chunk needs at least 3 vertices.");
+        int stride = ObjMesh.STRIDE;
+        int vertexCount = vertices.limit() / stride;
+        int triangleCount = indices.limit() / 3;
+
+        int[] triangles = new int[triangleCount];
+        float[][] centroids = new float[3][triangleCount];
+        for (int t = 0; t < triangleCount; t++) {
+            triangles[t] = t;
+            for (int axis = 0; axis < 3; axis++) {
+                centroids[axis][t] = (vertices.get(indices.get(3 * t) * stride + axis)
+                    + vertices.get(indices.get(3 * t + 1) * stride + axis)
+                    + vertices.get(indices.get(3 * t + 2) * stride + axis)) / 3;
+            }
+        }
+
+        int[] stamp = new int[vertexCount];
+        int[] local = new int[vertexCount];
+        int pass = 0;
+        List<MeshChunk> chunks = new ArrayList<>();
+
+        // ranges of the triangle permutation still to process
+        int[] stack = new int[128];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = triangleCount;
+        while (top > 0) {
+            int to = stack[--top];
+            int from = stack[--top];
+            if (from == to) continue;
+
+            if (countVertices(indices, triangles, from, to, stamp, ++pass) <= maxVertices) {
+                chunks.add(emit(vertices, indices, triangles, from, to, maxVertices, stamp, local, ++pass));
+                continue;
+            }
+
+            int axis = longestAxis(centroids, triangles, from, to);
+            int mid = (from + to) >>> 1;
+            select(triangles, centroids[axis], from, to - 1, mid);
+            if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = mid;
+            stack[top++] = to;
+            stack[top++] = from;
+            stack[top++] = mid;
+        }
+        return chunks;
+    }
+
+    private static int countVertices(IntBuffer indices, int[] triangles, int from, int to, int[] stamp, int pass) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int t = triangles[i];
+            for (int k = 0; k < 3; k++) {
+                int v = indices.get(3 * t + k);
+                if (stamp[v] != pass) {
+                    stamp[v] = pass;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static MeshChunk emit(FloatBuffer vertices, IntBuffer indices, int[] triangles, int from, int to,
+                                  int maxVertices, int[] stamp, int[] local, int pass) {
+        int stride = ObjMesh.STRIDE;
+        short[] chunkIndices = new short[3 * (to - from)];
+        float[] chunkVertices = new float[Math.min(chunkIndices.length, maxVertices) * stride];
+        int count = 0;
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+
+        for (int i = from; i < to; i++) {
+            int t = triangles[i];
+            for (int k = 0; k < 3; k++) {
+                int v = indices.get(3 * t + k);
+                if (stamp[v] != pass) {
+                    stamp[v] = pass;
+                    local[v] = count;
+                    vertices.get(v * stride, chunkVertices, count * stride, stride);
+                    float x = chunkVertices[count * stride];
+                    float y = chunkVertices[count * stride + 1];
+                    float z = chunkVertices[count * stride + 2];
+                    minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+                    minZ = Math.min(minZ, z); maxZ = Math.max(maxZ, z);
+                    count++;
+                }
+                chunkIndices[3 * (i - from) + k] = (short) local[v];
+            }
+        }
+        AABB bounds = new AABB(new Vector3d(minX, minY, minZ), new Vector3d(maxX, maxY, maxZ));
+        return new MeshChunk(Arrays.copyOf(chunkVertices, count * stride), chunkIndices, bounds);
+    }
+
+    private static int longestAxis(float[][] centroids, int[] triangles, int from, int to) {
+        int best = 0;
+        float bestExtent = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+            float[] c = centroids[axis];
+            for (int i = from; i < to; i++) {
+                float value = c[triangles[i]];
+                if (value < min) min = value;
+                if (value > max) max = value;
+            }
+            if (max - min > bestExtent) {
+                bestExtent = max - min;
+                best = axis;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Partially sorts {@code triangles[left..right]} by key so that position {@code k} holds the k-th smallest.
+     */
+    private static void select(int[] triangles, float[] key, int left, int right, int k) {
+        while (left < right) {
+            float pivot = key[triangles[(left + right) >>> 1]];
+            int i = left, j = right;
+            while (i <= j) {
+                while (key[triangles[i]] < pivot) i++;
+                while (key[triangles[j]] > pivot) j--;
+                if (i <= j) {
+                    int swap = triangles[i];
+                    triangles[i] = triangles[j];
+                    triangles[j] = swap;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.engine.core;
+
+import com.engine.core.entity.AABB;
+import com.engine.physics.body.FluidCoefficients;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+
+/**
+ * Shape data of a mesh that is computed once per asset and shared by all bodies using it.
+ * @param bounds bounding box in model coordinates
+ * @param volume volume in m³ the mass is derived from
+ * @param centroid center of mass in model coordinates (uniform density)
+ * @param unitInertia principal moments of inertia about the centroid per unit mass
+ * @param principalAxes rotation from the principal axes to the model axes
+ * @param principalHalfExtent half extent of the box about the centroid along the principal axes enclosing the mesh
+ */
+public record MeshProperties(AABB bounds, double volume, Vector3d centroid, Vector3d unitInertia,
+                             Quaterniond principalAxes, Vector3d principalHalfExtent,
+                             FluidCoefficients fluidCoefficients) {
+
+    public Vector3d halfExtent() {
+        return new Vector3d(bounds.max()).sub(bounds.min()).mul(.5);
+    }
+}
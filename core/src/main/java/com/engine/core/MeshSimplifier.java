@@ -0,0 +1,408 @@
+package com.engine.core;
+
+import java.util.Arrays;
+
+/**
+ * Mesh decimation with quadric error metrics (Garland and Heckbert) for low-poly collision proxies.
+ * Coincident positions are welded first, so seams of the render mesh (texture coordinates, normals)
+ * do not stop edges from collapsing. Edges are collapsed in passes with a growing error threshold,
+ * which avoids a global priority queue; border edges stay in place and collapses that would flip a
+ * triangle are rejected.
+ */
+public final class MeshSimplifier {
+    private static final int MAX_ITERATIONS = 100;
+    private static final double AGGRESSIVENESS = 7;
+
+    // vertices
+    private int vertexCount;
+    private double[] px, py, pz;
+    private double[] q; // symmetric 4x4 quadric, 10 values per vertex
+    private int[] refStart, refCount;
+    private boolean[] border;
+
+    // triangles
+    private int triangleCount;
+    private int[] tv;
+    private double[] error; // 3 edges and their minimum per triangle
+    private double[] normal;
+    private boolean[] deleted, dirty;
+
+    // vertex -> triangle references
+    private int refSize;
+    private int[] refTriangle, refCorner;
+
+    private final double[] point = new double[3];
+    private final double[] quadric = new double[10];
+    private boolean[] deleted0 = new boolean[16], deleted1 = new boolean[16];
+
+    private MeshSimplifier() {}
+
+    /**
+     * @param targetTriangles triangle count to stop at; the result can stay above it if no more edges
+     *                        can be collapsed without flipping triangles
+     * @return the simplified mesh, or the welded input if it already has at most {@code targetTriangles}
+     */
+    public static MeshData simplify(MeshData mesh, int targetTriangles) {
+        MeshSimplifier simplifier = new MeshSimplifier();
+        simplifier.weld(mesh.positions(), mesh.indices());
+        if (simplifier.triangleCount > targetTriangles) simplifier.run(Math.max(targetTriangles, 4));
+        return simplifier.compact();
+    }
+
+    /**
+     * Hash of the target triangle count and the decimation parameters. Proxies built with another hash are stale.
+     */
+    public static long parameterHash(int targetTriangles) {
+        long h = targetTriangles;
+        h = h * 31 + MAX_ITERATIONS;
+        return h * 31 + Double.doubleToLongBits(AGGRESSIVENESS);
+    }
+
+    public static int triangleCount(MeshData mesh) {
+        return mesh.indices().length / 3;
+    }
+
+    private void weld(float[] positions, int[] indices) {
+        int inputCount = positions.length / 3;
+        px = new double[inputCount];
+        py = new double[inputCount];
+        pz = new double[inputCount];
+
+        // open addressing on the bit patterns of the coordinates
+        int capacity = Integer.highestOneBit(Math.max(inputCount, 1) * 2) * 2;
+        int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+        int[] remap = new int[inputCount];
+        for (int i = 0; i < inputCount; i++) {
+            // + 0f turns -0 into 0, which compare equal but hash differently
+            float x = positions[3 * i] + 0f, y = positions[3 * i + 1] + 0f, z = positions[3 * i + 2] + 0f;
+            int h = (Float.floatToIntBits(x) * 73856093) ^ (Float.floatToIntBits(y) * 19349663) ^ (Float.floatToIntBits(z) * 83492791);
+            int slot = (h ^ h >>> 16) & (capacity - 1);
+            while (table[slot] >= 0) {
+                int other = table[slot];
+                if (px[other] == x && py[other] == y && pz[other] == z) break;
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (table[slot] < 0) {
+                table[slot] = vertexCount;
+                px[vertexCount] = x;
+                py[vertexCount] = y;
+                pz[vertexCount] = z;
+                vertexCount++;
+            }
+            remap[i] = table[slot];
+        }
+
+        q = new double[10 * vertexCount];
+        refStart = new int[vertexCount];
+        refCount = new int[vertexCount];
+        border = new boolean[vertexCount];
+
+        triangleCount = indices.length / 3;
+        tv = new int[3 * triangleCount];
+        int t = 0;
+        for (int i = 0; i < triangleCount; i++) {
+            int a = remap[indices[3 * i]], b = remap[indices[3 * i + 1]], c = remap[indices[3 * i + 2]];
+            if (a == b || b == c || c == a) continue;
+            tv[3 * t] = a;
+            tv[3 * t + 1] = b;
+            tv[3 * t + 2] = c;
+            t++;
+        }
+        triangleCount = t;
+        error = new double[4 * triangleCount];
+        normal = new double[3 * triangleCount];
+        deleted = new boolean[triangleCount];
+        dirty = new boolean[triangleCount];
+    }
+
+    private void run(int targetTriangles) {
+        int deletedTriangles = 0;
+        for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+            if (triangleCount - deletedTriangles <= targetTriangles) break;
+            if (iteration % 5 == 0) {
+                deletedTriangles = 0;
+                update(iteration);
+            }
+            Arrays.fill(dirty, 0, triangleCount, false);
+
+            double threshold = 1e-9 * Math.pow(iteration + 3, AGGRESSIVENESS);
+            for (int t = 0; t < triangleCount; t++) {
+                if (error[4 * t + 3] > threshold || deleted[t] || dirty[t]) continue;
+
+                for (int j = 0; j < 3; j++) {
+                    if (error[4 * t + j] >= threshold) continue;
+                    int i0 = tv[3 * t + j];
+                    int i1 = tv[3 * t + (j + 1) % 3];
+                    if (border[i0] != border[i1]) continue;
+
+                    collapseError(i0, i1, point);
+                    if (deleted0.length < refCount[i0]) deleted0 = new boolean[refCount[i0] * 2];
+                    if (deleted1.length < refCount[i1]) deleted1 = new boolean[refCount[i1] * 2];
+                    if (flipped(point, i0, i1, deleted0)) continue;
+                    if (flipped(point, i1, i0, deleted1)) continue;
+
+                    px[i0] = point[0];
+                    py[i0] = point[1];
+                    pz[i0] = point[2];
+                    for (int k = 0; k < 10; k++) q[10 * i0 + k] += q[10 * i1 + k];
+
+                    int start = refSize;
+                    deletedTriangles += updateTriangles(i0, i0, deleted0);
+                    deletedTriangles += updateTriangles(i0, i1, deleted1);
+                    int count = refSize - start;
+                    if (count <= refCount[i0]) {
+                        System.arraycopy(refTriangle, start, refTriangle, refStart[i0], count);
+                        System.arraycopy(refCorner, start, refCorner, refStart[i0], count);
+                    } else {
+                        refStart[i0] = start;
+                    }
+                    refCount[i0] = count;
+                    break;
+                }
+                if (triangleCount - deletedTriangles <= targetTriangles) break;
+            }
+        }
+    }
+
+    /** Rebuilds the reference lists; on the first call also the borders, quadrics and edge errors. */
+    private void update(int iteration) {
+        if (iteration > 0) {
+            int dst = 0;
+            for (int t = 0; t < triangleCount; t++) {
+                if (deleted[t]) continue;
+                System.arraycopy(tv, 3 * t, tv, 3 * dst, 3);
+                System.arraycopy(error, 4 * t, error, 4 * dst, 4);
+                System.arraycopy(normal, 3 * t, normal, 3 * dst, 3);
+                deleted[dst] = false;
+                dst++;
+            }
+            triangleCount = dst;
+        }
+
+        Arrays.fill(refCount, 0);
+        for (int i = 0; i < 3 * triangleCount; i++) refCount[tv[i]]++;
+        int start = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            refStart[v] = start;
+            start += refCount[v];
+            refCount[v] = 0;
+        }
+        if (refTriangle == null || refTriangle.length < 3 * triangleCount) {
+            refTriangle = new int[Math.max(3 * triangleCount, 16)];
+            refCorner = new int[refTriangle.length];
+        }
+        for (int t = 0; t < triangleCount; t++) {
+            for (int j = 0; j < 3; j++) {
+                int v = tv[3 * t + j];
+                int r = refStart[v] + refCount[v]++;
+                refTriangle[r] = t;
+                refCorner[r] = j;
+            }
+        }
+        refSize = 3 * triangleCount;
+
+        if (iteration != 0) return;
+
+        // a vertex is on the border if one of its neighbours is shared by a single triangle only
+        int[] neighbours = new int[16];
+        int[] counts = new int[16];
+        for (int v = 0; v < vertexCount; v++) {
+            int n = 0;
+            for (int r = refStart[v]; r < refStart[v] + refCount[v]; r++) {
+                int t = refTriangle[r];
+                for (int k = 0; k < 3; k++) {
+                    int id = tv[3 * t + k];
+                    int o = 0;
+                    while (o < n && neighbours[o] != id) o++;
+                    if (o == n) {
+                        if (n == neighbours.length) {
+                            neighbours = Arrays.copyOf(neighbours, n * 2);
+                            counts = Arrays.copyOf(counts, n * 2);
+                        }
+                        neighbours[n] = id;
+                        counts[n++] = 0;
+                    }
+                    counts[o]++;
+                }
+            }
+            for (int o = 0; o < n; o++) {
+                if (counts[o] == 1) border[neighbours[o]] = true;
+            }
+        }
+
+        for (int t = 0; t < triangleCount; t++) {
+            int a = tv[3 * t], b = tv[3 * t + 1], c = tv[3 * t + 2];
+            double ux = px[b] - px[a], uy = py[b] - py[a], uz = pz[b] - pz[a];
+            double wx = px[c] - px[a], wy = py[c] - py[a], wz = pz[c] - pz[a];
+            double nx = uy * wz - uz * wy, ny = uz * wx - ux * wz, nz = ux * wy - uy * wx;
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length > 0) {
+                nx /= length;
+                ny /= length;
+                nz /= length;
+            }
+            normal[3 * t] = nx;
+            normal[3 * t + 1] = ny;
+            normal[3 * t + 2] = nz;
+            double d = -(nx * px[a] + ny * py[a] + nz * pz[a]);
+            for (int j = 0; j < 3; j++) addPlane(tv[3 * t + j], nx, ny, nz, d);
+        }
+        for (int t = 0; t < triangleCount; t++) updateErrors(t);
+    }
+
+    private void addPlane(int v, double a, double b, double c, double d) {
+        int o = 10 * v;
+        q[o] += a * a; q[o + 1] += a * b; q[o + 2] += a * c; q[o + 3] += a * d;
+        q[o + 4] += b * b; q[o + 5] += b * c; q[o + 6] += b * d;
+        q[o + 7] += c * c; q[o + 8] += c * d;
+        q[o + 9] += d * d;
+    }
+
+    private void updateErrors(int t) {
+        int a = tv[3 * t], b = tv[3 * t + 1], c = tv[3 * t + 2];
+        double e0 = collapseError(a, b, point);
+        double e1 = collapseError(b, c, point);
+        double e2 = collapseError(c, a, point);
+        error[4 * t] = e0;
+        error[4 * t + 1] = e1;
+        error[4 * t + 2] = e2;
+        error[4 * t + 3] = Math.min(e0, Math.min(e1, e2));
+    }
+
+    /**
+     * Error of collapsing the edge and the position minimizing it, written to {@code result}.
+     */
+    private double collapseError(int v1, int v2, double[] result) {
+        double[] m = quadric;
+        for (int k = 0; k < 10; k++) m[k] = q[10 * v1 + k] + q[10 * v2 + k];
+        double det = det(m, 0, 1, 2, 1, 4, 5, 2, 5, 7);
+        if (det != 0 && !(border[v1] && border[v2])) {
+            result[0] = -1 / det * det(m, 1, 2, 3, 4, 5, 6, 5, 7, 8);
+            result[1] = 1 / det * det(m, 0, 2, 3, 1, 5, 6, 2, 7, 8);
+            result[2] = -1 / det * det(m, 0, 1, 3, 1, 4, 6, 2, 5, 8);
+            return vertexError(m, result[0], result[1], result[2]);
+        }
+
+        double mx = (px[v1] + px[v2]) * .5, my = (py[v1] + py[v2]) * .5, mz = (pz[v1] + pz[v2]) * .5;
+        double error1 = vertexError(m, px[v1], py[v1], pz[v1]);
+        double error2 = vertexError(m, px[v2], py[v2], pz[v2]);
+        double error3 = vertexError(m, mx, my, mz);
+        double error = Math.min(error1, Math.min(error2, error3));
+        if (error == error1) {
+            result[0] = px[v1]; result[1] = py[v1]; result[2] = pz[v1];
+        } else if (error == error2) {
+            result[0] = px[v2]; result[1] = py[v2]; result[2] = pz[v2];
+        } else {
+            result[0] = mx; result[1] = my; result[2] = mz;
+        }
+        return error;
+    }
+
+    private static double vertexError(double[] m, double x, double y, double z) {
+        return m[0] * x * x + 2 * m[1] * x * y + 2 * m[2] * x * z + 2 * m[3] * x
+            + m[4] * y * y + 2 * m[5] * y * z + 2 * m[6] * y
+            + m[7] * z * z + 2 * m[8] * z + m[9];
+    }
+
+    private static double det(double[] m, int a11, int a12, int a13, int a21, int a22, int a23, int a31, int a32, int a33) {
+        return m[a11] * m[a22] * m[a33] + m[a13] * m[a21] * m[a32] + m[a12] * m[a23] * m[a31]
+            - m[a13] * m[a22] * m[a31] - m[a11] * m[a23] * m[a32] - m[a12] * m[a21] * m[a33];
+    }
+
+    /**
+     * Whether moving {@code i0} to {@code p} flips or degenerates one of its triangles not shared with
+     * {@code i1}. Marks the shared triangles, which disappear with the collapse, in {@code removed}.
+     */
+    private boolean flipped(double[] p, int i0, int i1, boolean[] removed) {
+        for (int k = 0; k < refCount[i0]; k++) {
+            int r = refStart[i0] + k;
+            int t = refTriangle[r];
+            if (deleted[t]) continue;
+
+            int s = refCorner[r];
+            int id1 = tv[3 * t + (s + 1) % 3];
+            int id2 = tv[3 * t + (s + 2) % 3];
+            if (id1 == i1 || id2 == i1) {
+                removed[k] = true;
+                continue;
+            }
+            removed[k] = false;
+
+            double ax = px[id1] - p[0], ay = py[id1] - p[1], az = pz[id1] - p[2];
+            double bx = px[id2] - p[0], by = py[id2] - p[1], bz = pz[id2] - p[2];
+            double la = Math.sqrt(ax * ax + ay * ay + az * az);
+            double lb = Math.sqrt(bx * bx + by * by + bz * bz);
+            if (la == 0 || lb == 0) return true;
+            ax /= la; ay /= la; az /= la;
+            bx /= lb; by /= lb; bz /= lb;
+            if (Math.abs(ax * bx + ay * by + az * bz) > .999) return true;
+
+            double nx = ay * bz - az * by, ny = az * bx - ax * bz, nz = ax * by - ay * bx;
+            double ln = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if ((nx * normal[3 * t] + ny * normal[3 * t + 1] + nz * normal[3 * t + 2]) / ln < .2) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the triangles of {@code v} onto {@code i0} and removes the marked ones.
+     * @return number of removed triangles
+     */
+    private int updateTriangles(int i0, int v, boolean[] removed) {
+        int count = 0;
+        int start = refStart[v], end = refStart[v] + refCount[v];
+        for (int r = start; r < end; r++) {
+            int t = refTriangle[r];
+            if (deleted[t]) continue;
+            if (removed[r - start]) {
+                deleted[t] = true;
+                count++;
+                continue;
+            }
+            tv[3 * t + refCorner[r]] = i0;
+            dirty[t] = true;
+            updateErrors(t);
+
+            if (refSize == refTriangle.length) {
+                refTriangle = Arrays.copyOf(refTriangle, refSize * 2);
+                refCorner = Arrays.copyOf(refCorner, refSize * 2);
+            }
+            refTriangle[refSize] = t;
+            refCorner[refSize] = refCorner[r];
+            refSize++;
+        }
+        return count;
+    }
+
+    private MeshData compact() {
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        int used = 0;
+        int live = 0;
+        for (int t = 0; t < triangleCount; t++) {
+            if (deleted[t]) continue;
+            live++;
+            for (int j = 0; j < 3; j++) {
+                int v = tv[3 * t + j];
+                if (remap[v] < 0) remap[v] = used++;
+            }
+        }
+
+        float[] positions = new float[3 * used];
+        for (int v = 0; v < vertexCount; v++) {
+            int i = remap[v];
+            if (i < 0) continue;
+            positions[3 * i] = (float) px[v];
+            positions[3 * i + 1] = (float) py[v];
+            positions[3 * i + 2] = (float) pz[v];
+        }
+        int[] indices = new int[3 * live];
+        int o = 0;
+        for (int t = 0; t < triangleCount; t++) {
+            if (deleted[t]) continue;
+            for (int j = 0; j < 3; j++) indices[o++] = remap[tv[3 * t + j]];
+        }
+        return new MeshData(positions, indices);
+    }
+}
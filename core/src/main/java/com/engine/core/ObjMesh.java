@@ -0,0 +1,13 @@
+package com.engine.core;
+
+/**
+ * Result of {@link ObjParser}: the interleaved render vertices and the physics mesh sharing the same indices.
+ * @param vertices {@value #STRIDE} floats per vertex, position (3), texture coordinates (2), normal (3)
+ */
+public record ObjMesh(float[] vertices, int[] indices, MeshData meshData) {
+    public static final int STRIDE = 8;
+
+    public int vertexCount() {
+        return vertices.length / STRIDE;
+    }
+}
@@ -0,0 +1,284 @@
+package com.engine.core;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * Single pass Wavefront OBJ parser working directly on the bytes of the stream.
+ * Supports {@code v}, {@code vt}, {@code vn} and polygonal {@code f} statements (fan triangulated,
+ * negative indices relative to the end); everything else is skipped. Vertices with the same
+ * position/texture/normal triple are shared through an open-addressing table keyed by the whole triple,
+ * so the attribute counts are only limited by the array sizes.
+ * <p>
+ * Not thread-safe, use one parser per thread.
+ */
+public class ObjParser {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private InputStream in;
+    private int position;
+    private int limit;
+
+    // raw attributes
+    private final FloatArray positions = new FloatArray();
+    private final FloatArray texCoords = new FloatArray();
+    private final FloatArray normals = new FloatArray();
+
+    // output
+    private final FloatArray vertices = new FloatArray();
+    private final FloatArray meshPositions = new FloatArray();
+    private final IntArray indices = new IntArray();
+    private final IntArray polygon = new IntArray();
+    private final VertexTable vertexTable = new VertexTable();
+
+    public ObjMesh parse(InputStream in) {
+        this.in = in;
+        position = limit = 0;
+        positions.clear(); texCoords.clear(); normals.clear();
+        vertices.clear(); meshPositions.clear(); indices.clear();
+        vertexTable.clear();
+
+        int c;
+        while ((c = skipBlanks()) != -1) {
+            if (c == '\n' || c == '#') {
+                skipLine();
+                continue;
+            }
+            int first = read();
+            int second = read();
+            if (first == 'v' && isBlank(second)) {
+                positions.add(parseFloat(), parseFloat(), parseFloat());
+            } else if (first == 'v' && second == 't' && isBlank(peek())) {
+                texCoords.add(parseFloat(), parseFloat());
+            } else if (first == 'v' && second == 'n' && isBlank(peek())) {
+                normals.add(parseFloat(), parseFloat(), parseFloat());
+            } else if (first == 'f' && isBlank(second)) {
+                parseFace();
+            } else if (second == '\n') {
+                continue;
+            }
+            skipLine();
+        }
+        this.in = null;
+
+        int[] indexArray = indices.toArray();
+        return new ObjMesh(vertices.toArray(), indexArray, new MeshData(meshPositions.toArray(), indexArray));
+    }
+
+    private void parseFace() {
+        polygon.clear();
+        int c;
+        while ((c = skipBlanks()) != -1 && c != '\n' && c != '#') {
+            int pos = resolve(parseInt(), positions.size / 3);
+            int tex = -1, nor = -1;
+            if (peek() == '/') {
+                read();
+                if (peek() != '/') tex = resolve(parseInt(), texCoords.size / 2);
+                if (peek() == '/') {
+                    read();
+                    nor = resolve(parseInt(), normals.size / 3);
+                }
+            }
+            polygon.add(vertex(pos, tex, nor));
+        }
+        for (int i = 1; i < polygon.size - 1; i++) {
+            indices.add(polygon.get(0), polygon.get(i), polygon.get(i + 1));
+        }
+    }
+
+    /** Converts a 1-based or negative relative OBJ index to a 0-based index. */
+    private static int resolve(int index, int count) {
+        int resolved = index < 0 ? count + index : index - 1;
+        if (resolved < 0 || resolved >= count) throw new RuntimeException("OBJ index " + index + " out of range.");
+        return resolved;
+    }
+
+    private int vertex(int pos, int tex, int nor) {
+        int index = vertexTable.get(pos, tex, nor);
+        if (index >= 0) return index;
+
+        index = vertices.size / ObjMesh.STRIDE;
+        float[] p = positions.items;
+        float x = p[3 * pos], y = p[3 * pos + 1], z = p[3 * pos + 2];
+        vertices.add(x, y, z);
+        meshPositions.add(x, y, z);
+        if (tex >= 0) vertices.add(texCoords.items[2 * tex], texCoords.items[2 * tex + 1]);
+        else vertices.add(0, 0);
+        if (nor >= 0) vertices.add(normals.items[3 * nor], normals.items[3 * nor + 1], normals.items[3 * nor + 2]);
+        else vertices.add(0, 0, 0);
+        vertexTable.put(pos, tex, nor, index);
+        return index;
+    }
+
+    private int parseInt() {
+        int c = skipBlanks();
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            read();
+            c = peek();
+        }
+        if (c < '0' || c > '9') throw syntaxError(c);
+        int value = 0;
+        while ((c = peek()) >= '0' && c <= '9') {
+            value = value * 10 + (c - '0');
+            read();
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Decimal floating point number with optional sign, fraction and exponent. Digits beyond the
+     * 18th significant digit only contribute to the exponent, which is far below float precision.
+     */
+    private float parseFloat() {
+        int c = skipBlanks();
+        boolean negative = c == '-';
+        if (negative || c == '+') {
+            read();
+            c = peek();
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        while ((c = peek()) >= '0' && c <= '9') {
+            if (digits < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (mantissa != 0) digits++;
+            } else {
+                exponent++;
+            }
+            any = true;
+            read();
+        }
+        if (c == '.') {
+            read();
+            while ((c = peek()) >= '0' && c <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) digits++;
+                    exponent--;
+                }
+                any = true;
+                read();
+            }
+        }
+        if (!any) throw syntaxError(c);
+        if (c == 'e' || c == 'E') {
+            read();
+            exponent += parseInt();
+        }
+
+        double value = mantissa;
+        if (exponent > 0) value *= exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[exponent] : Math.pow(10, exponent);
+        else if (exponent < 0) value /= -exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[-exponent] : Math.pow(10, -exponent);
+        return (float) (negative ? -value : value);
+    }
+
+    private RuntimeException syntaxError(int c) {
+        return new RuntimeException("Unexpected " + (c == -1 ? "end of file" : "character '" + (char) c + "'") + " in OBJ file.");
+    }
+
+    private static boolean isBlank(int c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == -1;
+    }
+
+    /** Skips spaces, tabs and carriage returns, returns the next byte without consuming it. */
+    private int skipBlanks() {
+        int c;
+        while ((c = peek()) == ' ' || c == '\t' || c == '\r') read();
+        return c;
+    }
+
+    private void skipLine() {
+        int c = read();
+        while (c != -1 && c != '\n') c = read();
+    }
+
+    private int peek() {
+        if (position == limit && !fill()) return -1;
+        return buffer[position] & 0xFF;
+    }
+
+    private int read() {
+        if (position == limit && !fill()) return -1;
+        return buffer[position++] & 0xFF;
+    }
+
+    private boolean fill() {
+        try {
+            int n = in.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(n, 0);
+            return n > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Open-addressing hash table from a position/texture/normal triple to a vertex index, linear probing.
+     * The triple is hashed into a long and compared in full on collision; slots store the position
+     * plus one, so 0 marks an empty slot.
+     */
+    private static final class VertexTable {
+        private int[] pos = new int[1024], tex = new int[1024], nor = new int[1024];
+        private int[] values = new int[1024];
+        private int size = 0;
+
+        void clear() {
+            Arrays.fill(pos, 0);
+            size = 0;
+        }
+
+        int get(int p, int t, int n) {
+            int mask = pos.length - 1;
+            for (int i = hash(p, t, n) & mask; ; i = i + 1 & mask) {
+                int k = pos[i];
+                if (k == 0) return -1;
+                if (k == p + 1 && tex[i] == t && nor[i] == n) return values[i];
+            }
+        }
+
+        void put(int p, int t, int n, int value) {
+            if (2 * (size + 1) > pos.length) rehash(pos.length * 2);
+            int mask = pos.length - 1;
+            int i = hash(p, t, n) & mask;
+            while (pos[i] != 0 && !(pos[i] == p + 1 && tex[i] == t && nor[i] == n)) i = i + 1 & mask;
+            if (pos[i] == 0) size++;
+            pos[i] = p + 1;
+            tex[i] = t;
+            nor[i] = n;
+            values[i] = value;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldPos = pos, oldTex = tex, oldNor = nor, oldValues = values;
+            pos = new int[capacity];
+            tex = new int[capacity];
+            nor = new int[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldPos.length; i++) {
+                if (oldPos[i] != 0) put(oldPos[i] - 1, oldTex[i], oldNor[i], oldValues[i]);
+            }
+        }
+
+        private static int hash(int p, int t, int n) {
+            long key = (p * 0x9E3779B97F4A7C15L + t) * 0xC2B2AE3D27D4EB4FL + n;
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ h >>> 32);
+        }
+    }
+}
@@ -6,247 +6,170 @@ import com.badlogic.gdx.graphics.*;
 import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.engine.core.entity.AABB;
 import com.engine.core.entity.Entity;
 import com.engine.physics.body.Body;
+import com.engine.profiling.AssetLoadEvent;
 import com.engine.utils.PhysicsUtils;
-import com.engine.utils.Utils;
-import org.joml.Vector2f;
-import org.joml.Vector3f;
-import org.joml.Vector3i;
+import org.joml.Vector3d;
 
-import java.util.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 
 public class ObjectLoader {
+    private final ThreadLocal<ObjParser> parser = ThreadLocal.withInitial(ObjParser::new);
+    private final AssetCache assets = new AssetCache(this::loadAsset, this::createModel);
+
+    /**
+     * Creates an entity sharing the model, mesh and mass data of all entities loaded from the same path.
+     * Call {@link #release(Entity)} when the entity is removed.
+     */
     public Entity createEntity(String internalPath, Body body) {
-        Model model = loadObjModel(internalPath);
-        MeshData mesh = loadMeshData(internalPath);
-        PhysicsUtils.calcInertia(mesh, body);
+        return createEntity(assets.acquire(internalPath), body);
+    }
 
-        return new Entity(new ModelInstance(model), body, mesh);
+    /**
+     * Creates an entity from an asset that was already acquired for it, e.g. by the {@link AssetLoader}.
+     */
+    public Entity createEntity(AssetCache.Entry asset, Body body) {
+        PhysicsUtils.applyMeshProperties(asset.getProperties(), body);
+
+        return new Entity(new ModelInstance(asset.getModel()), body, asset.getCollisionMesh());
     }
 
-    public Model loadObjModel(String internalPath) {
-        FileHandle fileHandle = Gdx.files.internal(internalPath);
-        List<String> lines = Utils.readAllLines(fileHandle.path());
-
-        List<Vector3f> vertices = new ArrayList<>();
-        List<Vector3f> normals = new ArrayList<>();
-        List<Vector2f> texCoords = new ArrayList<>();
-        List<Vector3i> faces = new ArrayList<>();
-
-        for (String line : lines){
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith("#")) continue;
-
-            String[] tokens = line.split("\\s+");
-            switch (tokens[0]) {
-                case "v":
-                    vertices.add(new Vector3f(
-                        Float.parseFloat(tokens[1]),
-                        Float.parseFloat(tokens[2]),
-                        Float.parseFloat(tokens[3])
-                    ));
-                    break;
-                case "vt":
-                    texCoords.add(new Vector2f(
-                        Float.parseFloat(tokens[1]),
-                        Float.parseFloat(tokens[2])
-                    ));
-                    break;
-                case "vn":
-                    normals.add(new Vector3f(
-                        Float.parseFloat(tokens[1]),
-                        Float.parseFloat(tokens[2]),
-                        Float.parseFloat(tokens[3])
-                    ));
-                    break;
-                case "f":
-                    List<Vector3i> poly = new ArrayList<>();
-                    for (int i = 1; i < tokens.length; i++) {
-                        if (!tokens[i].isEmpty()) processFaceToken(tokens[i], poly);
-                    }
-
-                    for (int i = 1; i < poly.size() - 1; i++) {
-                        faces.add(poly.get(0));
-                        faces.add(poly.get(i));
-                        faces.add(poly.get(i + 1));
-                    }
-                    break;
-                default:
-                    break;
-            }
-        }
+    public void release(Entity entity) {
+        assets.release(entity.instance().model);
+    }
 
-        Map<String, Integer> vertexMap = new HashMap<>();
-        List<Float> finalPos = new ArrayList<>();
-        List<Float> finalTex = new ArrayList<>();
-        List<Float> finalNor = new ArrayList<>();
-        List<Integer> indices = new ArrayList<>();
-
-        for (Vector3i face : faces) {
-            int posIndex = face.x;
-            int texIndex = face.y;
-            int norIndex = face.z;
-
-            String key = posIndex + "/" + texIndex +  "/" + norIndex;
-            Integer idx = vertexMap.get(key);
-            if (idx == null) {
-                Vector3f position = vertices.get(posIndex);
-                finalPos.add(position.x);
-                finalPos.add(position.y);
-                finalPos.add(position.z);
-
-                if (texIndex >= 0 && texIndex < texCoords.size()) {
-                    Vector2f t = texCoords.get(texIndex);
-                    finalTex.add(t.x);
-                    finalTex.add(t.y);
-                } else {
-                    finalTex.add(0f);
-                    finalTex.add(0f);
-                }
-
-                if (norIndex >= 0 && norIndex < normals.size()) {
-                    Vector3f n = normals.get(norIndex);
-                    finalNor.add(n.x);
-                    finalNor.add(n.y);
-                    finalNor.add(n.z);
-                } else {
-                    finalNor.add(0f);
-                    finalNor.add(0f);
-                    finalNor.add(0f);
-                }
-
-                idx = (finalPos.size() / 3) - 1;
-                vertexMap.put(key, idx);
-            }
-            indices.add(idx);
-        }
-        int vertexCount = finalPos.size() / 3;
-        if (vertexCount >= 65535) {
-            throw new RuntimeException("Too many vertices for libGDX Mesh (max 65535).");
-        }
+    public AssetCache getAssets() {
+        return assets;
+    }
 
-        float[] verts = new float[vertexCount * 8];
-        for (int i = 0; i < vertexCount; i++) {
-            int v = i * 8;
+    public void dispose() {
+        assets.dispose();
+    }
 
-            verts[v]     = finalPos.get(3 * i);
-            verts[v + 1] = finalPos.get(3 * i + 1);
-            verts[v + 2] = finalPos.get(3 * i + 2);
+    public Model loadObjModel(String internalPath) {
+        return createModel(loadAsset(internalPath));
+    }
 
-            verts[v + 3] = finalTex.get(2 * i);
-            verts[v + 4] = finalTex.get(2 * i + 1);
+    public MeshData loadMeshData(String internalPath) {
+        return loadAsset(internalPath).collisionMesh();
+    }
 
-            verts[v + 5] = finalNor.get(3 * i);
-            verts[v + 6] = finalNor.get(3 * i + 1);
-            verts[v + 7] = finalNor.get(3 * i + 2);
+    /**
+     * Loads the mesh through the {@link MeshCache} when the asset is a plain file, otherwise parses it.
+     * Thread-safe, does not touch OpenGL. Every load is emitted as an {@link AssetLoadEvent}.
+     */
+    public MeshAsset loadAsset(String internalPath) {
+        AssetLoadEvent event = new AssetLoadEvent();
+        event.begin();
+        MeshAsset asset = readAsset(internalPath);
+        if (asset.hasCollisionProxy() && Gdx.app != null) {
+            Gdx.app.log("ObjectLoader", String.format("%s: collision proxy %d of %d triangles (%.1f%%)", internalPath,
+                MeshSimplifier.triangleCount(asset.collisionMesh()), MeshSimplifier.triangleCount(asset.meshData()),
+                100 * asset.collisionRatio()));
         }
+        if (asset.vertexCount() > MeshChunker.MAX_VERTICES) asset = asset.withChunks(MeshChunker.split(asset));
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = internalPath;
+            event.vertices = asset.vertexCount();
+            event.triangles = MeshSimplifier.triangleCount(asset.meshData());
+            event.collisionTriangles = MeshSimplifier.triangleCount(asset.collisionMesh());
+            event.chunks = asset.chunks().size();
+            event.vertexBytes = (long) asset.vertices().capacity() * Float.BYTES;
+            event.commit();
+        }
+        return asset;
+    }
 
-        short[] idx = new short[indices.size()];
-        for (int i = 0; i < indices.size(); i++) {
-            idx[i] = (short)(int)indices.get(i);
+    private MeshAsset readAsset(String internalPath) {
+        FileHandle fileHandle = Gdx.files.internal(internalPath);
+        File file = fileHandle.file();
+        if (!file.isFile()) {
+            return MeshAsset.of(parseObj(internalPath));
         }
+        try {
+            return MeshCache.load(file.toPath(), parser.get());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + internalPath, e);
+        }
+    }
 
-        Mesh mesh = new Mesh(
-            true,
-            vertexCount,
-            idx.length,
-            new VertexAttribute(VertexAttributes.Usage.Position, 3, "a_position"),
-            new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2, "a_texCoord0"),
-            new VertexAttribute(VertexAttributes.Usage.Normal, 3, "a_normal")
-        );
-        mesh.setVertices(verts);
-        mesh.setIndices(idx);
+    /**
+     * Parses the file once into the render vertices and the physics mesh.
+     */
+    public ObjMesh parseObj(String internalPath) {
+        FileHandle fileHandle = Gdx.files.internal(internalPath);
+        try (InputStream in = fileHandle.read()) {
+            return parser.get().parse(in);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read " + internalPath, e);
+        }
+    }
 
+    /**
+     * Uploads the asset into a new model, writing straight into the buffers of the mesh.
+     * Meshes beyond the 16-bit index range become one mesh part per {@link MeshChunk}: the libGDX {@link Mesh}
+     * only has unsigned short index buffers, on GL30 contexts as well, and both the model batch and the instanced
+     * renderer draw through it. Every mesh part gets the bounds of its chunk, which the
+     * {@link com.engine.core.render.FrustumCuller} tests the parts of a visible model against.
+     */
+    public Model createModel(MeshAsset asset) {
         ModelBuilder mb = new ModelBuilder();
         mb.begin();
         Material mat = new Material();
-        mb.part("obj", mesh, GL20.GL_TRIANGLES, mat);
-        return mb.end();
-    }
-
-    public MeshData loadMeshData(String internalPath) {
-        FileHandle fileHandle = Gdx.files.internal(internalPath);
-        List<String> lines = Utils.readAllLines(fileHandle.path());
-
-        List<Vector3f> vertices = new ArrayList<>();
-
-        List<Vector3i> faces = new ArrayList<>();
-
-        for (String line : lines){
-            line = line.trim();
-            if (line.isEmpty() || line.startsWith("#")) continue;
-
-            String[] tokens = line.split("\\s+");
-            switch (tokens[0]) {
-                case "v":
-                    vertices.add(new Vector3f(
-                        Float.parseFloat(tokens[1]),
-                        Float.parseFloat(tokens[2]),
-                        Float.parseFloat(tokens[3])
-                    ));
-                    break;
-                case "f":
-                    List<Vector3i> poly = new ArrayList<>();
-                    for (int i = 1; i < tokens.length; i++) {
-                        if (!tokens[i].isEmpty()) processFaceToken(tokens[i], poly);
-                    }
-
-                    for (int i = 1; i < poly.size() - 1; i++) {
-                        faces.add(poly.get(0));
-                        faces.add(poly.get(i));
-                        faces.add(poly.get(i + 1));
-                    }
-                    break;
-                default:
-                    break;
+        if (!asset.isChunked()) {
+            if (asset.vertexCount() > MeshChunker.MAX_VERTICES) {
+                throw new RuntimeException("Too many vertices for libGDX Mesh (max " + MeshChunker.MAX_VERTICES + "), chunk the asset first.");
             }
-        }
-
-        Map<String, Integer> vertexMap = new HashMap<>();
-        List<Float> finalPos = new ArrayList<>();
-        List<Integer> indices = new ArrayList<>();
-
-        for (Vector3i face : faces) {
-            int posIndex = face.x;
-            int texIndex = face.y;
-            int norIndex = face.z;
-
-            String key = posIndex + "/" + texIndex +  "/" + norIndex;
-            Integer idx = vertexMap.get(key);
-            if (idx == null) {
-                Vector3f position = vertices.get(posIndex);
-                finalPos.add(position.x);
-                finalPos.add(position.y);
-                finalPos.add(position.z);
-
-                idx = (finalPos.size() / 3) - 1;
-                vertexMap.put(key, idx);
+            Mesh mesh = createMesh(asset.vertexCount(), asset.indexCount());
+            FloatBuffer vertices = mesh.getVerticesBuffer(true);
+            vertices.clear();
+            vertices.put(asset.vertices().duplicate());
+            vertices.flip();
+
+            IntBuffer source = asset.indices().duplicate();
+            ShortBuffer indices = mesh.getIndicesBuffer(true);
+            indices.clear();
+            while (source.hasRemaining()) indices.put((short) source.get());
+            indices.flip();
+            setBounds(mb.part("obj", mesh, GL20.GL_TRIANGLES, mat), asset.properties().bounds());
+        } else {
+            for (int i = 0; i < asset.chunks().size(); i++) {
+                MeshChunk chunk = asset.chunks().get(i);
+                Mesh mesh = createMesh(chunk.vertexCount(), chunk.indices().length);
+                mesh.setVertices(chunk.vertices());
+                mesh.setIndices(chunk.indices());
+                setBounds(mb.part("obj" + i, mesh, GL20.GL_TRIANGLES, mat), chunk.bounds());
             }
-            indices.add(idx);
         }
-
-        float[] positions = new float[finalPos.size()];
-        for (int i = 0; i < positions.length; i++) {
-            positions[i] = finalPos.get(i);
-        }
-        int[] indexArr = indices.stream().mapToInt(Integer::intValue).toArray();
-
-        return new MeshData(positions, indexArr);
+        return mb.end();
     }
 
-    private void processFaceToken(String token, List<Vector3i> faces) {
-        String[] parts = token.split("/");
-        int pos, tex = -1, nor = -1;
+    private static void setBounds(MeshPart part, AABB bounds) {
+        Vector3d min = bounds.min(), max = bounds.max();
+        part.center.set((float) (min.x + max.x) * .5f, (float) (min.y + max.y) * .5f, (float) (min.z + max.z) * .5f);
+        part.halfExtents.set((float) (max.x - min.x) * .5f, (float) (max.y - min.y) * .5f, (float) (max.z - min.z) * .5f);
+        part.radius = part.halfExtents.len();
+    }
 
-        pos = Integer.parseInt(parts[0]) - 1;
-        if (parts.length > 1 && !parts[1].isEmpty()) {
-            tex = Integer.parseInt(parts[1]) - 1;
-        }
-        if (parts.length > 2 && !parts[2].isEmpty()) {
-            nor = Integer.parseInt(parts[2]) - 1;
-        }
-        faces.add(new Vector3i(pos, tex, nor));
+    private static Mesh createMesh(int vertexCount, int indexCount) {
+        return new Mesh(
+            true,
+            vertexCount,
+            indexCount,
+            new VertexAttribute(VertexAttributes.Usage.Position, 3, "a_position"),
+            new VertexAttribute(VertexAttributes.Usage.TextureCoordinates, 2, "a_texCoord0"),
+            new VertexAttribute(VertexAttributes.Usage.Normal, 3, "a_normal")
+        );
     }
 }
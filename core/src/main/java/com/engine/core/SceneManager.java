@@ -9,20 +9,20 @@ import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.engine.core.entity.Entity;
+import com.engine.core.entity.EntityRegistry;
 import com.engine.utils.PhysicsUtils;
 import org.joml.Vector3f;
 import com.engine.config.Constants;
-import java.util.ArrayList;
 import java.util.List;
 
 public class SceneManager {
-    private final List<Entity> entities;
+    private final EntityRegistry entities;
     private final Environment environment;
     private Vector3f ambientLight;
     private PerspectiveCamera camera;
 
     public SceneManager() {
-        this.entities = new ArrayList<>();
+        this.entities = new EntityRegistry();
         this.environment = new Environment();
         this.ambientLight = Constants.AMBIENT_LIGHT;
         init();
@@ -51,7 +51,14 @@ public class SceneManager {
 
     }
 
+    /**
+     * Read-only view of all entities, packed. Removing an entity moves the last one into its place.
+     */
     public List<Entity> getEntities() {
+        return entities.asList();
+    }
+
+    public EntityRegistry getRegistry() {
         return entities;
     }
 
@@ -74,11 +81,28 @@ public class SceneManager {
         this.camera = camera;
     }
 
-    public void add(Entity entity) {
-        this.entities.add(entity);
+    /**
+     * @return handle of the entity, valid until it is removed
+     */
+    public int add(Entity entity) {
+        return entities.add(entity);
+    }
+
+    /**
+     * @return the removed entity, or null if the handle was already removed
+     */
+    public Entity remove(int handle) {
+        return entities.remove(handle);
+    }
+
+    /**
+     * @return the entity of the handle, or null if it was removed
+     */
+    public Entity get(int handle) {
+        return entities.get(handle);
     }
 
-    public void createFloor(Model model) {
-        entities.add(PhysicsUtils.createStaticEntityWithModelBuilder(model));
+    public int createFloor(Model model) {
+        return entities.add(PhysicsUtils.createStaticEntityWithModelBuilder(model));
     }
 }
@@ -2,12 +2,30 @@ package com.engine.core.entity;
 
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.engine.core.MeshData;
+import com.engine.physics.TransformSnapshot;
 import com.engine.physics.body.Body;
-import org.joml.Vector3d;
+import com.engine.physics.body.BodyStore;
 
 public record Entity(ModelInstance instance, Body body, MeshData mesh) {
+    /**
+     * Copies the current body transform into the instance. Only safe while the physics thread is not stepping.
+     */
     public void syncFromPhysics() {
-        Vector3d position = body.getPosition();
-        instance.transform.setToTranslation((float) position.x, (float) position.y, (float) position.z);
+        BodyStore s = body.getStore();
+        int i = body.getIndex();
+        TransformSync.setModelTransform(instance.transform, body.getMassProperties(),
+            s.px[i], s.py[i], s.pz[i], s.qx[i], s.qy[i], s.qz[i], s.qw[i]);
+    }
+
+    /**
+     * Syncs a single entity; use {@link TransformSync} for all entities of a snapshot.
+     * @param alpha blend factor between the previous (0) and the current (1) simulation step
+     * @param scratch space of at least {@link TransformSnapshot#STRIDE} + {@link TransformSnapshot#SHAPE_STRIDE}
+     *                doubles, reused by the caller
+     */
+    public void syncFromSnapshot(TransformSnapshot snapshot, int index, double alpha, double[] scratch) {
+        snapshot.interpolate(index, alpha, scratch);
+        snapshot.shape(index, scratch, TransformSnapshot.STRIDE);
+        TransformSync.setModelTransform(instance.transform, scratch, 0, scratch, TransformSnapshot.STRIDE);
     }
 }
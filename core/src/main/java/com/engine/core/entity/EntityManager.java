@@ -1,76 +1,129 @@
 package com.engine.core.entity;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.PerspectiveCamera;
-import com.badlogic.gdx.math.collision.Ray;
 import com.engine.config.Constants;
+import com.engine.core.AssetLoader;
 import com.engine.core.ObjectLoader;
 import com.engine.core.SceneManager;
-import com.engine.physics.RK4Integrator;
+import com.engine.core.input.PickController;
+import com.engine.physics.FixedTimestep;
+import com.engine.physics.PhysicsThread;
+import com.engine.physics.PhysicsWorld;
+import com.engine.physics.TransformSnapshot;
 import com.engine.physics.body.Body;
-import com.engine.utils.CameraUtils;
-import com.engine.utils.CollisionsUtils;
-import org.joml.Matrix3d;
+import com.engine.profiling.StepProfiler;
 import org.joml.Vector3d;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class EntityManager {
     private ObjectLoader loader;
-    private Entity pickedEntity = null;
-    private boolean leftWasDown = false;
+    private AssetLoader assetLoader;
+    private PhysicsThread physics;
+    private PickController picking;
+    private final TransformSync transformSync = new TransformSync();
+    private StepProfiler profiler = null;
 
     public void init() {
         this.loader = new ObjectLoader();
+        this.assetLoader = new AssetLoader(loader);
+        this.physics = new PhysicsThread(
+            new PhysicsWorld(),
+            new FixedTimestep(Constants.FIXED_TIME_STEP, Constants.MAX_SUB_STEPS)
+        );
+        this.picking = new PickController(physics);
     }
 
-    public void createEntity(SceneManager scene, Body body, Vector3d position, String internalPath) {
+    /**
+     * @return handle of the new entity in the scene
+     */
+    public int createEntity(SceneManager scene, Body body, Vector3d position, String internalPath) {
         body.setPosition(new Vector3d(position));
-        scene.add(loader.createEntity(internalPath, body));
+        body.storePreviousTransform();
+        Entity entity = loader.createEntity(internalPath, body);
+        int handle = scene.add(entity);
+        if (physics.isRunning()) physics.submit(world -> world.add(entity));
+        return handle;
+    }
 
+    /**
+     * Loads the model in the background and adds the entity once it is uploaded, see {@link AssetLoader}.
+     * @return future of the handle of the new entity, completed on the render thread
+     */
+    public CompletableFuture<Integer> createEntityAsync(SceneManager scene, Body body, Vector3d position, String internalPath) {
+        Vector3d start = new Vector3d(position);
+        return assetLoader.load(internalPath).thenApply(asset -> {
+            body.setPosition(start);
+            body.storePreviousTransform();
+            Entity entity = loader.createEntity(asset, body);
+            int handle = scene.add(entity);
+            if (physics.isRunning()) physics.submit(world -> world.add(entity));
+            return handle;
+        });
     }
 
-    public void update(double dt, SceneManager scene, PerspectiveCamera camera) {
-        boolean leftNow = Gdx.input.isButtonPressed(Input.Buttons.LEFT);
-        boolean leftJustPressed  =  leftNow && !leftWasDown;
-        boolean leftJustReleased = !leftNow &&  leftWasDown;
+    public AssetLoader getAssetLoader() {
+        return assetLoader;
+    }
 
-        if (leftJustPressed) {
-            pickedEntity = CameraUtils.mouseInput(camera, scene.getEntities());
-            System.out.println("picked = " + pickedEntity);
-        }
-        if (leftJustReleased) {
-            pickedEntity = null;
+    /**
+     * Removes the entity from the scene and the simulation. Stale handles are ignored.
+     */
+    public void removeEntity(SceneManager scene, int handle) {
+        Entity entity = scene.remove(handle);
+        if (entity == null) return;
+        picking.forget(entity);
+        if (physics.isRunning()) physics.submit(world -> world.remove(entity));
+        loader.release(entity);
+    }
+
+    /**
+     * Hands all entities of the scene to the physics thread and starts the simulation.
+     */
+    public void start(SceneManager scene) {
+        for (Entity entity : scene.getEntities()) {
+            physics.submit(world -> world.add(entity));
         }
-        List<Entity> entities = scene.getEntities();
-        for (Entity entity : entities) {
-            Body body = entity.body();
-            if (!body.isDynamic()) continue;
+        physics.start();
+    }
 
-            RK4Integrator integrator = new RK4Integrator((pos, vel) -> {
-                Vector3d totalForce = new Vector3d(0, -body.getMass() * Constants.EARTH_ACC, 0);
-                if (pickedEntity == entity && leftNow) {
-                    Vector3d springForce = CameraUtils.applyMouseGrip(camera, body);
-                    totalForce.add(springForce);
-                }
+    /**
+     * Uploads loaded assets and syncs the instances with the last physics snapshot. Reads no input,
+     * see {@link #getPicking()}.
+     * @throws RuntimeException if the simulation stopped because of an exception, with that as the cause
+     */
+    public void update() {
+        Throwable failure = physics.getFailure();
+        if (failure != null) throw new RuntimeException("The physics simulation failed.", failure);
+        assetLoader.update(Constants.ASSET_UPLOAD_BUDGET_NANOS);
+        StepProfiler profiler = this.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        TransformSnapshot snapshot = physics.getSnapshot();
+        transformSync.sync(snapshot, snapshot.alpha(System.nanoTime(), physics.getStep()));
+        if (profiler != null) profiler.lap(StepProfiler.Phase.SYNC, start);
+    }
 
-                Vector3d a = new Vector3d(totalForce).mul(body.getInverseMass());
-                a.fma(-.1, vel);
-                return a;
-            });
+    /**
+     * Records the duration of the transform sync of every {@link #update()}, or nothing if null.
+     */
+    public void setProfiler(StepProfiler profiler) {
+        this.profiler = profiler;
+    }
 
-            Vector3d localTorque = body.getRotation().transpose(new Matrix3d()).transform(new Vector3d(10,0,0));
-            Vector3d netTorque = new Vector3d();
+    public PickController getPicking() {
+        return picking;
+    }
 
-            integrator.integrate(body, netTorque, dt, 1);
-            entity.syncFromPhysics();
+    public PhysicsThread getPhysics() {
+        return physics;
+    }
 
-        }
-        CollisionsUtils.checkCollision(entities);
-        leftWasDown = leftNow;
+    public TransformSync getTransformSync() {
+        return transformSync;
     }
 
     public void dispose() {
+        physics.stop();
+        assetLoader.dispose();
+        loader.dispose();
     }
 }
@@ -0,0 +1,135 @@
+package com.engine.core.entity;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed entity array with generational integer handles. Entities are kept dense for iteration and
+ * removed by moving the last entity into the gap; a sparse slot table maps handles to dense indices,
+ * so adding, removing and resolving a handle are O(1).
+ * <p>
+ * A handle stores the slot in the lower {@value #SLOT_BITS} bits and the generation of the slot above it.
+ * The generation is bumped on removal, so handles of removed entities never resolve to a new entity
+ * that reuses the slot. {@link #NULL} is never handed out.
+ */
+public class EntityRegistry {
+    public static final int NULL = 0;
+    public static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int GENERATION_MASK = (1 << (31 - SLOT_BITS)) - 1;
+
+    // dense
+    private Entity[] entities = new Entity[64];
+    private int[] handles = new int[64];
+    private int size = 0;
+
+    // sparse, indexed by slot
+    private int[] denseIndex = new int[64];
+    private int[] generations = new int[64];
+    private int[] freeSlots = new int[64];
+    private int freeCount = 0;
+    private int slotCount = 0;
+
+    private final List<Entity> view = new AbstractList<>() {
+        @Override
+        public Entity get(int index) {
+            return entity(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    };
+
+    public int add(Entity entity) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount > SLOT_MASK) throw new IllegalStateException("Too many entities.");
+            if (slotCount == denseIndex.length) {
+                denseIndex = Arrays.copyOf(denseIndex, slotCount * 2);
+                generations = Arrays.copyOf(generations, slotCount * 2);
+            }
+            slot = slotCount++;
+            generations[slot] = 1;
+        }
+        if (size == entities.length) {
+            entities = Arrays.copyOf(entities, size * 2);
+            handles = Arrays.copyOf(handles, size * 2);
+        }
+
+        int handle = generations[slot] << SLOT_BITS | slot;
+        entities[size] = entity;
+        handles[size] = handle;
+        denseIndex[slot] = size++;
+        return handle;
+    }
+
+    /**
+     * @return the removed entity, or null if the handle is stale
+     */
+    public Entity remove(int handle) {
+        int index = indexOf(handle);
+        if (index < 0) return null;
+        Entity removed = entities[index];
+
+        int last = --size;
+        if (index != last) {
+            entities[index] = entities[last];
+            handles[index] = handles[last];
+            denseIndex[handles[index] & SLOT_MASK] = index;
+        }
+        entities[last] = null;
+
+        int slot = handle & SLOT_MASK;
+        generations[slot] = (generations[slot] + 1) & GENERATION_MASK;
+        if (generations[slot] == 0) generations[slot] = 1;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        return removed;
+    }
+
+    /**
+     * @return the entity of the handle, or null if it was removed
+     */
+    public Entity get(int handle) {
+        int index = indexOf(handle);
+        return index < 0 ? null : entities[index];
+    }
+
+    public boolean contains(int handle) {
+        return indexOf(handle) >= 0;
+    }
+
+    /**
+     * Dense index of the handle, or -1. Only valid until the next removal.
+     */
+    public int indexOf(int handle) {
+        int slot = handle & SLOT_MASK;
+        if (handle == NULL || slot >= slotCount) return -1;
+        if (generations[slot] != handle >>> SLOT_BITS) return -1;
+        return denseIndex[slot];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Entity entity(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return entities[index];
+    }
+
+    public int handle(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException(index);
+        return handles[index];
+    }
+
+    /** Read-only list view of the dense entities. The order changes on removal. */
+    public List<Entity> asList() {
+        return view;
+    }
+}
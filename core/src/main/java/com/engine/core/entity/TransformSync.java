@@ -0,0 +1,154 @@
+package com.engine.core.entity;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.engine.physics.TransformSnapshot;
+import com.engine.physics.body.MassProperties;
+import org.joml.Quaterniondc;
+import org.joml.Vector3dc;
+
+import java.util.Arrays;
+
+/**
+ * Writes the interpolated body transforms of a {@link TransformSnapshot} into the instance matrices as model
+ * transforms (see {@link MassProperties} for the body frame), in one pass over the packed snapshot state, never
+ * reading the bodies themselves. The transform last written for every
+ * snapshot slot is kept, and entities whose transform did not change since the last sync are skipped.
+ * Only use it from the render thread.
+ */
+public class TransformSync {
+    private double[] interpolated = new double[0];
+    private double[] written = new double[0];
+    private final double[] shape = new double[TransformSnapshot.SHAPE_STRIDE];
+    private Entity[] writtenEntities = new Entity[0];
+    private int synced = 0;
+    private int skipped = 0;
+
+    /**
+     * Syncs the instances of all dynamic entities of the snapshot.
+     * @param alpha blend factor between the previous (0) and the current (1) simulation step
+     */
+    public void sync(TransformSnapshot snapshot, double alpha) {
+        int size = snapshot.size();
+        int length = size * TransformSnapshot.STRIDE;
+        if (interpolated.length < length) {
+            interpolated = new double[length];
+            written = Arrays.copyOf(written, length);
+            writtenEntities = Arrays.copyOf(writtenEntities, size);
+        }
+        snapshot.interpolate(alpha, interpolated);
+
+        synced = 0;
+        skipped = 0;
+        for (int i = 0; i < size; i++) {
+            Entity entity = snapshot.entity(i);
+            if (!entity.body().isDynamic()) continue;
+
+            int o = i * TransformSnapshot.STRIDE;
+            if (writtenEntities[i] == entity && Arrays.equals(interpolated, o, o + TransformSnapshot.STRIDE,
+                written, o, o + TransformSnapshot.STRIDE)) {
+                skipped++;
+                continue;
+            }
+            System.arraycopy(interpolated, o, written, o, TransformSnapshot.STRIDE);
+            writtenEntities[i] = entity;
+            snapshot.shape(i, shape, 0);
+            setModelTransform(entity.instance().transform, interpolated, o, shape, 0);
+            synced++;
+        }
+        // forget entities of slots the snapshot no longer has
+        Arrays.fill(writtenEntities, size, writtenEntities.length, null);
+    }
+
+    /** Instances written by the last {@link #sync(TransformSnapshot, double)}. */
+    public int getSynced() {
+        return synced;
+    }
+
+    /** Instances skipped by the last {@link #sync(TransformSnapshot, double)} because their body did not move. */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Sets the matrix to the transform of the model whose body frame is at the rigid transform
+     * {@code [px, py, pz, qx, qy, qz, qw]} at {@code offset}; the quaternion must be normalized.
+     */
+    public static void setModelTransform(Matrix4 matrix, MassProperties mass, double[] transform, int offset) {
+        setModelTransform(matrix, mass, transform[offset], transform[offset + 1], transform[offset + 2],
+            transform[offset + 3], transform[offset + 4], transform[offset + 5], transform[offset + 6]);
+    }
+
+    /**
+     * As {@link #setModelTransform(Matrix4, MassProperties, double[], int)} with the model frame of a
+     * {@link TransformSnapshot} shape at {@code shapeOffset}.
+     */
+    public static void setModelTransform(Matrix4 matrix, double[] transform, int offset, double[] shape, int shapeOffset) {
+        setModelTransform(matrix, transform[offset], transform[offset + 1], transform[offset + 2],
+            transform[offset + 3], transform[offset + 4], transform[offset + 5], transform[offset + 6],
+            shape[shapeOffset + 3], shape[shapeOffset + 4], shape[shapeOffset + 5],
+            shape[shapeOffset + 6], shape[shapeOffset + 7], shape[shapeOffset + 8], shape[shapeOffset + 9]);
+    }
+
+    public static void setModelTransform(Matrix4 matrix, MassProperties mass,
+                                         double px, double py, double pz, double qx, double qy, double qz, double qw) {
+        if (!mass.hasModelOffset()) {
+            setTransform(matrix, px, py, pz, qx, qy, qz, qw);
+            return;
+        }
+        Vector3dc c = mass.getCenterOfMass();
+        Quaterniondc a = mass.getPrincipalAxes();
+        setModelTransform(matrix, px, py, pz, qx, qy, qz, qw, c.x(), c.y(), c.z(), a.x(), a.y(), a.z(), a.w());
+    }
+
+    /**
+     * Model orientation q a⁻¹ for the principal axes a, model origin p - R(q a⁻¹) c for the center of mass c.
+     */
+    public static void setModelTransform(Matrix4 matrix, double px, double py, double pz,
+                                         double qx, double qy, double qz, double qw,
+                                         double cx, double cy, double cz, double ax, double ay, double az, double aw) {
+        double mx = -qw * ax + qx * aw - qy * az + qz * ay;
+        double my = -qw * ay + qx * az + qy * aw - qz * ax;
+        double mz = -qw * az - qx * ay + qy * ax + qz * aw;
+        double mw = qw * aw + qx * ax + qy * ay + qz * az;
+        setTransform(matrix, px, py, pz, mx, my, mz, mw);
+        if (cx == 0 && cy == 0 && cz == 0) return;
+
+        float[] m = matrix.val;
+        m[Matrix4.M03] = (float) (px - (m[Matrix4.M00] * cx + m[Matrix4.M01] * cy + m[Matrix4.M02] * cz));
+        m[Matrix4.M13] = (float) (py - (m[Matrix4.M10] * cx + m[Matrix4.M11] * cy + m[Matrix4.M12] * cz));
+        m[Matrix4.M23] = (float) (pz - (m[Matrix4.M20] * cx + m[Matrix4.M21] * cy + m[Matrix4.M22] * cz));
+    }
+
+    /**
+     * Sets the matrix to the rigid transform {@code [px, py, pz, qx, qy, qz, qw]} at {@code offset};
+     * the quaternion must be normalized.
+     */
+    public static void setTransform(Matrix4 matrix, double[] transform, int offset) {
+        setTransform(matrix, transform[offset], transform[offset + 1], transform[offset + 2],
+            transform[offset + 3], transform[offset + 4], transform[offset + 5], transform[offset + 6]);
+    }
+
+    public static void setTransform(Matrix4 matrix, double px, double py, double pz, double qx, double qy, double qz, double qw) {
+        double xx = qx * qx, yy = qy * qy, zz = qz * qz;
+        double xy = qx * qy, xz = qx * qz, yz = qy * qz;
+        double wx = qw * qx, wy = qw * qy, wz = qw * qz;
+
+        float[] m = matrix.val;
+        m[Matrix4.M00] = (float) (1 - 2 * (yy + zz));
+        m[Matrix4.M10] = (float) (2 * (xy + wz));
+        m[Matrix4.M20] = (float) (2 * (xz - wy));
+        m[Matrix4.M30] = 0;
+        m[Matrix4.M01] = (float) (2 * (xy - wz));
+        m[Matrix4.M11] = (float) (1 - 2 * (xx + zz));
+        m[Matrix4.M21] = (float) (2 * (yz + wx));
+        m[Matrix4.M31] = 0;
+        m[Matrix4.M02] = (float) (2 * (xz + wy));
+        m[Matrix4.M12] = (float) (2 * (yz - wx));
+        m[Matrix4.M22] = (float) (1 - 2 * (xx + yy));
+        m[Matrix4.M32] = 0;
+        m[Matrix4.M03] = (float) px;
+        m[Matrix4.M13] = (float) py;
+        m[Matrix4.M23] = (float) pz;
+        m[Matrix4.M33] = 1;
+    }
+}
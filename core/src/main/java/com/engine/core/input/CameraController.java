@@ -0,0 +1,19 @@
+package com.engine.core.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.engine.config.Constants;
+import com.engine.utils.CameraUtils;
+
+/**
+ * Free-fly camera: keyboard movement and mouse look while the left button is not used for picking.
+ */
+public class CameraController {
+    public void update(PerspectiveCamera camera) {
+        if (Gdx.input.isButtonPressed(Input.Buttons.LEFT)) return;
+        CameraUtils.move(camera, Constants.CAMERA_SPEED);
+        CameraUtils.mouseInput(camera, Constants.CAMERA_ROTATION_SENSITIVITY);
+        camera.update();
+    }
+}
@@ -0,0 +1,60 @@
+package com.engine.core.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.engine.core.entity.Entity;
+import com.engine.physics.PhysicsThread;
+import com.engine.physics.PhysicsWorld;
+import com.engine.physics.TransformSnapshot;
+import com.engine.physics.body.Body;
+import com.engine.utils.CameraUtils;
+import org.joml.Vector3d;
+
+/**
+ * Mouse picking: pressing the left button picks the entity under the cursor, dragging pulls it towards
+ * the cursor through the grip spring of the world, releasing lets it go. Kept apart from the simulation
+ * and the entity bookkeeping, so both also run without input.
+ */
+public class PickController {
+    private final PhysicsThread physics;
+    private Entity pickedEntity = null;
+    private boolean leftWasDown = false;
+
+    public PickController(PhysicsThread physics) {
+        this.physics = physics;
+    }
+
+    public void update(PerspectiveCamera camera, TransformSnapshot snapshot) {
+        boolean leftNow = Gdx.input.isButtonPressed(Input.Buttons.LEFT);
+        boolean leftJustPressed  =  leftNow && !leftWasDown;
+        boolean leftJustReleased = !leftNow &&  leftWasDown;
+
+        if (leftJustPressed) {
+            pickedEntity = CameraUtils.mouseInput(camera, snapshot);
+            Gdx.app.debug("PickController", "picked = " + pickedEntity);
+        }
+        if (leftJustReleased) {
+            pickedEntity = null;
+            physics.submit(PhysicsWorld::release);
+        }
+        if (leftNow && pickedEntity != null) {
+            Body body = pickedEntity.body();
+            Vector3d localHit = body.getMouseHit();
+            Vector3d target = CameraUtils.gripTarget(camera, body.getTHit());
+            physics.submit(world -> world.grip(body, localHit, target));
+        }
+        leftWasDown = leftNow;
+    }
+
+    public Entity getPickedEntity() {
+        return pickedEntity;
+    }
+
+    /**
+     * Drops the entity if it is picked, e.g. because it was removed.
+     */
+    public void forget(Entity entity) {
+        if (pickedEntity == entity) pickedEntity = null;
+    }
+}
@@ -0,0 +1,185 @@
+package com.engine.core.render;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.engine.config.Constants;
+import com.engine.core.entity.Entity;
+import com.engine.physics.collisions.DynamicAabbTree;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Camera frustum culling on the render thread. Entities are kept in a {@link DynamicAabbTree}, the same
+ * structure as the physics broadphase, with their render transforms; the frustum query rejects whole
+ * subtrees outside the view and accepts subtrees fully inside it without testing their entities.
+ * The physics thread owns the broadphase itself, so the render side keeps its own tree.
+ * <p>
+ * Models with several mesh parts, such as meshes split into chunks by the {@code MeshChunker}, are then culled
+ * part by part: parts of a visible entity outside the frustum are disabled until they are visible again.
+ */
+public class FrustumCuller {
+    private final DynamicAabbTree tree = new DynamicAabbTree(Constants.BROADPHASE_MARGIN);
+    private final Map<Entity, Proxy> proxies = new IdentityHashMap<>();
+    private final Map<Model, BoundingBox> modelBounds = new WeakHashMap<>();
+    private final List<Entity> visible = new ArrayList<>();
+    private final Vector3 center = new Vector3();
+    private final Vector3 dimensions = new Vector3();
+    private final Matrix4 partTransform = new Matrix4();
+    private final double[] bounds = new double[6];
+    private final DynamicAabbTree.VolumeTest frustumTest = this::classify;
+    private final IntConsumer collectVisible = proxy -> visible.add((Entity) tree.getUserData(proxy));
+    private Frustum frustum;
+    private int frame = 0;
+    private int submitted = 0;
+    private int culled = 0;
+    private int culledParts = 0;
+
+    private static final class Proxy {
+        private final int id;
+        private int frame;
+
+        private Proxy(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * Updates the tree with the current instance transforms and returns the entities the camera can see.
+     * The list is reused by the next call.
+     */
+    public List<Entity> cull(List<Entity> entities, Camera camera) {
+        frame++;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            computeBounds(entity);
+            Proxy proxy = proxies.get(entity);
+            if (proxy == null) {
+                proxy = new Proxy(tree.createProxy(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5], entity));
+                proxies.put(entity, proxy);
+            } else {
+                tree.moveProxy(proxy.id, bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+            }
+            proxy.frame = frame;
+        }
+
+        // entities removed from the scene
+        Iterator<Proxy> iterator = proxies.values().iterator();
+        while (iterator.hasNext()) {
+            Proxy proxy = iterator.next();
+            if (proxy.frame == frame) continue;
+            tree.destroyProxy(proxy.id);
+            iterator.remove();
+        }
+
+        visible.clear();
+        frustum = camera.frustum;
+        tree.query(frustumTest, collectVisible);
+        culledParts = 0;
+        for (int i = 0; i < visible.size(); i++) {
+            ModelInstance instance = visible.get(i).instance();
+            if (instance.model.meshParts.size > 1) culledParts += cullParts(instance, frustum);
+        }
+        frustum = null;
+        submitted = visible.size();
+        culled = entities.size() - submitted;
+        return visible;
+    }
+
+    /** Entities submitted for rendering by the last {@link #cull(List, Camera)}. */
+    public int getSubmitted() {
+        return submitted;
+    }
+
+    /** Entities rejected by the last {@link #cull(List, Camera)}. */
+    public int getCulled() {
+        return culled;
+    }
+
+    /** Mesh parts of submitted entities disabled by the last {@link #cull(List, Camera)}. */
+    public int getCulledParts() {
+        return culledParts;
+    }
+
+    /**
+     * Enables the parts of the instance whose bounds intersect the frustum and disables the others. Parts
+     * without bounds, a radius of 0, stay as they are.
+     * @return the number of disabled parts
+     */
+    int cullParts(ModelInstance instance, Frustum frustum) {
+        Frustum previous = this.frustum;
+        this.frustum = frustum;
+        int disabled = 0;
+        for (Node node : instance.nodes) disabled += cullParts(instance, node);
+        this.frustum = previous;
+        return disabled;
+    }
+
+    private int cullParts(ModelInstance instance, Node node) {
+        int disabled = 0;
+        partTransform.set(instance.transform).mul(node.globalTransform);
+        for (NodePart part : node.parts) {
+            MeshPart meshPart = part.meshPart;
+            if (meshPart.radius <= 0) continue;
+            transformBounds(partTransform.val, meshPart.center.x, meshPart.center.y, meshPart.center.z,
+                meshPart.halfExtents.x, meshPart.halfExtents.y, meshPart.halfExtents.z);
+            part.enabled = classify(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]) != DynamicAabbTree.OUTSIDE;
+            if (!part.enabled) disabled++;
+        }
+        for (Node child : node.getChildren()) disabled += cullParts(instance, child);
+        return disabled;
+    }
+
+    private int classify(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double cx = (minX + maxX) * .5, cy = (minY + maxY) * .5, cz = (minZ + maxZ) * .5;
+        double ex = (maxX - minX) * .5, ey = (maxY - minY) * .5, ez = (maxZ - minZ) * .5;
+        int result = DynamicAabbTree.INSIDE;
+        for (Plane plane : frustum.planes) {
+            // the planes of a libGDX frustum face inwards
+            double distance = plane.normal.x * cx + plane.normal.y * cy + plane.normal.z * cz + plane.d;
+            double radius = Math.abs(plane.normal.x) * ex + Math.abs(plane.normal.y) * ey + Math.abs(plane.normal.z) * ez;
+            if (distance + radius < 0) return DynamicAabbTree.OUTSIDE;
+            if (distance - radius < 0) result = DynamicAabbTree.INTERSECTS;
+        }
+        return result;
+    }
+
+    /** World bounds of the model bounds under the instance transform, written to {@link #bounds}. */
+    private void computeBounds(Entity entity) {
+        BoundingBox local = modelBounds.computeIfAbsent(entity.instance().model, model -> model.calculateBoundingBox(new BoundingBox()));
+        local.getCenter(center);
+        local.getDimensions(dimensions);
+        transformBounds(entity.instance().transform.val, center.x, center.y, center.z,
+            dimensions.x * .5f, dimensions.y * .5f, dimensions.z * .5f);
+    }
+
+    /** World bounds of the box with center c and half extents h under the transform m, written to {@link #bounds}. */
+    private void transformBounds(float[] m, float cx, float cy, float cz, float hx, float hy, float hz) {
+        double x = m[0] * cx + m[4] * cy + m[8] * cz + m[12];
+        double y = m[1] * cx + m[5] * cy + m[9] * cz + m[13];
+        double z = m[2] * cx + m[6] * cy + m[10] * cz + m[14];
+        double ex = Math.abs(m[0]) * hx + Math.abs(m[4]) * hy + Math.abs(m[8]) * hz;
+        double ey = Math.abs(m[1]) * hx + Math.abs(m[5]) * hy + Math.abs(m[9]) * hz;
+        double ez = Math.abs(m[2]) * hx + Math.abs(m[6]) * hy + Math.abs(m[10]) * hz;
+        bounds[0] = x - ex;
+        bounds[1] = y - ey;
+        bounds[2] = z - ez;
+        bounds[3] = x + ex;
+        bounds[4] = y + ey;
+        bounds[5] = z + ez;
+    }
+}
@@ -0,0 +1,130 @@
+package com.engine.core.render;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.attributes.DirectionalLightsAttribute;
+import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.glutils.GLVersion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Instanced draws through OpenGL (ES) 3.0. The transforms of a frame are streamed into one instance buffer,
+ * which is orphaned at the start of every frame, and bound as a per-instance {@code mat4} attribute.
+ * Lighting is one ambient and one directional light, like the scene environment.
+ */
+public class GL30InstanceDrawer implements InstanceDrawer {
+    private static final int INSTANCE_BYTES = 16 * Float.BYTES;
+
+    private final GL30 gl;
+    private final ShaderProgram shader;
+    private final int instanceBuffer;
+    private final int transformLocation;
+    private final Vector3 lightDirection = new Vector3();
+    private FloatBuffer staging = BufferUtils.newFloatBuffer(16 * 1024);
+    private int capacity = 0;
+    private int offset = 0;
+
+    public GL30InstanceDrawer() {
+        if (Gdx.gl30 == null) throw new IllegalStateException("Instanced rendering needs an OpenGL (ES) 3.0 context.");
+        this.gl = Gdx.gl30;
+
+        String version = Gdx.graphics.getGLVersion().getType() == GLVersion.Type.OpenGL ? "#version 150\n" : "#version 300 es\n";
+        this.shader = new ShaderProgram(
+            version + Gdx.files.internal("shaders/instanced.vert").readString(),
+            version + Gdx.files.internal("shaders/instanced.frag").readString());
+        if (!shader.isCompiled()) throw new RuntimeException("Could not compile the instanced shader: " + shader.getLog());
+        this.transformLocation = shader.getAttributeLocation("i_worldTrans");
+        this.instanceBuffer = gl.glGenBuffer();
+    }
+
+    @Override
+    public void begin(Camera camera, Environment environment, int instances) {
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, instanceBuffer);
+        if (instances > capacity) capacity = Math.max(instances, 2 * capacity);
+        // orphan last frame's storage, the driver keeps it alive for draws still in flight
+        gl.glBufferData(GL20.GL_ARRAY_BUFFER, capacity * INSTANCE_BYTES, null, GL20.GL_STREAM_DRAW);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        offset = 0;
+
+        gl.glEnable(GL20.GL_DEPTH_TEST);
+        gl.glDepthFunc(GL20.GL_LEQUAL);
+        gl.glEnable(GL20.GL_CULL_FACE);
+        gl.glCullFace(GL20.GL_BACK);
+
+        shader.bind();
+        shader.setUniformMatrix("u_projViewTrans", camera.combined);
+        ColorAttribute ambient = (ColorAttribute) environment.get(ColorAttribute.AmbientLight);
+        Color ambientColor = ambient != null ? ambient.color : Color.BLACK;
+        shader.setUniformf("u_ambientLight", ambientColor.r, ambientColor.g, ambientColor.b);
+
+        DirectionalLightsAttribute lights = environment.get(DirectionalLightsAttribute.class, DirectionalLightsAttribute.Type);
+        if (lights != null && lights.lights.size > 0) {
+            DirectionalLight light = lights.lights.first();
+            shader.setUniformf("u_lightColor", light.color.r, light.color.g, light.color.b);
+            shader.setUniformf("u_lightDirection", lightDirection.set(light.direction).nor());
+        } else {
+            shader.setUniformf("u_lightColor", 0, 0, 0);
+            shader.setUniformf("u_lightDirection", 0, -1, 0);
+        }
+    }
+
+    @Override
+    public void draw(MeshPart part, Material material, float[] transforms, int count) {
+        ColorAttribute diffuse = (ColorAttribute) material.get(ColorAttribute.Diffuse);
+        shader.setUniformf("u_diffuseColor", diffuse != null ? diffuse.color : Color.WHITE);
+
+        if (staging.capacity() < 16 * count) staging = BufferUtils.newFloatBuffer(16 * count);
+        staging.clear();
+        staging.put(transforms, 0, 16 * count);
+        staging.flip();
+
+        Mesh mesh = part.mesh;
+        mesh.bind(shader);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, instanceBuffer);
+        gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, offset, count * INSTANCE_BYTES, staging);
+        for (int column = 0; column < 4; column++) {
+            int location = transformLocation + column;
+            gl.glEnableVertexAttribArray(location);
+            gl.glVertexAttribPointer(location, 4, GL20.GL_FLOAT, false, INSTANCE_BYTES, offset + 4 * Float.BYTES * column);
+            gl.glVertexAttribDivisor(location, 1);
+        }
+
+        if (mesh.getNumIndices() > 0) {
+            gl.glDrawElementsInstanced(part.primitiveType, part.size, GL20.GL_UNSIGNED_SHORT, part.offset * Short.BYTES, count);
+        } else {
+            gl.glDrawArraysInstanced(part.primitiveType, part.offset, part.size, count);
+        }
+
+        for (int column = 0; column < 4; column++) {
+            gl.glVertexAttribDivisor(transformLocation + column, 0);
+            gl.glDisableVertexAttribArray(transformLocation + column);
+        }
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        mesh.unbind(shader);
+        offset += count * INSTANCE_BYTES;
+    }
+
+    @Override
+    public void end() {
+        gl.glDisable(GL20.GL_CULL_FACE);
+        gl.glDisable(GL20.GL_DEPTH_TEST);
+    }
+
+    @Override
+    public void dispose() {
+        gl.glDeleteBuffer(instanceBuffer);
+        shader.dispose();
+    }
+}
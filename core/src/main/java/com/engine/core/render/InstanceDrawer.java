@@ -0,0 +1,26 @@
+package com.engine.core.render;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+
+/**
+ * Issues the draws of the {@link InstancedRenderer}, one per group of instances sharing a mesh part and
+ * material. Separated from the grouping so draw calls can be counted without a GL context.
+ */
+public interface InstanceDrawer {
+    /**
+     * @param instances total number of instances drawn this frame, for sizing the instance buffer
+     */
+    void begin(Camera camera, Environment environment, int instances);
+
+    /**
+     * @param transforms column-major world transforms, 16 floats per instance
+     */
+    void draw(MeshPart part, Material material, float[] transforms, int count);
+
+    void end();
+
+    void dispose();
+}
@@ -0,0 +1,151 @@
+package com.engine.core.render;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Matrix4;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Groups model instances by mesh part and material and draws every group with a single instanced draw.
+ * Instances sharing a model from the {@link com.engine.core.AssetCache} share their mesh, so a scene of
+ * identical bodies costs one draw call. Collect the instances between {@link #begin()} and
+ * {@link #end(Camera, Environment)}.
+ */
+public class InstancedRenderer {
+    private final InstanceDrawer drawer;
+    private final Map<GroupKey, Group> groups = new HashMap<>();
+    private final GroupKey probe = new GroupKey();
+    private final Matrix4 world = new Matrix4();
+    private int drawCalls = 0;
+    private int instances = 0;
+
+    public InstancedRenderer(InstanceDrawer drawer) {
+        this.drawer = drawer;
+    }
+
+    public void begin() {
+        for (Group group : groups.values()) group.count = 0;
+    }
+
+    public void add(ModelInstance instance) {
+        for (Node node : instance.nodes) add(instance, node);
+    }
+
+    private void add(ModelInstance instance, Node node) {
+        for (NodePart part : node.parts) {
+            if (!part.enabled) continue;
+            world.set(instance.transform).mul(node.globalTransform);
+            group(part).add(world);
+        }
+        for (Node child : node.getChildren()) add(instance, child);
+    }
+
+    private Group group(NodePart part) {
+        MeshPart meshPart = part.meshPart;
+        probe.set(meshPart.mesh, meshPart.offset, meshPart.size, meshPart.primitiveType, part.material);
+        Group group = groups.get(probe);
+        if (group == null) {
+            GroupKey key = new GroupKey();
+            key.set(meshPart.mesh, meshPart.offset, meshPart.size, meshPart.primitiveType, part.material);
+            group = new Group(new MeshPart(meshPart), part.material);
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    /**
+     * Draws all groups collected since {@link #begin()} and drops groups that stayed empty, so disposed
+     * models are not kept alive.
+     */
+    public void end(Camera camera, Environment environment) {
+        drawCalls = 0;
+        instances = 0;
+        for (Group group : groups.values()) instances += group.count;
+
+        drawer.begin(camera, environment, instances);
+        Iterator<Group> iterator = groups.values().iterator();
+        while (iterator.hasNext()) {
+            Group group = iterator.next();
+            if (group.count == 0) {
+                iterator.remove();
+                continue;
+            }
+            drawer.draw(group.part, group.material, group.transforms, group.count);
+            drawCalls++;
+        }
+        drawer.end();
+    }
+
+    /** Draw calls issued by the last {@link #end(Camera, Environment)}. */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /** Instances drawn by the last {@link #end(Camera, Environment)}. */
+    public int getInstances() {
+        return instances;
+    }
+
+    public void dispose() {
+        groups.clear();
+        drawer.dispose();
+    }
+
+    private static final class Group {
+        private final MeshPart part;
+        private final Material material;
+        private float[] transforms = new float[16 * 16];
+        private int count = 0;
+
+        private Group(MeshPart part, Material material) {
+            this.part = part;
+            this.material = material;
+        }
+
+        private void add(Matrix4 transform) {
+            if (16 * (count + 1) > transforms.length) transforms = Arrays.copyOf(transforms, transforms.length * 2);
+            System.arraycopy(transform.val, 0, transforms, 16 * count++, 16);
+        }
+    }
+
+    /** Mutable so lookups do not allocate; keys stored in the map are never changed. */
+    private static final class GroupKey {
+        private Mesh mesh;
+        private int offset, size, primitiveType;
+        private Material material;
+
+        private void set(Mesh mesh, int offset, int size, int primitiveType, Material material) {
+            this.mesh = mesh;
+            this.offset = offset;
+            this.size = size;
+            this.primitiveType = primitiveType;
+            this.material = material;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GroupKey other)) return false;
+            return mesh == other.mesh && offset == other.offset && size == other.size
+                && primitiveType == other.primitiveType && material.equals(other.material);
+        }
+
+        @Override
+        public int hashCode() {
+            int h = System.identityHashCode(mesh);
+            h = 31 * h + offset;
+            h = 31 * h + size;
+            h = 31 * h + primitiveType;
+            return 31 * h + material.hashCode();
+        }
+    }
+}
@@ -1,37 +1,84 @@
 package com.engine.core.render;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.graphics.g3d.*;
-import com.engine.config.Constants;
 import com.engine.core.entity.Entity;
 import com.engine.core.SceneManager;
-import com.engine.utils.CameraUtils;
+import com.engine.profiling.StepProfiler;
 
+import java.util.List;
+
+/**
+ * Draws the scene. With an OpenGL (ES) 3.0 context entities sharing a mesh and material are drawn
+ * instanced, one draw call per group; otherwise every entity is rendered through the {@link ModelBatch}.
+ */
 public class RenderManager {
     private final ModelBatch modelBatch;
+    private final InstancedRenderer instancedRenderer;
+    private final FrustumCuller culler = new FrustumCuller();
+    private StepProfiler profiler = null;
 
     public RenderManager() {
+        this(Gdx.gl30 != null ? new InstancedRenderer(new GL30InstanceDrawer()) : null);
+    }
+
+    /**
+     * @param instancedRenderer renderer for all entities, or null to render each through the model batch
+     */
+    public RenderManager(InstancedRenderer instancedRenderer) {
         this.modelBatch = new ModelBatch();
+        this.instancedRenderer = instancedRenderer;
     }
 
     public void init() {
 
     }
 
-    public void update(SceneManager scene, PerspectiveCamera camera) {
-        if (!Gdx.input.isButtonPressed(Input.Buttons.LEFT)) {
-            CameraUtils.move(camera, Constants.CAMERA_SPEED);
-            CameraUtils.mouseInput(camera, Constants.CAMERA_ROTATION_SENSITIVITY);
-            camera.update();
+    /**
+     * Renders the entities inside the camera frustum.
+     */
+    public void render(SceneManager scene, Camera camera) {
+        StepProfiler profiler = this.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        List<Entity> visible = culler.cull(scene.getEntities(), camera);
+        if (instancedRenderer != null) {
+            instancedRenderer.begin();
+            for (Entity entity : visible) {
+                instancedRenderer.add(entity.instance());
+            }
+            instancedRenderer.end(camera, scene.getEnvironment());
+        } else {
+            modelBatch.begin(camera);
+            for (Entity entity : visible) {
+                modelBatch.render(entity.instance(), scene.getEnvironment());
+            }
+            modelBatch.end();
         }
-        modelBatch.begin(camera);
-        for (Entity entity : scene.getEntities()) {
-            modelBatch.render(entity.instance(), scene.getEnvironment());
-        }
-        modelBatch.end();
+        if (profiler != null) profiler.lap(StepProfiler.Phase.RENDER_SUBMIT, start);
+    }
+
+    /**
+     * Records the duration of every {@link #render(SceneManager, Camera)}, or nothing if null.
+     */
+    public void setProfiler(StepProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    /**
+     * Culling counters of the last frame: {@link FrustumCuller#getSubmitted()}, {@link FrustumCuller#getCulled()} and
+     * {@link FrustumCuller#getCulledParts()}.
+     */
+    public FrustumCuller getCuller() {
+        return culler;
+    }
+
+    /**
+     * @return the instanced renderer, null if entities are rendered through the model batch
+     */
+    public InstancedRenderer getInstancedRenderer() {
+        return instancedRenderer;
     }
 
     public void clear() {
@@ -42,5 +89,6 @@ public class RenderManager {
 
     public void dispose() {
         modelBatch.dispose();
+        if (instancedRenderer != null) instancedRenderer.dispose();
     }
 }
@@ -0,0 +1,46 @@
+package com.engine.physics;
+
+/**
+ * Accumulates frame time and hands it out in fixed simulation steps, so the physics does not depend
+ * on the display refresh rate. At most {@code maxSubSteps} steps are run per frame; time beyond that
+ * is dropped to avoid the spiral of death after a frame spike.
+ */
+public class FixedTimestep {
+    private final double step;
+    private final int maxSubSteps;
+    private double accumulator = 0;
+
+    public FixedTimestep(double step, int maxSubSteps) {
+        if (step <= 0) throw new IllegalArgumentException("The time step has to be positive.");
+        if (maxSubSteps < 1) throw new IllegalArgumentException("At least one sub step is required.");
+        this.step = step;
+        this.maxSubSteps = maxSubSteps;
+    }
+
+    /**
+     * @param frameTime elapsed real time since the last frame in seconds
+     * @return number of fixed steps to simulate this frame
+     */
+    public int advance(double frameTime) {
+        accumulator += Math.max(frameTime, 0);
+        int steps = (int) (accumulator / step);
+        if (steps > maxSubSteps) {
+            steps = maxSubSteps;
+            accumulator = (accumulator - steps * step) % step;
+        } else {
+            accumulator -= steps * step;
+        }
+        return steps;
+    }
+
+    /**
+     * Interpolation factor in [0, 1) between the previous and the current simulated state.
+     */
+    public double alpha() {
+        return accumulator / step;
+    }
+
+    public double getStep() {
+        return step;
+    }
+}
@@ -0,0 +1,10 @@
+package com.engine.physics;
+
+/**
+ * Input sent from the render thread to the physics thread. Executed on the physics thread
+ * before the next simulation step.
+ */
+@FunctionalInterface
+public interface PhysicsCommand {
+    void execute(PhysicsWorld world);
+}
@@ -0,0 +1,129 @@
+package com.engine.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.engine.profiling.PhaseEvent;
+import com.engine.profiling.StepProfiler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link PhysicsWorld} on its own thread with a fixed timestep. Commands from the render thread
+ * are passed in through a lock-free queue, the resulting transforms are published as
+ * {@link TransformSnapshot}s. Three snapshot buffers rotate without allocation: the physics thread fills
+ * its back buffer and swaps it with the ready one, the render thread swaps its front buffer with the ready
+ * one when that holds a newer capture. So neither thread ever sees a buffer the other one is using.
+ * An exception in a command or a step stops the thread; it is kept in {@link #getFailure()}.
+ */
+public class PhysicsThread implements Runnable {
+    private static final System.Logger LOGGER = System.getLogger(PhysicsThread.class.getName());
+
+    private final PhysicsWorld world;
+    private final FixedTimestep timestep;
+    private final Queue<PhysicsCommand> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<TransformSnapshot> ready = new AtomicReference<>(new TransformSnapshot());
+    private TransformSnapshot back = new TransformSnapshot(); // physics thread only
+    private TransformSnapshot front = new TransformSnapshot(); // render thread only
+    private long captures = 0;
+    private volatile boolean running = false;
+    private volatile Throwable failure = null;
+    private Thread thread;
+
+    public PhysicsThread(PhysicsWorld world, FixedTimestep timestep) {
+        this.world = world;
+        this.timestep = timestep;
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "physics");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread == null) return;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void submit(PhysicsCommand command) {
+        commands.add(command);
+    }
+
+    /**
+     * Latest published snapshot. Only call it from the render thread: the returned snapshot stays valid
+     * until the next call that finds a newer one.
+     */
+    public TransformSnapshot getSnapshot() {
+        if (ready.get().getSequence() > front.getSequence()) front = ready.getAndSet(front);
+        return front;
+    }
+
+    /**
+     * @return the exception that stopped the simulation, or null
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public double getStep() {
+        return timestep.getStep();
+    }
+
+    @Override
+    public void run() {
+        try {
+            simulate();
+        } catch (Throwable e) {
+            failure = e;
+            running = false;
+            if (Gdx.app != null) Gdx.app.error("PhysicsThread", "Simulation stopped", e);
+            else LOGGER.log(System.Logger.Level.ERROR, "Simulation stopped", e);
+        }
+    }
+
+    private void simulate() {
+        long last = System.nanoTime();
+        while (running) {
+            PhysicsCommand command;
+            while ((command = commands.poll()) != null) {
+                command.execute(world);
+            }
+
+            long now = System.nanoTime();
+            int steps = timestep.advance((now - last) * 1e-9);
+            last = now;
+            for (int i = 0; i < steps; i++) {
+                world.step(timestep.getStep());
+            }
+            if (steps > 0 || captures == 0) publish(now);
+
+            double remaining = timestep.getStep() * (1 - timestep.alpha());
+            LockSupport.parkNanos((long) (remaining * 1e9));
+        }
+    }
+
+    private void publish(long now) {
+        StepProfiler profiler = world.getProfiler();
+        long start = profiler != null ? System.nanoTime() : 0;
+        PhaseEvent event = PhaseEvent.start();
+        back.capture(world.getEntities(), now, ++captures);
+        back = ready.getAndSet(back);
+        event.end(StepProfiler.Phase.PUBLISH, world.getStepCount());
+        if (profiler != null) profiler.lap(StepProfiler.Phase.PUBLISH, start);
+    }
+}
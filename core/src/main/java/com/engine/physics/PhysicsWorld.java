@@ -0,0 +1,308 @@
+package com.engine.physics;
+
+import com.engine.config.Constants;
+import com.engine.core.entity.Entity;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStateBuffer;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.collisions.Contact;
+import com.engine.physics.collisions.DynamicAabbTree;
+import com.engine.physics.forces.Drag;
+import com.engine.physics.forces.FluidForces;
+import com.engine.physics.forces.ForceRegistry;
+import com.engine.physics.forces.Gravity;
+import com.engine.physics.forces.Spring;
+import com.engine.profiling.ContactSpikeEvent;
+import com.engine.profiling.PhaseEvent;
+import com.engine.profiling.StepProfiler;
+import com.engine.profiling.StepProfiler.Counter;
+import com.engine.profiling.StepProfiler.Phase;
+import com.engine.profiling.WorldStepEvent;
+import com.engine.utils.CollisionsUtils;
+import com.engine.utils.PhysicsUtils;
+import org.joml.Matrix3d;
+import org.joml.Vector3d;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Simulation state owned by the physics thread. Only touch it from there, e.g. through a {@link PhysicsCommand}.
+ */
+public class PhysicsWorld {
+    private final List<Entity> entities = new ArrayList<>();
+    private final Map<Entity, Integer> entityIndices = new IdentityHashMap<>();
+    private final DynamicAabbTree broadphase = new DynamicAabbTree(Constants.BROADPHASE_MARGIN);
+    private int[] proxies = new int[64]; // broadphase proxy per entity, same order as entities
+    private final BodyStore store = new BodyStore();
+    private final BatchIntegrator integrator = new BatchIntegrator();
+    private final ForceRegistry forces = new ForceRegistry();
+    private final Spring grip = new Spring(2000000, 1);
+    private final FluidForces fluids = new FluidForces();
+    private BodyStateBuffer stateBuffer = null;
+    private StepProfiler profiler = null;
+    private int[] pairs = new int[128]; // proxy pairs of the broadphase, two per pair
+    private int pairCount = 0;
+    private final List<Contact> contacts = new ArrayList<>();
+    private final DynamicAabbTree.PairCallback pairCollector = this::addPair;
+    private long stepCount = 0;
+    private double time = 0;
+    private double averageContacts = 0;
+
+    // scratch for computeBounds, physics thread only
+    private final Vector3d center = new Vector3d();
+    private final Vector3d halfExtent = new Vector3d();
+    private final Matrix3d rotation = new Matrix3d();
+    private final double[] bounds = new double[6];
+
+    public PhysicsWorld() {
+        forces.add(new Gravity(new Vector3d(0, -Constants.EARTH_ACC, 0)));
+        forces.add(new Drag(.1, 0));
+        forces.add(fluids);
+        forces.add(grip);
+    }
+
+    /**
+     * Adds the entity; dynamic bodies move their state into the {@link BodyStore} of the world.
+     */
+    public void add(Entity entity) {
+        if (entityIndices.putIfAbsent(entity, entities.size()) != null) return;
+        if (entities.size() == proxies.length) proxies = Arrays.copyOf(proxies, proxies.length * 2);
+        computeBounds(entity.body());
+        proxies[entities.size()] = broadphase.createProxy(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5], entity);
+        entities.add(entity);
+        if (entity.body().isDynamic()) {
+            store.attach(entity.body());
+            ensureStateCapacity();
+        }
+    }
+
+    /**
+     * Removes the entity in O(1) by moving the last entity into its place; its body keeps its state.
+     */
+    public boolean remove(Entity entity) {
+        Integer index = entityIndices.remove(entity);
+        if (index == null) return false;
+
+        broadphase.destroyProxy(proxies[index]);
+        int lastIndex = entities.size() - 1;
+        Entity last = entities.remove(lastIndex);
+        if (last != entity) {
+            entities.set(index, last);
+            entityIndices.put(last, index);
+            proxies[index] = proxies[lastIndex];
+        }
+        Body body = entity.body();
+        if (body.getStore() == store) store.detach(body);
+        if (grip.getBody() == body) grip.detach();
+        return true;
+    }
+
+    public List<Entity> getEntities() {
+        return entities;
+    }
+
+    public BodyStore getStore() {
+        return store;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    /**
+     * Optional off-heap mirror that receives the state of the store after every step, or null.
+     * Adding bodies beyond its capacity replaces it with a {@link BodyStateBuffer#grow grown} copy,
+     * so readers should fetch it again through {@link #getStateBuffer()}.
+     */
+    public void setStateBuffer(BodyStateBuffer stateBuffer) {
+        this.stateBuffer = stateBuffer;
+        if (stateBuffer == null) return;
+        ensureStateCapacity();
+        this.stateBuffer.write(store, stepCount, time);
+    }
+
+    private void ensureStateCapacity() {
+        if (stateBuffer == null || store.size() <= stateBuffer.capacity()) return;
+        try {
+            stateBuffer = stateBuffer.grow(Math.max(store.size(), 2 * stateBuffer.capacity()));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not grow the body state buffer.", e);
+        }
+    }
+
+    public BodyStateBuffer getStateBuffer() {
+        return stateBuffer;
+    }
+
+    /**
+     * Records the phase timings and counters of every step, or nothing if null.
+     */
+    public void setProfiler(StepProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public StepProfiler getProfiler() {
+        return profiler;
+    }
+
+    public DynamicAabbTree getBroadphase() {
+        return broadphase;
+    }
+
+    public ForceRegistry getForces() {
+        return forces;
+    }
+
+    /**
+     * Buoyancy and drag of the world; add {@link com.engine.physics.forces.FluidVolume}s to it to fill regions
+     * with water or air. Costs nothing while there are none.
+     */
+    public FluidForces getFluids() {
+        return fluids;
+    }
+
+    /**
+     * Pulls the body point {@code localHit} (body coordinates) towards {@code target} (inertial coordinates)
+     * until {@link #release()} is called.
+     */
+    public void grip(Body body, Vector3d localHit, Vector3d target) {
+        grip.attach(body, localHit, target);
+    }
+
+    public void release() {
+        grip.detach();
+    }
+
+    /**
+     * Advances the simulation by {@code h}: integration, broadphase, narrowphase and contact resolution,
+     * one stage after the other. The step and its phases are timed by the {@link StepProfiler}, if set,
+     * and emitted as JFR events while a recording has them enabled; without one no events are allocated.
+     */
+    public void step(double h) {
+        WorldStepEvent stepEvent = WorldStepEvent.start();
+        StepProfiler profiler = this.profiler;
+        long start = profiler != null ? System.nanoTime() : 0;
+        long t = start;
+        long step = stepCount + 1;
+
+        PhaseEvent phase = PhaseEvent.start();
+        int n = store.size();
+        store.storePreviousTransforms();
+        store.clearForces();
+        forces.apply(store, 0, n);
+        integrator.integrate(store, 0, n, h);
+        phase.end(Phase.INTEGRATE, step);
+        if (profiler != null) t = profiler.lap(Phase.INTEGRATE, t);
+
+        phase = PhaseEvent.start();
+        updateBroadphase();
+        pairCount = 0;
+        broadphase.queryPairs(pairCollector);
+        phase.end(Phase.BROADPHASE, step);
+        if (profiler != null) t = profiler.lap(Phase.BROADPHASE, t);
+
+        phase = PhaseEvent.start();
+        for (int i = 0; i < pairCount; i++) {
+            Contact contact = CollisionsUtils.computeContact(
+                (Entity) broadphase.getUserData(pairs[2 * i]), (Entity) broadphase.getUserData(pairs[2 * i + 1]));
+            if (contact != null) contacts.add(contact);
+        }
+        phase.end(Phase.NARROWPHASE, step);
+        if (profiler != null) t = profiler.lap(Phase.NARROWPHASE, t);
+
+        phase = PhaseEvent.start();
+        int contactCount = contacts.size();
+        for (int i = 0; i < contactCount; i++) {
+            PhysicsUtils.resolveContact(contacts.get(i));
+        }
+        contacts.clear();
+        phase.end(Phase.SOLVE, step);
+        if (profiler != null) t = profiler.lap(Phase.SOLVE, t);
+
+        stepCount++;
+        time += h;
+        if (stateBuffer != null) {
+            phase = PhaseEvent.start();
+            stateBuffer.write(store, stepCount, time);
+            phase.end(Phase.STATE_BUFFER, step);
+            if (profiler != null) t = profiler.lap(Phase.STATE_BUFFER, t);
+        }
+
+        if (profiler != null) {
+            profiler.record(Phase.STEP, t - start);
+            profiler.count(Counter.PAIRS, pairCount);
+            profiler.count(Counter.CONTACTS, contactCount);
+            profiler.count(Counter.ACTIVE_BODIES, n);
+        }
+        detectContactSpike(contactCount);
+
+        if (stepEvent != null) {
+            stepEvent.end();
+            if (stepEvent.shouldCommit()) {
+                stepEvent.step = step;
+                stepEvent.timeStep = (long) (h * 1e9);
+                stepEvent.bodies = n;
+                stepEvent.pairs = pairCount;
+                stepEvent.contacts = contactCount;
+                stepEvent.commit();
+            }
+        }
+    }
+
+    /**
+     * Emits a {@link ContactSpikeEvent} when the contacts of the step exceed the moving average of the
+     * previous steps by {@link Constants#CONTACT_SPIKE_FACTOR}.
+     */
+    private void detectContactSpike(int contactCount) {
+        if (contactCount >= Constants.CONTACT_SPIKE_MIN_CONTACTS
+            && contactCount > Constants.CONTACT_SPIKE_FACTOR * averageContacts) {
+            ContactSpikeEvent event = new ContactSpikeEvent();
+            if (event.shouldCommit()) {
+                event.step = stepCount;
+                event.contacts = contactCount;
+                event.averageContacts = averageContacts;
+                event.commit();
+            }
+        }
+        averageContacts += (contactCount - averageContacts) * Constants.CONTACT_AVERAGE_SMOOTHING;
+    }
+
+    private void updateBroadphase() {
+        for (int i = 0; i < entities.size(); i++) {
+            computeBounds(entities.get(i).body());
+            broadphase.moveProxy(proxies[i], bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+        }
+    }
+
+    private void addPair(int proxyA, int proxyB) {
+        if (2 * pairCount == pairs.length) pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        pairs[2 * pairCount] = proxyA;
+        pairs[2 * pairCount + 1] = proxyB;
+        pairCount++;
+    }
+
+    /** World space bounds of the rotated box of the body, written to {@link #bounds}. */
+    private void computeBounds(Body body) {
+        body.getPosition(center);
+        body.getHalfExtent(halfExtent);
+        body.getRotation(rotation);
+        double ex = Math.abs(rotation.m00) * halfExtent.x + Math.abs(rotation.m10) * halfExtent.y + Math.abs(rotation.m20) * halfExtent.z;
+        double ey = Math.abs(rotation.m01) * halfExtent.x + Math.abs(rotation.m11) * halfExtent.y + Math.abs(rotation.m21) * halfExtent.z;
+        double ez = Math.abs(rotation.m02) * halfExtent.x + Math.abs(rotation.m12) * halfExtent.y + Math.abs(rotation.m22) * halfExtent.z;
+        bounds[0] = center.x - ex;
+        bounds[1] = center.y - ey;
+        bounds[2] = center.z - ez;
+        bounds[3] = center.x + ex;
+        bounds[4] = center.y + ey;
+        bounds[5] = center.z + ez;
+    }
+}
@@ -4,6 +4,8 @@ import com.engine.config.Constants;
 import com.engine.utils.math.DifferentialEquationSolver;
 import com.engine.utils.math.State;
 import com.engine.physics.body.Body;
+import com.engine.physics.body.MassProperties;
+import org.joml.Matrix3d;
 import org.joml.Vector3d;
 
 import java.util.function.BiFunction;
@@ -17,9 +19,12 @@ public class RK4Integrator implements Integrator {
     DifferentialEquationSolver solver;
     @Override
     public void integrate(Body body, Vector3d torque, double dt, int steps) {
-        if (body.getInverseMass() == 0) return;
+        MassProperties mass = body.getMassProperties();
+        if (mass.getInverseMass() == 0) return;
 
-        State state = new State(body.getPosition(), body.getVelocity(), body.getRotation(), body.getAngularVelocity(), body.getLocalInertia());
+        Matrix3d inertia = new Matrix3d().scaling(mass.getIxx(), mass.getIyy(), mass.getIzz());
+        Matrix3d inverseInertia = new Matrix3d().scaling(mass.getInverseIxx(), mass.getInverseIyy(), mass.getInverseIzz());
+        State state = new State(body.getPosition(), body.getVelocity(), body.getOrientation(), body.getAngularVelocity(), inertia, inverseInertia);
 
         State next = DifferentialEquationSolver.solve(
             state, accelerationFunction, dt, torque, steps
@@ -27,7 +32,7 @@ public class RK4Integrator implements Integrator {
 
         body.setPosition(next.position);
         body.setVelocity(next.velocity);
-        body.setRotation(next.rotation);
+        body.setOrientation(next.orientation);
         body.setAngularVelocity(next.angularVelocity);
     }
 
@@ -0,0 +1,189 @@
+package com.engine.physics;
+
+import com.engine.core.entity.Entity;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.body.MassProperties;
+import org.joml.Quaterniond;
+import org.joml.Quaterniondc;
+import org.joml.Vector3d;
+import org.joml.Vector3dc;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Copy of the body transforms after a simulation step, together with the transforms of the step before,
+ * so the render thread can interpolate between both without locking. Every transform is stored as
+ * {@code [px, py, pz, qx, qy, qz, qw]}, every shape as {@code [hx, hy, hz, cx, cy, cz, ax, ay, az, aw]}: the
+ * half extent and the model frame, center of mass and principal axes, see {@link MassProperties}. The render
+ * thread reads bodies only through the snapshot, as their slots move while the physics thread steps.
+ * Snapshots are buffers exchanged by the {@link PhysicsThread}: a snapshot taken by the render thread does
+ * not change until it takes the next one, then it is refilled by the physics thread. The arrays only grow
+ * with the number of entities.
+ */
+public final class TransformSnapshot {
+    public static final int STRIDE = 7;
+    public static final int SHAPE_STRIDE = 10;
+
+    private Entity[] entities = new Entity[0];
+    private double[] previous = new double[0];
+    private double[] current = new double[0];
+    private double[] shapes = new double[0];
+    private int size = 0;
+    private long timeNanos;
+    private long sequence = 0;
+
+    TransformSnapshot() {}
+
+    /**
+     * Refills the snapshot with the transforms of the entities.
+     * @param sequence number of the capture, higher than that of every earlier capture
+     */
+    void capture(List<Entity> entities, long timeNanos, long sequence) {
+        int n = entities.size();
+        if (this.entities.length < n) {
+            int capacity = Math.max(n, this.entities.length * 2);
+            this.entities = new Entity[capacity];
+            previous = new double[capacity * STRIDE];
+            current = new double[capacity * STRIDE];
+            shapes = new double[capacity * SHAPE_STRIDE];
+        }
+        for (int i = 0; i < n; i++) {
+            Entity entity = entities.get(i);
+            this.entities[i] = entity;
+            Body body = entity.body();
+            BodyStore s = body.getStore();
+            int b = body.getIndex();
+            int o = i * STRIDE;
+            previous[o] = s.previousPx[b];
+            previous[o + 1] = s.previousPy[b];
+            previous[o + 2] = s.previousPz[b];
+            previous[o + 3] = s.previousQx[b];
+            previous[o + 4] = s.previousQy[b];
+            previous[o + 5] = s.previousQz[b];
+            previous[o + 6] = s.previousQw[b];
+            current[o] = s.px[b];
+            current[o + 1] = s.py[b];
+            current[o + 2] = s.pz[b];
+            current[o + 3] = s.qx[b];
+            current[o + 4] = s.qy[b];
+            current[o + 5] = s.qz[b];
+            current[o + 6] = s.qw[b];
+
+            MassProperties mass = body.getMassProperties();
+            Vector3dc c = mass.getCenterOfMass();
+            Quaterniondc a = mass.getPrincipalAxes();
+            int f = i * SHAPE_STRIDE;
+            shapes[f] = s.hx[b];
+            shapes[f + 1] = s.hy[b];
+            shapes[f + 2] = s.hz[b];
+            shapes[f + 3] = c.x();
+            shapes[f + 4] = c.y();
+            shapes[f + 5] = c.z();
+            shapes[f + 6] = a.x();
+            shapes[f + 7] = a.y();
+            shapes[f + 8] = a.z();
+            shapes[f + 9] = a.w();
+        }
+        // drop removed entities, so the buffer does not keep them alive
+        if (n < size) Arrays.fill(this.entities, n, size, null);
+        this.size = n;
+        this.timeNanos = timeNanos;
+        this.sequence = sequence;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Entity entity(int index) {
+        return entities[index];
+    }
+
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * Blend factor for a frame rendered at {@code nowNanos}, given the fixed step length in seconds.
+     */
+    public double alpha(long nowNanos, double step) {
+        double alpha = (nowNanos - timeNanos) * 1e-9 / step;
+        return Math.max(0, Math.min(alpha, 1));
+    }
+
+    public Vector3d position(int index, Vector3d dest) {
+        int o = index * STRIDE;
+        return dest.set(current[o], current[o + 1], current[o + 2]);
+    }
+
+    public Quaterniond orientation(int index, Quaterniond dest) {
+        int o = index * STRIDE + 3;
+        return dest.set(current[o], current[o + 1], current[o + 2], current[o + 3]);
+    }
+
+    /**
+     * Half extent of the body box in body coordinates.
+     */
+    public Vector3d halfExtent(int index, Vector3d dest) {
+        int f = index * SHAPE_STRIDE;
+        return dest.set(shapes[f], shapes[f + 1], shapes[f + 2]);
+    }
+
+    /**
+     * Copies the shape of the entity, see above, to {@code dest[offset..offset + SHAPE_STRIDE)}.
+     */
+    public void shape(int index, double[] dest, int offset) {
+        System.arraycopy(shapes, index * SHAPE_STRIDE, dest, offset, SHAPE_STRIDE);
+    }
+
+    /**
+     * Interpolates all transforms in one pass, positions linearly and orientations by normalized lerp
+     * along the shorter arc.
+     * @param dest packed transforms, {@link #STRIDE} values per entity, at least {@code size() * STRIDE} long
+     */
+    public void interpolate(double alpha, double[] dest) {
+        for (int o = 0; o < size * STRIDE; o += STRIDE) interpolate(o, alpha, dest, o);
+    }
+
+    /**
+     * Interpolates the transform of one entity into {@code dest[0..STRIDE)}.
+     */
+    public void interpolate(int index, double alpha, double[] dest) {
+        interpolate(index * STRIDE, alpha, dest, 0);
+    }
+
+    private void interpolate(int o, double alpha, double[] dest, int d) {
+        dest[d] = previous[o] + (current[o] - previous[o]) * alpha;
+        dest[d + 1] = previous[o + 1] + (current[o + 1] - previous[o + 1]) * alpha;
+        dest[d + 2] = previous[o + 2] + (current[o + 2] - previous[o + 2]) * alpha;
+
+        double dot = previous[o + 3] * current[o + 3] + previous[o + 4] * current[o + 4]
+            + previous[o + 5] * current[o + 5] + previous[o + 6] * current[o + 6];
+        double a = 1 - alpha;
+        double b = dot < 0 ? -alpha : alpha;
+        double qx = previous[o + 3] * a + current[o + 3] * b;
+        double qy = previous[o + 4] * a + current[o + 4] * b;
+        double qz = previous[o + 5] * a + current[o + 5] * b;
+        double qw = previous[o + 6] * a + current[o + 6] * b;
+        double inverseLength = 1 / Math.sqrt(qx * qx + qy * qy + qz * qz + qw * qw);
+        dest[d + 3] = qx * inverseLength;
+        dest[d + 4] = qy * inverseLength;
+        dest[d + 5] = qz * inverseLength;
+        dest[d + 6] = qw * inverseLength;
+    }
+
+    public Vector3d interpolatedPosition(int index, double alpha, Vector3d dest) {
+        int o = index * STRIDE;
+        return dest.set(
+            previous[o] + (current[o] - previous[o]) * alpha,
+            previous[o + 1] + (current[o + 1] - previous[o + 1]) * alpha,
+            previous[o + 2] + (current[o + 2] - previous[o + 2]) * alpha
+        );
+    }
+}
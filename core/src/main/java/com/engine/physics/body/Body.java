@@ -1,107 +1,280 @@
 package com.engine.physics.body;
 
 import org.joml.Matrix3d;
+import org.joml.Quaterniond;
+import org.joml.Quaterniondc;
 import org.joml.Vector3d;
+import org.joml.Vector3dc;
 
+/**
+ * View on the slot of a rigid body in a {@link BodyStore}. The state itself lives in the primitive arrays
+ * of the store; the getters without arguments return copies, the {@code get...(dest)} variants read into
+ * the given object without allocating.
+ * <p>
+ * Once added to a world only the physics thread may use the body state, since attaching and removing bodies
+ * moves their slots; the render thread reads transforms, half extents and model frames from the
+ * {@link com.engine.physics.TransformSnapshot}.
+ */
 public abstract class Body {
     private final BodyType type;
-    private Vector3d position = new Vector3d();
-    private Matrix3d rotation = new Matrix3d();
-    private Vector3d velocity = new Vector3d();
-    private Vector3d angularVelocity = new Vector3d();
-    private Vector3d halfExtent = new Vector3d();
-    private Matrix3d localInertia = new Matrix3d();
-    private double mass = 0;
-    private double density;
+    private BodyStore store;
+    private int index;
+    private final Matrix3d rotation = new Matrix3d(); // derived from orientation on demand
+    private double rotationQx = Double.NaN, rotationQy, rotationQz, rotationQw; // orientation of the cached rotation
+    private final Quaterniond rotationOrientation = new Quaterniond(); // only used by getRotation
+    private FluidCoefficients fluidCoefficients = FluidCoefficients.NONE;
+    private final MassProperties massProperties;
     private Vector3d mouseHit = new Vector3d();
     private double tHit = 0;
 
+    /**
+     * Creates the body in a private store with a single slot, for bodies set up on another thread than the one
+     * stepping the world they are added to.
+     */
     protected Body(BodyType type, double density) {
+        this(type, density, new BodyStore(1));
+    }
+
+    /**
+     * Creates the body directly in the store, e.g. that of a world built on its own thread, so adding it to the
+     * world does not move its state. The body must then be added to the world owning the store.
+     */
+    protected Body(BodyType type, double density, BodyStore store) {
         this.type = type;
-        this.density = density;
+        this.massProperties = new MassProperties(density);
+        this.store = store;
+        this.index = store.allocateSlot(this);
+        store.writeMassProperties(index, massProperties);
     }
 
     public BodyType getType() {
         return type;
     }
 
+    /**
+     * Store holding the state of this body. Changes when the body is attached to another store.
+     */
+    public BodyStore getStore() {
+        return store;
+    }
+
+    /**
+     * Slot of this body in {@link #getStore()}. Changes when other bodies are removed from the store.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    void moveTo(BodyStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
     public Vector3d getPosition() {
-        return new Vector3d(position);
+        return getPosition(new Vector3d());
+    }
+
+    public Vector3d getPosition(Vector3d dest) {
+        return dest.set(store.px[index], store.py[index], store.pz[index]);
+    }
+
+    public void setPosition(Vector3dc position) {
+        setPosition(position.x(), position.y(), position.z());
     }
 
-    public void setPosition(Vector3d position) {
-        this.position = new Vector3d(position);
+    public void setPosition(double x, double y, double z) {
+        store.px[index] = x;
+        store.py[index] = y;
+        store.pz[index] = z;
     }
 
+    public Quaterniond getOrientation() {
+        return getOrientation(new Quaterniond());
+    }
+
+    public Quaterniond getOrientation(Quaterniond dest) {
+        return dest.set(store.qx[index], store.qy[index], store.qz[index], store.qw[index]);
+    }
+
+    public void setOrientation(Quaterniondc orientation) {
+        double x = orientation.x(), y = orientation.y(), z = orientation.z(), w = orientation.w();
+        double inverseLength = 1 / Math.sqrt(x * x + y * y + z * z + w * w);
+        store.qx[index] = x * inverseLength;
+        store.qy[index] = y * inverseLength;
+        store.qz[index] = z * inverseLength;
+        store.qw[index] = w * inverseLength;
+    }
+
+    /**
+     * Rotation matrix R_IK from the body frame K to the inertial frame I.
+     * Only built from the orientation quaternion when it changed since the last request.
+     */
     public Matrix3d getRotation() {
-        return new Matrix3d(rotation);
+        return getRotation(new Matrix3d());
+    }
+
+    public Matrix3d getRotation(Matrix3d dest) {
+        double x = store.qx[index], y = store.qy[index], z = store.qz[index], w = store.qw[index];
+        if (x != rotationQx || y != rotationQy || z != rotationQz || w != rotationQw) {
+            rotationOrientation.set(x, y, z, w).get(rotation);
+            rotationQx = x; rotationQy = y; rotationQz = z; rotationQw = w;
+        }
+        return dest.set(rotation);
     }
 
     public void setRotation(Matrix3d rotation) {
-        this.rotation = new Matrix3d(rotation);
+        setOrientation(new Quaterniond().setFromUnnormalized(rotation));
+    }
+
+    public Vector3d getPreviousPosition() {
+        return getPreviousPosition(new Vector3d());
+    }
+
+    public Vector3d getPreviousPosition(Vector3d dest) {
+        return dest.set(store.previousPx[index], store.previousPy[index], store.previousPz[index]);
+    }
+
+    public Quaterniond getPreviousOrientation() {
+        return getPreviousOrientation(new Quaterniond());
+    }
+
+    public Quaterniond getPreviousOrientation(Quaterniond dest) {
+        return dest.set(store.previousQx[index], store.previousQy[index], store.previousQz[index], store.previousQw[index]);
+    }
+
+    /**
+     * Remembers the current transform as the state of the previous simulation step for render interpolation.
+     * The world does this for all bodies at once with {@link BodyStore#storePreviousTransforms()}.
+     */
+    public void storePreviousTransform() {
+        store.previousPx[index] = store.px[index];
+        store.previousPy[index] = store.py[index];
+        store.previousPz[index] = store.pz[index];
+        store.previousQx[index] = store.qx[index];
+        store.previousQy[index] = store.qy[index];
+        store.previousQz[index] = store.qz[index];
+        store.previousQw[index] = store.qw[index];
     }
 
     public Vector3d getVelocity() {
-        return new Vector3d(velocity);
+        return getVelocity(new Vector3d());
     }
 
-    public void setVelocity(Vector3d velocity) {
-        this.velocity = new Vector3d(velocity);
+    public Vector3d getVelocity(Vector3d dest) {
+        return dest.set(store.vx[index], store.vy[index], store.vz[index]);
+    }
+
+    public void setVelocity(Vector3dc velocity) {
+        store.vx[index] = velocity.x();
+        store.vy[index] = velocity.y();
+        store.vz[index] = velocity.z();
     }
 
     public Vector3d getAngularVelocity() {
-        return new Vector3d(angularVelocity);
+        return getAngularVelocity(new Vector3d());
+    }
+
+    public Vector3d getAngularVelocity(Vector3d dest) {
+        return dest.set(store.wx[index], store.wy[index], store.wz[index]);
+    }
+
+    public void setAngularVelocity(Vector3dc angularVelocity) {
+        store.wx[index] = angularVelocity.x();
+        store.wy[index] = angularVelocity.y();
+        store.wz[index] = angularVelocity.z();
     }
 
-    public void setAngularVelocity(Vector3d angularVelocity) {
-        this.angularVelocity = new Vector3d(angularVelocity);
+    public MassProperties getMassProperties() {
+        return massProperties;
+    }
+
+    /**
+     * Inverse inertia tensor in inertial coordinates for the current orientation.
+     */
+    public Matrix3d getWorldInverseInertia(Matrix3d dest) {
+        return massProperties.getWorldInverseInertia(store.qx[index], store.qy[index], store.qz[index], store.qw[index], dest);
     }
 
     public double getMass() {
-        return mass;
+        return massProperties.getMass();
     }
 
     public double getInverseMass() {
-        return mass != 0 ? 1 / mass : 0;
+        return massProperties.getInverseMass();
     }
 
     public void setMass(double mass) {
         if (mass < 0) throw new IllegalArgumentException("There is no negative mass.");
-        this.mass = mass;
+        massProperties.setMass(mass);
+        store.writeMassProperties(index, massProperties);
     }
 
     public double getDensity() {
-        return density;
+        return massProperties.getDensity();
     }
 
     public void setDensity(double density) {
-        this.density = density;
+        massProperties.setDensity(density);
+        store.writeMassProperties(index, massProperties);
+    }
+
+    /**
+     * Sets the shape the mass and inertia are derived from together with the density.
+     * @param volume volume in m³
+     * @param unitA principal moment of inertia about the body x-axis per unit mass
+     */
+    public void setShape(double volume, double unitA, double unitB, double unitC) {
+        massProperties.setShape(volume, unitA, unitB, unitC);
+        store.writeMassProperties(index, massProperties);
+    }
+
+    /**
+     * Places the model relative to the body frame, which is the principal frame of the shape.
+     * @param centerOfMass center of mass in model coordinates
+     * @param principalAxes rotation from the principal axes to the model axes
+     * @see MassProperties
+     */
+    public void setPrincipalFrame(Vector3dc centerOfMass, Quaterniondc principalAxes) {
+        massProperties.setPrincipalFrame(centerOfMass, principalAxes);
     }
 
     public Vector3d getHalfExtent() {
-        return new Vector3d(halfExtent);
+        return getHalfExtent(new Vector3d());
     }
 
-    public void setHalfExtent(Vector3d halfExtent) {
-        this.halfExtent = new Vector3d(halfExtent);
+    public Vector3d getHalfExtent(Vector3d dest) {
+        return dest.set(store.hx[index], store.hy[index], store.hz[index]);
+    }
+
+    public void setHalfExtent(Vector3dc halfExtent) {
+        setHalfExtent(halfExtent.x(), halfExtent.y(), halfExtent.z());
     }
 
     public void setHalfExtent(double x, double y, double z) {
-        this.halfExtent = new Vector3d(x, y, z);
+        store.hx[index] = x;
+        store.hy[index] = y;
+        store.hz[index] = z;
+    }
+
+    public FluidCoefficients getFluidCoefficients() {
+        return fluidCoefficients;
+    }
+
+    public void setFluidCoefficients(FluidCoefficients fluidCoefficients) {
+        this.fluidCoefficients = fluidCoefficients;
     }
 
     public Matrix3d getLocalInertia() {
-        return new Matrix3d(localInertia);
+        return new Matrix3d().scaling(massProperties.getIxx(), massProperties.getIyy(), massProperties.getIzz());
     }
 
     public void setLocalInertia(Matrix3d localInertia) {
-        this.localInertia = new Matrix3d(localInertia);
+        setLocalInertia(localInertia.m00, localInertia.m11, localInertia.m22);
     }
 
     public void setLocalInertia(double A, double B, double C) {
-        localInertia.m00 = A;
-        localInertia.m11 = B;
-        localInertia.m22 = C;
+        massProperties.setInertia(A, B, C);
+        store.writeMassProperties(index, massProperties);
     }
 
     public Vector3d getMouseHit() {
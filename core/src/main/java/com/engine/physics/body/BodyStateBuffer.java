@@ -0,0 +1,212 @@
+package com.engine.physics.body;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Off-heap copy of the body state of a {@link BodyStore} as fixed-stride records, little endian.
+ * Snapshots are a single bulk copy of the buffer, and a buffer mapped from a file can be read by
+ * tools or another process without knowing anything about {@link Body}.
+ * <pre>
+ * header (32 bytes)
+ *   0  int    magic 'BODY'
+ *   4  int    layout version
+ *   8  int    body count
+ *  12  int    record stride in bytes
+ *  16  long   simulation step
+ *  24  double simulated time in seconds
+ * record i at HEADER_BYTES + i * STRIDE, all fields double
+ *   0  position x, y, z              (inertial frame)
+ *  24  orientation x, y, z, w        (K -> I)
+ *  56  velocity x, y, z              (inertial frame)
+ *  80  angular velocity x, y, z      (body frame)
+ * 104  mass, inverse mass
+ * 120  Ixx, Iyy, Izz                 (principal, body frame)
+ * 144  inverse Ixx, Iyy, Izz
+ * 168  half extent x, y, z
+ * </pre>
+ */
+public class BodyStateBuffer {
+    public static final int MAGIC = 0x424F4459;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int STRIDE = 24 * Double.BYTES;
+
+    public static final int POSITION = 0;
+    public static final int ORIENTATION = 24;
+    public static final int VELOCITY = 56;
+    public static final int ANGULAR_VELOCITY = 80;
+    public static final int MASS = 104;
+    public static final int INVERSE_MASS = 112;
+    public static final int INERTIA = 120;
+    public static final int INVERSE_INERTIA = 144;
+    public static final int HALF_EXTENT = 168;
+
+    private final ByteBuffer buffer;
+    private final Path path; // file of a mapped buffer, or null
+
+    /** Allocates a direct buffer for up to {@code capacity} bodies. */
+    public BodyStateBuffer(int capacity) {
+        this(ByteBuffer.allocateDirect(bytes(capacity)), null);
+        writeHeader(0, 0, 0);
+    }
+
+    private BodyStateBuffer(ByteBuffer buffer, Path path) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.path = path;
+    }
+
+    /**
+     * Maps the file as shared state for up to {@code capacity} bodies, creating it if necessary.
+     */
+    public static BodyStateBuffer map(Path path, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            BodyStateBuffer state = new BodyStateBuffer(channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes(capacity)), path);
+            if (state.buffer.getInt(0) != MAGIC) state.writeHeader(0, 0, 0);
+            return state;
+        }
+    }
+
+    /**
+     * Reads state written by another {@link BodyStateBuffer}, e.g. loaded from a file.
+     */
+    public static BodyStateBuffer wrap(ByteBuffer buffer) {
+        BodyStateBuffer state = new BodyStateBuffer(buffer.duplicate(), null);
+        if (state.buffer.getInt(0) != MAGIC) throw new IllegalArgumentException("Not a body state buffer.");
+        if (state.buffer.getInt(4) != VERSION) throw new IllegalArgumentException("Unsupported body state version " + state.buffer.getInt(4));
+        if (state.buffer.getInt(12) != STRIDE) throw new IllegalArgumentException("Unexpected record stride " + state.buffer.getInt(12));
+        return state;
+    }
+
+    private static int bytes(int capacity) {
+        return HEADER_BYTES + Math.max(capacity, 0) * STRIDE;
+    }
+
+    public int capacity() {
+        return (buffer.capacity() - HEADER_BYTES) / STRIDE;
+    }
+
+    public int size() {
+        return buffer.getInt(8);
+    }
+
+    public long getStep() {
+        return buffer.getLong(16);
+    }
+
+    public double getTime() {
+        return buffer.getDouble(24);
+    }
+
+    /**
+     * Field of body {@code index}, {@code offset} is one of the record offsets plus {@code k * Double.BYTES}.
+     */
+    public double get(int index, int offset) {
+        return buffer.getDouble(HEADER_BYTES + index * STRIDE + offset);
+    }
+
+    /** Read-only view of the header and all records. */
+    public ByteBuffer getBuffer() {
+        return buffer.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Buffer of the same kind for at least {@code capacity} bodies holding the header and records of this one.
+     * A mapped buffer maps a larger region of the same file.
+     */
+    public BodyStateBuffer grow(int capacity) throws IOException {
+        if (capacity <= capacity()) return this;
+        BodyStateBuffer grown = path != null ? map(path, capacity) : new BodyStateBuffer(capacity);
+        if (grown.buffer != buffer) grown.buffer.put(0, buffer, 0, bytes(size()));
+        return grown;
+    }
+
+    /**
+     * Copies the state of the bodies of the store into the records, at most {@link #capacity()} of them.
+     * Never throws, it is called inside the step; the owner keeps the capacity up with {@link #grow}.
+     * @return whether all bodies fit
+     */
+    public boolean write(BodyStore store, long step, double time) {
+        int n = Math.min(store.size(), capacity());
+        ByteBuffer b = buffer;
+        for (int i = 0; i < n; i++) {
+            int o = HEADER_BYTES + i * STRIDE;
+            b.putDouble(o, store.px[i]);
+            b.putDouble(o + 8, store.py[i]);
+            b.putDouble(o + 16, store.pz[i]);
+            b.putDouble(o + 24, store.qx[i]);
+            b.putDouble(o + 32, store.qy[i]);
+            b.putDouble(o + 40, store.qz[i]);
+            b.putDouble(o + 48, store.qw[i]);
+            b.putDouble(o + 56, store.vx[i]);
+            b.putDouble(o + 64, store.vy[i]);
+            b.putDouble(o + 72, store.vz[i]);
+            b.putDouble(o + 80, store.wx[i]);
+            b.putDouble(o + 88, store.wy[i]);
+            b.putDouble(o + 96, store.wz[i]);
+            b.putDouble(o + 104, store.mass[i]);
+            b.putDouble(o + 112, store.inverseMass[i]);
+            b.putDouble(o + 120, store.ixx[i]);
+            b.putDouble(o + 128, store.iyy[i]);
+            b.putDouble(o + 136, store.izz[i]);
+            b.putDouble(o + 144, store.inverseIxx[i]);
+            b.putDouble(o + 152, store.inverseIyy[i]);
+            b.putDouble(o + 160, store.inverseIzz[i]);
+            b.putDouble(o + 168, store.hx[i]);
+            b.putDouble(o + 176, store.hy[i]);
+            b.putDouble(o + 184, store.hz[i]);
+        }
+        writeHeader(n, step, time);
+        return n == store.size();
+    }
+
+    /**
+     * Restores the transforms and velocities of the store, e.g. for replays. Mass properties belong to the
+     * bodies and are not read back.
+     */
+    public void read(BodyStore store) {
+        int n = size();
+        if (n != store.size()) throw new IllegalArgumentException("The buffer holds " + n + " bodies, the store " + store.size() + ".");
+        ByteBuffer b = buffer;
+        for (int i = 0; i < n; i++) {
+            int o = HEADER_BYTES + i * STRIDE;
+            store.px[i] = b.getDouble(o);
+            store.py[i] = b.getDouble(o + 8);
+            store.pz[i] = b.getDouble(o + 16);
+            store.qx[i] = b.getDouble(o + 24);
+            store.qy[i] = b.getDouble(o + 32);
+            store.qz[i] = b.getDouble(o + 40);
+            store.qw[i] = b.getDouble(o + 48);
+            store.vx[i] = b.getDouble(o + 56);
+            store.vy[i] = b.getDouble(o + 64);
+            store.vz[i] = b.getDouble(o + 72);
+            store.wx[i] = b.getDouble(o + 80);
+            store.wy[i] = b.getDouble(o + 88);
+            store.wz[i] = b.getDouble(o + 96);
+        }
+    }
+
+    /**
+     * Copy of the header and the used records with one bulk copy.
+     */
+    public BodyStateBuffer snapshot() {
+        int bytes = bytes(size());
+        ByteBuffer copy = ByteBuffer.allocateDirect(bytes);
+        copy.put(0, buffer, 0, bytes);
+        return new BodyStateBuffer(copy, null);
+    }
+
+    private void writeHeader(int size, long step, double time) {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, size);
+        buffer.putInt(12, STRIDE);
+        buffer.putLong(16, step);
+        buffer.putDouble(24, time);
+    }
+}
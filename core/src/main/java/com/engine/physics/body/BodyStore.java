@@ -0,0 +1,182 @@
+package com.engine.physics.body;
+
+import java.util.Arrays;
+
+/**
+ * Central structure-of-arrays storage of the body state. Every attached {@link Body} owns one slot,
+ * its index, and reads and writes its state through this store. Systems iterate index ranges over the
+ * primitive arrays directly. The arrays are replaced when the store grows, so do not keep references to
+ * them across {@link #attach(Body)} calls.
+ * <p>
+ * A body that is not attached to a shared store lives in a private store with a single slot.
+ */
+public class BodyStore {
+    private Body[] bodies;
+    private int size = 0;
+
+    // linear state (inertial frame)
+    public double[] px, py, pz;
+    public double[] vx, vy, vz;
+    public double[] fx, fy, fz;
+
+    // angular state, orientation K -> I, angular velocity and torque in body coordinates
+    public double[] qx, qy, qz, qw;
+    public double[] wx, wy, wz;
+    public double[] tx, ty, tz;
+
+    // transform of the previous step for render interpolation
+    public double[] previousPx, previousPy, previousPz;
+    public double[] previousQx, previousQy, previousQz, previousQw;
+
+    // shape and mass properties, mirrored from the MassProperties of the body
+    public double[] hx, hy, hz;
+    public double[] mass, inverseMass;
+    public double[] ixx, iyy, izz;
+    public double[] inverseIxx, inverseIyy, inverseIzz;
+
+    private double[][] columns; // all arrays above, for copying and clearing slots
+
+    public BodyStore() {
+        this(64);
+    }
+
+    public BodyStore(int capacity) {
+        bodies = new Body[Math.max(capacity, 1)];
+        allocate(bodies.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Body body(int index) {
+        return bodies[index];
+    }
+
+    /**
+     * Moves the body with its current state into this store.
+     * @return the new index of the body
+     */
+    public int attach(Body body) {
+        BodyStore previous = body.getStore();
+        if (previous == this) return body.getIndex();
+
+        int index = allocateSlot(body);
+        copySlot(previous, body.getIndex(), this, index);
+        previous.release(body.getIndex());
+        body.moveTo(this, index);
+        return index;
+    }
+
+    /**
+     * Removes the body from this store in O(1) by moving the last body into its slot.
+     * The body keeps its state in a private store.
+     */
+    public void detach(Body body) {
+        if (body.getStore() != this) throw new IllegalArgumentException("The body is not part of this store.");
+        BodyStore own = new BodyStore(1);
+        int ownIndex = own.allocateSlot(body);
+        copySlot(this, body.getIndex(), own, ownIndex);
+        release(body.getIndex());
+        body.moveTo(own, ownIndex);
+    }
+
+    /** Creates the slot of a new body. */
+    int allocateSlot(Body body) {
+        if (size == bodies.length) {
+            bodies = Arrays.copyOf(bodies, size * 2);
+            allocate(bodies.length);
+        }
+        int index = size++;
+        bodies[index] = body;
+        qw[index] = 1;
+        previousQw[index] = 1;
+        return index;
+    }
+
+    private void release(int index) {
+        int last = --size;
+        if (index != last) {
+            copySlot(this, last, this, index);
+            bodies[index] = bodies[last];
+            bodies[index].moveTo(this, index);
+        }
+        bodies[last] = null;
+        for (double[] column : columns) {
+            column[last] = 0;
+        }
+    }
+
+    public void clearForces() {
+        Arrays.fill(fx, 0, size, 0);
+        Arrays.fill(fy, 0, size, 0);
+        Arrays.fill(fz, 0, size, 0);
+        Arrays.fill(tx, 0, size, 0);
+        Arrays.fill(ty, 0, size, 0);
+        Arrays.fill(tz, 0, size, 0);
+    }
+
+    /** Remembers the current transforms of all bodies as the transforms of the previous step. */
+    public void storePreviousTransforms() {
+        System.arraycopy(px, 0, previousPx, 0, size);
+        System.arraycopy(py, 0, previousPy, 0, size);
+        System.arraycopy(pz, 0, previousPz, 0, size);
+        System.arraycopy(qx, 0, previousQx, 0, size);
+        System.arraycopy(qy, 0, previousQy, 0, size);
+        System.arraycopy(qz, 0, previousQz, 0, size);
+        System.arraycopy(qw, 0, previousQw, 0, size);
+    }
+
+    /** Copies the mass properties of the body into the slot arrays. */
+    void writeMassProperties(int index, MassProperties properties) {
+        mass[index] = properties.getMass();
+        inverseMass[index] = properties.getInverseMass();
+        ixx[index] = properties.getIxx();
+        iyy[index] = properties.getIyy();
+        izz[index] = properties.getIzz();
+        inverseIxx[index] = properties.getInverseIxx();
+        inverseIyy[index] = properties.getInverseIyy();
+        inverseIzz[index] = properties.getInverseIzz();
+    }
+
+    private static void copySlot(BodyStore from, int fromIndex, BodyStore to, int toIndex) {
+        double[][] source = from.columns;
+        double[][] target = to.columns;
+        for (int c = 0; c < source.length; c++) {
+            target[c][toIndex] = source[c][fromIndex];
+        }
+    }
+
+    private void allocate(int capacity) {
+        px = grow(px, capacity); py = grow(py, capacity); pz = grow(pz, capacity);
+        vx = grow(vx, capacity); vy = grow(vy, capacity); vz = grow(vz, capacity);
+        fx = grow(fx, capacity); fy = grow(fy, capacity); fz = grow(fz, capacity);
+        qx = grow(qx, capacity); qy = grow(qy, capacity); qz = grow(qz, capacity); qw = grow(qw, capacity);
+        wx = grow(wx, capacity); wy = grow(wy, capacity); wz = grow(wz, capacity);
+        tx = grow(tx, capacity); ty = grow(ty, capacity); tz = grow(tz, capacity);
+        previousPx = grow(previousPx, capacity);
+        previousPy = grow(previousPy, capacity);
+        previousPz = grow(previousPz, capacity);
+        previousQx = grow(previousQx, capacity);
+        previousQy = grow(previousQy, capacity);
+        previousQz = grow(previousQz, capacity);
+        previousQw = grow(previousQw, capacity);
+        hx = grow(hx, capacity); hy = grow(hy, capacity); hz = grow(hz, capacity);
+        mass = grow(mass, capacity);
+        inverseMass = grow(inverseMass, capacity);
+        ixx = grow(ixx, capacity); iyy = grow(iyy, capacity); izz = grow(izz, capacity);
+        inverseIxx = grow(inverseIxx, capacity);
+        inverseIyy = grow(inverseIyy, capacity);
+        inverseIzz = grow(inverseIzz, capacity);
+        columns = new double[][] {
+            px, py, pz, vx, vy, vz, fx, fy, fz,
+            qx, qy, qz, qw, wx, wy, wz, tx, ty, tz,
+            previousPx, previousPy, previousPz, previousQx, previousQy, previousQz, previousQw,
+            hx, hy, hz, mass, inverseMass, ixx, iyy, izz, inverseIxx, inverseIyy, inverseIzz
+        };
+    }
+
+    private static double[] grow(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
@@ -0,0 +1,15 @@
+package com.engine.physics.body;
+
+import org.joml.Vector3d;
+
+/**
+ * Shape coefficients for fluid forces, computed once per mesh.
+ *
+ * @param volume enclosed volume in m³
+ * @param projectedArea area facing the flow along the body x-, y- and z-axis, ½ Σ A_f |n_f,i|
+ * @param angularDragMoment resistance against rotation about the body axes, ½ Σ A_f r_f,i³ with r_f,i the
+ *                          distance of the face centroid to the axis
+ */
+public record FluidCoefficients(double volume, Vector3d projectedArea, Vector3d angularDragMoment) {
+    public static final FluidCoefficients NONE = new FluidCoefficients(0, new Vector3d(), new Vector3d());
+}
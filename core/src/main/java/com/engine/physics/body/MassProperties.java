@@ -0,0 +1,187 @@
+package com.engine.physics.body;
+
+import org.joml.Matrix3d;
+import org.joml.Quaterniond;
+import org.joml.Quaterniondc;
+import org.joml.Vector3d;
+import org.joml.Vector3dc;
+
+/**
+ * Cached mass properties of a body. Mass and principal inertia follow from the shape (volume and
+ * inertia per unit mass) and the density, or are set directly. The inverses are only recomputed
+ * after one of those inputs changed; the world inverse inertia is derived on request.
+ * <p>
+ * The body frame is the principal frame of the shape: the body position is its center of mass and the body
+ * axes are its principal axes. The model the shape was built from is placed relative to that frame by the
+ * center of mass and the principal axes in model coordinates, see {@link #setPrincipalFrame}.
+ */
+public class MassProperties {
+    private double density;
+    private double volume = 0;
+    // principal moments of inertia per unit mass of the shape
+    private double unitIxx = 0, unitIyy = 0, unitIzz = 0;
+
+    private double mass = 0;
+    private double ixx = 0, iyy = 0, izz = 0;
+
+    private double inverseMass = 0;
+    private double inverseIxx = 0, inverseIyy = 0, inverseIzz = 0;
+    private boolean dirty = true;
+
+    // principal frame in model coordinates
+    private final Vector3d centerOfMass = new Vector3d();
+    private final Quaterniond principalAxes = new Quaterniond();
+
+    MassProperties(double density) {
+        this.density = density;
+    }
+
+    public double getDensity() {
+        return density;
+    }
+
+    void setDensity(double density) {
+        this.density = density;
+        if (volume > 0) applyShape();
+    }
+
+    /**
+     * @param volume volume of the shape in m³
+     * @param unitIxx principal moment of inertia about the body x-axis divided by the mass
+     */
+    void setShape(double volume, double unitIxx, double unitIyy, double unitIzz) {
+        this.volume = volume;
+        this.unitIxx = unitIxx;
+        this.unitIyy = unitIyy;
+        this.unitIzz = unitIzz;
+        applyShape();
+    }
+
+    private void applyShape() {
+        mass = volume * density;
+        ixx = mass * unitIxx;
+        iyy = mass * unitIyy;
+        izz = mass * unitIzz;
+        dirty = true;
+    }
+
+    void setMass(double mass) {
+        this.mass = mass;
+        dirty = true;
+    }
+
+    void setInertia(double ixx, double iyy, double izz) {
+        this.ixx = ixx;
+        this.iyy = iyy;
+        this.izz = izz;
+        dirty = true;
+    }
+
+    /**
+     * @param centerOfMass center of mass in model coordinates
+     * @param principalAxes rotation from the principal axes (body axes) to the model axes
+     */
+    void setPrincipalFrame(Vector3dc centerOfMass, Quaterniondc principalAxes) {
+        this.centerOfMass.set(centerOfMass);
+        this.principalAxes.set(principalAxes).normalize();
+    }
+
+    public Vector3dc getCenterOfMass() {
+        return centerOfMass;
+    }
+
+    public Quaterniondc getPrincipalAxes() {
+        return principalAxes;
+    }
+
+    /** Whether the model origin and axes differ from the body frame. */
+    public boolean hasModelOffset() {
+        return centerOfMass.x != 0 || centerOfMass.y != 0 || centerOfMass.z != 0
+            || principalAxes.x != 0 || principalAxes.y != 0 || principalAxes.z != 0;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public double getMass() {
+        return mass;
+    }
+
+    public double getIxx() {
+        return ixx;
+    }
+
+    public double getIyy() {
+        return iyy;
+    }
+
+    public double getIzz() {
+        return izz;
+    }
+
+    public double getInverseMass() {
+        if (dirty) recompute();
+        return inverseMass;
+    }
+
+    public double getInverseIxx() {
+        if (dirty) recompute();
+        return inverseIxx;
+    }
+
+    public double getInverseIyy() {
+        if (dirty) recompute();
+        return inverseIyy;
+    }
+
+    public double getInverseIzz() {
+        if (dirty) recompute();
+        return inverseIzz;
+    }
+
+    /**
+     * Inverse inertia tensor in inertial coordinates, I_world⁻¹ = R I_local⁻¹ Rᵀ, for the given orientation.
+     */
+    public Matrix3d getWorldInverseInertia(Quaterniondc orientation, Matrix3d dest) {
+        return rotateInverseInertia(dest.set(orientation));
+    }
+
+    /**
+     * {@link #getWorldInverseInertia(Quaterniondc, Matrix3d)} for the unit quaternion {@code (qx, qy, qz, qw)}.
+     */
+    public Matrix3d getWorldInverseInertia(double qx, double qy, double qz, double qw, Matrix3d dest) {
+        double xx = qx * qx, yy = qy * qy, zz = qz * qz;
+        double xy = qx * qy, xz = qx * qz, yz = qy * qz;
+        double wx = qw * qx, wy = qw * qy, wz = qw * qz;
+        // column by column
+        dest.set(1 - 2 * (yy + zz), 2 * (xy + wz), 2 * (xz - wy),
+            2 * (xy - wz), 1 - 2 * (xx + zz), 2 * (yz + wx),
+            2 * (xz + wy), 2 * (yz - wx), 1 - 2 * (xx + yy));
+        return rotateInverseInertia(dest);
+    }
+
+    private Matrix3d rotateInverseInertia(Matrix3d r) {
+        if (dirty) recompute();
+        double r00 = r.m00, r01 = r.m10, r02 = r.m20;
+        double r10 = r.m01, r11 = r.m11, r12 = r.m21;
+        double r20 = r.m02, r21 = r.m12, r22 = r.m22;
+
+        // column-major fields: mCR is column C, row R
+        r.m00 = r00 * r00 * inverseIxx + r01 * r01 * inverseIyy + r02 * r02 * inverseIzz;
+        r.m11 = r10 * r10 * inverseIxx + r11 * r11 * inverseIyy + r12 * r12 * inverseIzz;
+        r.m22 = r20 * r20 * inverseIxx + r21 * r21 * inverseIyy + r22 * r22 * inverseIzz;
+        r.m10 = r.m01 = r00 * r10 * inverseIxx + r01 * r11 * inverseIyy + r02 * r12 * inverseIzz;
+        r.m20 = r.m02 = r00 * r20 * inverseIxx + r01 * r21 * inverseIyy + r02 * r22 * inverseIzz;
+        r.m21 = r.m12 = r10 * r20 * inverseIxx + r11 * r21 * inverseIyy + r12 * r22 * inverseIzz;
+        return r;
+    }
+
+    private void recompute() {
+        inverseMass = mass != 0 ? 1 / mass : 0;
+        inverseIxx = ixx != 0 ? 1 / ixx : 0;
+        inverseIyy = iyy != 0 ? 1 / iyy : 0;
+        inverseIzz = izz != 0 ? 1 / izz : 0;
+        dirty = false;
+    }
+}
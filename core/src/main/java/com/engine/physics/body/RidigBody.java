@@ -4,4 +4,8 @@ public class RidigBody extends Body {
     public RidigBody(double density) {
         super(BodyType.RIGID, density);
     }
+
+    public RidigBody(double density, BodyStore store) {
+        super(BodyType.RIGID, density, store);
+    }
 }
@@ -4,4 +4,8 @@ public class SoftBody extends Body {
     public SoftBody(double density) {
         super(BodyType.SOFT, density);
     }
+
+    public SoftBody(double density, BodyStore store) {
+        super(BodyType.SOFT, density, store);
+    }
 }
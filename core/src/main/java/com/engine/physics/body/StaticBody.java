@@ -4,4 +4,8 @@ public class StaticBody extends Body {
     public StaticBody() {
         super(BodyType.STATIC, 0);
     }
+
+    public StaticBody(BodyStore store) {
+        super(BodyType.STATIC, 0, store);
+    }
 }
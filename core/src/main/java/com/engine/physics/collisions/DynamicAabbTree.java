@@ -0,0 +1,447 @@
+package com.engine.physics.collisions;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Dynamic bounding volume hierarchy of axis-aligned boxes, used as the collision broadphase and for
+ * frustum culling. Leaves store enlarged ("fat") boxes, so a proxy only has to be reinserted once its
+ * object leaves the enlarged box. Leaves are inserted next to the sibling with the lowest surface area
+ * cost and the tree is kept balanced by rotations, like the dynamic tree of Box2D.
+ * <p>
+ * Nodes are stored as parallel arrays; proxy ids are node indices and stay valid until the proxy is destroyed.
+ * Not thread-safe.
+ */
+public class DynamicAabbTree {
+    public static final int NULL = -1;
+
+    /** Result of a {@link VolumeTest}. */
+    public static final int OUTSIDE = 0, INTERSECTS = 1, INSIDE = 2;
+
+    /**
+     * Classifies a box against a query volume, e.g. a camera frustum.
+     */
+    @FunctionalInterface
+    public interface VolumeTest {
+        int classify(double minX, double minY, double minZ, double maxX, double maxY, double maxZ);
+    }
+
+    @FunctionalInterface
+    public interface PairCallback {
+        void pair(int proxyA, int proxyB);
+    }
+
+    private final double margin;
+
+    private double[] minX, minY, minZ, maxX, maxY, maxZ;
+    private int[] parent, child1, child2, height;
+    private Object[] userData;
+    private int capacity;
+    private int root = NULL;
+    private int freeList;
+    private int nodeCount = 0;
+    private int[] stack = new int[64];
+    private int[] subtreeStack = new int[64];
+
+    /**
+     * @param margin distance the leaf boxes are enlarged by on every side
+     */
+    public DynamicAabbTree(double margin) {
+        if (margin < 0) throw new IllegalArgumentException("Margin must not be negative.");
+        this.margin = margin;
+        allocate(16);
+    }
+
+    private void allocate(int newCapacity) {
+        int old = capacity;
+        minX = grow(minX, newCapacity);
+        minY = grow(minY, newCapacity);
+        minZ = grow(minZ, newCapacity);
+        maxX = grow(maxX, newCapacity);
+        maxY = grow(maxY, newCapacity);
+        maxZ = grow(maxZ, newCapacity);
+        parent = grow(parent, newCapacity);
+        child1 = grow(child1, newCapacity);
+        child2 = grow(child2, newCapacity);
+        height = grow(height, newCapacity);
+        userData = userData == null ? new Object[newCapacity] : Arrays.copyOf(userData, newCapacity);
+        capacity = newCapacity;
+
+        // thread the new nodes into the free list, linked through parent
+        for (int i = old; i < newCapacity - 1; i++) {
+            parent[i] = i + 1;
+            height[i] = -1;
+        }
+        parent[newCapacity - 1] = NULL;
+        height[newCapacity - 1] = -1;
+        freeList = old;
+    }
+
+    private static double[] grow(double[] array, int length) {
+        return array == null ? new double[length] : Arrays.copyOf(array, length);
+    }
+
+    private static int[] grow(int[] array, int length) {
+        return array == null ? new int[length] : Arrays.copyOf(array, length);
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL) allocate(capacity * 2);
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        height[node] = 0;
+        userData[node] = null;
+        nodeCount++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        userData[node] = null;
+        freeList = node;
+        nodeCount--;
+    }
+
+    /**
+     * Inserts a box.
+     * @return the proxy id
+     */
+    public int createProxy(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Object data) {
+        int proxy = allocateNode();
+        setFat(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+        userData[proxy] = data;
+        insertLeaf(proxy);
+        return proxy;
+    }
+
+    public void destroyProxy(int proxy) {
+        checkLeaf(proxy);
+        removeLeaf(proxy);
+        freeNode(proxy);
+    }
+
+    /**
+     * Updates the box of the proxy. The proxy is only reinserted if the box left its enlarged box.
+     * @return true if the proxy was reinserted
+     */
+    public boolean moveProxy(int proxy, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        checkLeaf(proxy);
+        if (this.minX[proxy] <= minX && this.minY[proxy] <= minY && this.minZ[proxy] <= minZ
+            && this.maxX[proxy] >= maxX && this.maxY[proxy] >= maxY && this.maxZ[proxy] >= maxZ) {
+            return false;
+        }
+        removeLeaf(proxy);
+        setFat(proxy, minX, minY, minZ, maxX, maxY, maxZ);
+        insertLeaf(proxy);
+        return true;
+    }
+
+    private void checkLeaf(int proxy) {
+        if (proxy < 0 || proxy >= capacity || height[proxy] != 0) {
+            throw new IllegalArgumentException("Invalid proxy " + proxy + ".");
+        }
+    }
+
+    private void setFat(int node, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX[node] = minX - margin;
+        this.minY[node] = minY - margin;
+        this.minZ[node] = minZ - margin;
+        this.maxX[node] = maxX + margin;
+        this.maxY[node] = maxY + margin;
+        this.maxZ[node] = maxZ + margin;
+    }
+
+    public Object getUserData(int proxy) {
+        return userData[proxy];
+    }
+
+    /**
+     * Reports every proxy whose enlarged box overlaps the given box.
+     */
+    public void query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, IntConsumer proxies) {
+        int top = 0;
+        if (root != NULL) stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (!overlaps(node, minX, minY, minZ, maxX, maxY, maxZ)) continue;
+            if (child1[node] == NULL) {
+                proxies.accept(node);
+            } else {
+                top = push(top, child1[node], child2[node]);
+            }
+        }
+    }
+
+    /**
+     * Reports the proxies inside or intersecting the volume. Subtrees outside the volume are skipped and
+     * subtrees fully inside are reported without testing their nodes.
+     */
+    public void query(VolumeTest test, IntConsumer proxies) {
+        int top = 0;
+        if (root != NULL) stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            int result = test.classify(minX[node], minY[node], minZ[node], maxX[node], maxY[node], maxZ[node]);
+            if (result == OUTSIDE) continue;
+            if (child1[node] == NULL) {
+                proxies.accept(node);
+            } else if (result == INSIDE) {
+                reportLeaves(node, proxies);
+            } else {
+                top = push(top, child1[node], child2[node]);
+            }
+        }
+    }
+
+    private void reportLeaves(int subtree, IntConsumer proxies) {
+        // separate stack, the query's one is still in use
+        int top = 0;
+        subtreeStack[top++] = subtree;
+        while (top > 0) {
+            int node = subtreeStack[--top];
+            if (child1[node] == NULL) {
+                proxies.accept(node);
+                continue;
+            }
+            if (top + 2 > subtreeStack.length) subtreeStack = Arrays.copyOf(subtreeStack, subtreeStack.length * 2);
+            subtreeStack[top++] = child1[node];
+            subtreeStack[top++] = child2[node];
+        }
+    }
+
+    /**
+     * Reports every pair of proxies whose enlarged boxes overlap, each pair once with {@code proxyA < proxyB}.
+     */
+    public void queryPairs(PairCallback callback) {
+        if (root == NULL) return;
+        for (int leaf = 0; leaf < capacity; leaf++) {
+            if (height[leaf] != 0) continue;
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int node = stack[--top];
+                if (node == leaf || !overlaps(node, minX[leaf], minY[leaf], minZ[leaf], maxX[leaf], maxY[leaf], maxZ[leaf])) continue;
+                if (child1[node] == NULL) {
+                    if (leaf < node) callback.pair(leaf, node);
+                } else {
+                    top = push(top, child1[node], child2[node]);
+                }
+            }
+        }
+    }
+
+    private int push(int top, int a, int b) {
+        if (top + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+        stack[top++] = a;
+        stack[top++] = b;
+        return top;
+    }
+
+    private boolean overlaps(int node, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        return this.minX[node] <= maxX && this.maxX[node] >= minX
+            && this.minY[node] <= maxY && this.maxY[node] >= minY
+            && this.minZ[node] <= maxZ && this.maxZ[node] >= minZ;
+    }
+
+    public int getProxyCount() {
+        return (nodeCount + 1) / 2;
+    }
+
+    /** Height of the tree, 0 for a single leaf and -1 if empty. */
+    public int getHeight() {
+        return root == NULL ? -1 : height[root];
+    }
+
+    /**
+     * Checks the structure from the root: parent links, heights, that every node box encloses its children's,
+     * and the proxy count.
+     * @throws IllegalStateException at the first violation
+     */
+    void validate() {
+        if (root == NULL) {
+            if (nodeCount != 0) throw new IllegalStateException("Empty tree with " + nodeCount + " nodes.");
+            return;
+        }
+        if (parent[root] != NULL) throw new IllegalStateException("The root has a parent.");
+        int nodes = 0;
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            nodes++;
+            int c1 = child1[node], c2 = child2[node];
+            if (c1 == NULL) {
+                if (c2 != NULL || height[node] != 0) throw new IllegalStateException("Malformed leaf " + node + ".");
+                continue;
+            }
+            if (parent[c1] != node || parent[c2] != node) throw new IllegalStateException("Broken parent link at " + node + ".");
+            if (height[node] != 1 + Math.max(height[c1], height[c2])) throw new IllegalStateException("Wrong height at " + node + ".");
+            for (int child : new int[] {c1, c2}) {
+                if (minX[node] > minX[child] || minY[node] > minY[child] || minZ[node] > minZ[child]
+                    || maxX[node] < maxX[child] || maxY[node] < maxY[child] || maxZ[node] < maxZ[child]) {
+                    throw new IllegalStateException("Node " + node + " does not enclose child " + child + ".");
+                }
+            }
+            top = push(top, c1, c2);
+        }
+        if (nodes != nodeCount) throw new IllegalStateException(nodes + " reachable of " + nodeCount + " nodes.");
+    }
+
+    // surface area heuristics
+
+    private double area(int node) {
+        return area(minX[node], minY[node], minZ[node], maxX[node], maxY[node], maxZ[node]);
+    }
+
+    private double unionArea(int a, int b) {
+        return area(Math.min(minX[a], minX[b]), Math.min(minY[a], minY[b]), Math.min(minZ[a], minZ[b]),
+            Math.max(maxX[a], maxX[b]), Math.max(maxY[a], maxY[b]), Math.max(maxZ[a], maxZ[b]));
+    }
+
+    private static double area(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    private void setUnion(int node, int a, int b) {
+        minX[node] = Math.min(minX[a], minX[b]);
+        minY[node] = Math.min(minY[a], minY[b]);
+        minZ[node] = Math.min(minZ[a], minZ[b]);
+        maxX[node] = Math.max(maxX[a], maxX[b]);
+        maxY[node] = Math.max(maxY[a], maxY[b]);
+        maxZ[node] = Math.max(maxZ[a], maxZ[b]);
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[root] = NULL;
+            return;
+        }
+
+        // descend towards the sibling with the lowest cost
+        int index = root;
+        while (child1[index] != NULL) {
+            int c1 = child1[index], c2 = child2[index];
+            double area = area(index);
+            double combinedArea = unionArea(index, leaf);
+            double cost = 2 * combinedArea;
+            double inheritanceCost = 2 * (combinedArea - area);
+            double cost1 = unionArea(leaf, c1) - (child1[c1] == NULL ? 0 : area(c1)) + inheritanceCost;
+            double cost2 = unionArea(leaf, c2) - (child1[c2] == NULL ? 0 : area(c2)) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) break;
+            index = cost1 < cost2 ? c1 : c2;
+        }
+
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        setUnion(newParent, leaf, sibling);
+        height[newParent] = height[sibling] + 1;
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        if (oldParent == NULL) {
+            root = newParent;
+        } else if (child1[oldParent] == sibling) {
+            child1[oldParent] = newParent;
+        } else {
+            child2[oldParent] = newParent;
+        }
+
+        refit(parent[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+
+        int p = parent[leaf];
+        int grandParent = parent[p];
+        int sibling = child1[p] == leaf ? child2[p] : child1[p];
+        freeNode(p);
+        if (grandParent == NULL) {
+            root = sibling;
+            parent[sibling] = NULL;
+            return;
+        }
+        if (child1[grandParent] == p) {
+            child1[grandParent] = sibling;
+        } else {
+            child2[grandParent] = sibling;
+        }
+        parent[sibling] = grandParent;
+        refit(grandParent);
+    }
+
+    /** Rebalances and recomputes the boxes and heights from the node up to the root. */
+    private void refit(int index) {
+        while (index != NULL) {
+            index = balance(index);
+            int c1 = child1[index], c2 = child2[index];
+            height[index] = 1 + Math.max(height[c1], height[c2]);
+            setUnion(index, c1, c2);
+            index = parent[index];
+        }
+    }
+
+    /**
+     * Rotates the higher child of {@code a} up if the heights of its children differ by more than one.
+     * @return the root of the rotated subtree
+     */
+    private int balance(int a) {
+        if (child1[a] == NULL || height[a] < 2) return a;
+
+        int b = child1[a];
+        int c = child2[a];
+        int difference = height[c] - height[b];
+        if (difference > 1) return rotateUp(a, c, b, false);
+        if (difference < -1) return rotateUp(a, b, c, true);
+        return a;
+    }
+
+    /**
+     * Moves {@code up} into the place of {@code a}; {@code a} keeps {@code other} and the lower child of {@code up}.
+     * @param upIsFirst whether {@code up} is the first child of {@code a}
+     */
+    private int rotateUp(int a, int up, int other, boolean upIsFirst) {
+        int f = child1[up];
+        int g = child2[up];
+
+        child1[up] = a;
+        parent[up] = parent[a];
+        parent[a] = up;
+        int p = parent[up];
+        if (p == NULL) {
+            root = up;
+        } else if (child1[p] == a) {
+            child1[p] = up;
+        } else {
+            child2[p] = up;
+        }
+
+        int keep = height[f] > height[g] ? f : g;
+        int move = keep == f ? g : f;
+        child2[up] = keep;
+        if (upIsFirst) {
+            child1[a] = move;
+        } else {
+            child2[a] = move;
+        }
+        parent[move] = a;
+
+        setUnion(a, other, move);
+        setUnion(up, a, keep);
+        height[a] = 1 + Math.max(height[other], height[move]);
+        height[up] = 1 + Math.max(height[a], height[keep]);
+        return up;
+    }
+}
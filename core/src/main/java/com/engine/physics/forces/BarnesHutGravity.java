@@ -0,0 +1,578 @@
+package com.engine.physics.forces;
+
+import com.engine.config.Constants;
+import com.engine.physics.body.BodyStore;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Mutual gravitation of all bodies in O(n log n) with a Barnes–Hut octree.
+ * <p>
+ * Each step the bodies are sorted along a Morton curve and the octree is built from the sorted keys,
+ * storing the mass, center of mass and optionally the traceless quadrupole moment of every cell. A cell of
+ * edge length s seen from the distance d is used as a whole if s / d &lt; θ, otherwise it is opened.
+ * All stages run in parallel on the common pool: the keys, a radix sort of the keys, the tree below the
+ * second level (the subtrees are counted first, then built into disjoint node ranges) and the force evaluation.
+ * Tasks and scratch space are reused, so a step does not allocate once the buffers have grown.
+ * {@link DirectGravity} computes the same forces exactly and serves as reference for the accuracy of θ.
+ */
+public class BarnesHutGravity implements ForceGenerator {
+    private static final int MAX_LEVELS = 14;          // tree depth = bits per axis of the Morton code
+    private static final int MIN_INDEX_BITS = 21;      // body index packed below the Morton code
+    private static final int KEY_BITS = 63;
+    private static final int SPLIT_LEVEL = 2;          // subtrees below this level are built in parallel
+    private static final int PARALLEL_GRAIN = 256;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    private static final int KEYS = 0, COUNT_DIGITS = 1, SCATTER = 2, GATHER = 3, COUNT_NODES = 4, BUILD = 5, EVALUATE = 6;
+
+    private final double gravitationalConstant;
+    private final double thetaSquared;
+    private final double softeningSquared;
+    private final boolean quadrupole;
+    private final int leafCapacity;
+    private final Chunk[] chunks;
+
+    // state of the current step, read by the chunks
+    private BodyStore store;
+    private int from;
+    private int levels, indexBits;
+    private double minX, minY, minZ, rootSize, scale;
+    private long[] radixSource, radixTarget;
+    private int radixShift;
+
+    // bodies of the current step in Morton order
+    private long[] keys = new long[0];
+    private long[] sortBuffer = new long[0];
+    private int[] order = new int[0];
+    private double[] sx = new double[0], sy = new double[0], sz = new double[0], sm = new double[0];
+
+    // subtrees below SPLIT_LEVEL
+    private final int[] subtreeStart = new int[1 << 3 * SPLIT_LEVEL], subtreeEnd = new int[1 << 3 * SPLIT_LEVEL];
+    private final int[] subtreeNodes = new int[1 << 3 * SPLIT_LEVEL], subtreeRoot = new int[1 << 3 * SPLIT_LEVEL];
+    private final long[] subtreeCell = new long[1 << 3 * SPLIT_LEVEL];
+    private int subtrees;
+
+    // octree nodes, children are linked through firstChild / nextSibling
+    private int nodeCount = 0;
+    private int[] firstChild = new int[0], nextSibling = new int[0], bodyStart = new int[0], bodyEnd = new int[0];
+    private double[] size = new double[0], mass = new double[0];
+    private double[] comX = new double[0], comY = new double[0], comZ = new double[0];
+    private double[] qxx = new double[0], qyy = new double[0], qzz = new double[0];
+    private double[] qxy = new double[0], qxz = new double[0], qyz = new double[0];
+
+    /**
+     * Newtonian gravity with G = {@link Constants#GRAVITATIONAL_CONSTANT}, monopole cells and 8 bodies per leaf.
+     */
+    public BarnesHutGravity(double theta, double softening) {
+        this(Constants.GRAVITATIONAL_CONSTANT, theta, softening, false, 8);
+    }
+
+    /**
+     * @param theta opening angle, 0 degenerates to the exact sum, larger values trade accuracy for speed
+     * @param softening Plummer softening length ε in m, keeps close encounters finite
+     * @param quadrupole also use the quadrupole moment of accepted cells
+     * @param leafCapacity maximal number of bodies in a leaf cell
+     */
+    public BarnesHutGravity(double gravitationalConstant, double theta, double softening, boolean quadrupole, int leafCapacity) {
+        if (theta < 0) throw new IllegalArgumentException("The opening angle must not be negative.");
+        if (leafCapacity < 1) throw new IllegalArgumentException("A leaf has to hold at least one body.");
+        this.gravitationalConstant = gravitationalConstant;
+        this.thetaSquared = theta * theta;
+        this.softeningSquared = softening * softening;
+        this.quadrupole = quadrupole;
+        this.leafCapacity = leafCapacity;
+        this.chunks = new Chunk[4 * ForkJoinPool.getCommonPoolParallelism()];
+        for (int i = 0; i < chunks.length; i++) chunks[i] = new Chunk();
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Depth of the tree of the last step: {@value #MAX_LEVELS}, less if there are so many bodies that their
+     * index needs more than {@value #MIN_INDEX_BITS} bits of the 63-bit sort key.
+     */
+    public int getLevels() {
+        return levels;
+    }
+
+    @Override
+    public void apply(BodyStore store, int from, int to) {
+        int n = to - from;
+        if (n < 2) return;
+
+        this.store = store;
+        this.from = from;
+        indexBits = Math.max(MIN_INDEX_BITS, 32 - Integer.numberOfLeadingZeros(n - 1));
+        levels = Math.min(MAX_LEVELS, (KEY_BITS - indexBits) / 3);
+        sortAlongMortonCurve(n);
+        buildTree(n);
+        run(EVALUATE, n, PARALLEL_GRAIN);
+        this.store = null;
+    }
+
+    // Sorting
+
+    private void sortAlongMortonCurve(int n) {
+        ensureBodyCapacity(n);
+        double[] px = store.px, py = store.py, pz = store.pz;
+
+        double lowX = Double.POSITIVE_INFINITY, lowY = Double.POSITIVE_INFINITY, lowZ = Double.POSITIVE_INFINITY;
+        double highX = Double.NEGATIVE_INFINITY, highY = Double.NEGATIVE_INFINITY, highZ = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < from + n; i++) {
+            lowX = Math.min(lowX, px[i]); highX = Math.max(highX, px[i]);
+            lowY = Math.min(lowY, py[i]); highY = Math.max(highY, py[i]);
+            lowZ = Math.min(lowZ, pz[i]); highZ = Math.max(highZ, pz[i]);
+        }
+        minX = lowX; minY = lowY; minZ = lowZ;
+        rootSize = Math.max(Math.max(highX - lowX, highY - lowY), Math.max(highZ - lowZ, 1e-9));
+        scale = (1 << levels) / rootSize;
+
+        run(KEYS, n, PARALLEL_GRAIN);
+        radixSort(n);
+        run(GATHER, n, PARALLEL_GRAIN);
+    }
+
+    private void computeKeys(int start, int end) {
+        double[] px = store.px, py = store.py, pz = store.pz;
+        long cells = 1L << levels;
+        for (int k = start; k < end; k++) {
+            int i = from + k;
+            long x = cell((px[i] - minX) * scale, cells);
+            long y = cell((py[i] - minY) * scale, cells);
+            long z = cell((pz[i] - minZ) * scale, cells);
+            long morton = spread(x) << 2 | spread(y) << 1 | spread(z);
+            keys[k] = morton << indexBits | k;
+        }
+    }
+
+    private static long cell(double coordinate, long cells) {
+        return Math.max(0, Math.min((long) coordinate, cells - 1));
+    }
+
+    /** Spreads the lower 21 bits of v so that there are two zero bits between each of them. */
+    private static long spread(long v) {
+        v &= 0x1fffffL;
+        v = (v | v << 32) & 0x1f00000000ffffL;
+        v = (v | v << 16) & 0x1f0000ff0000ffL;
+        v = (v | v << 8) & 0x100f00f00f00f00fL;
+        v = (v | v << 4) & 0x10c30c30c30c30c3L;
+        v = (v | v << 2) & 0x1249249249249249L;
+        return v;
+    }
+
+    /**
+     * Stable LSD radix sort of the keys, {@value #RADIX_BITS} bits per pass: every chunk counts the digits
+     * of its range, the counts become scatter offsets ordered by digit and chunk, then every chunk scatters
+     * its range.
+     */
+    private void radixSort(int n) {
+        int bits = 3 * levels + indexBits;
+        radixSource = keys;
+        radixTarget = sortBuffer;
+        for (radixShift = 0; radixShift < bits; radixShift += RADIX_BITS) {
+            int count = run(COUNT_DIGITS, n, PARALLEL_GRAIN);
+            int offset = 0;
+            for (int d = 0; d < RADIX; d++) {
+                for (int c = 0; c < count; c++) {
+                    int digits = chunks[c].digits[d];
+                    chunks[c].digits[d] = offset;
+                    offset += digits;
+                }
+            }
+            run(SCATTER, n, PARALLEL_GRAIN);
+            long[] swap = radixSource;
+            radixSource = radixTarget;
+            radixTarget = swap;
+        }
+        keys = radixSource;
+        sortBuffer = radixTarget;
+        radixSource = radixTarget = null;
+    }
+
+    private void countDigits(int start, int end, int[] digits) {
+        Arrays.fill(digits, 0);
+        long[] source = radixSource;
+        for (int k = start; k < end; k++) digits[(int) (source[k] >>> radixShift) & (RADIX - 1)]++;
+    }
+
+    private void scatter(int start, int end, int[] offsets) {
+        long[] source = radixSource, target = radixTarget;
+        for (int k = start; k < end; k++) {
+            long key = source[k];
+            target[offsets[(int) (key >>> radixShift) & (RADIX - 1)]++] = key;
+        }
+    }
+
+    private void gather(int start, int end) {
+        double[] px = store.px, py = store.py, pz = store.pz, bodyMass = store.mass;
+        long indexMask = (1L << indexBits) - 1;
+        for (int k = start; k < end; k++) {
+            int i = from + (int) (keys[k] & indexMask);
+            order[k] = i;
+            sx[k] = px[i];
+            sy[k] = py[i];
+            sz[k] = pz[i];
+            sm[k] = bodyMass[i];
+        }
+    }
+
+    // Tree construction
+
+    /**
+     * Few bodies are built in one pass. Otherwise the sorted keys are split into the cells of
+     * {@link #SPLIT_LEVEL}; their subtrees are counted and built in parallel, each into its own node range
+     * behind the nodes of the upper levels, which are linked afterwards.
+     */
+    private void buildTree(int n) {
+        if (n <= 4 * PARALLEL_GRAIN || levels <= SPLIT_LEVEL) {
+            int total = countNodes(0, n, 0);
+            ensureNodeCapacity(total);
+            Chunk chunk = chunks[0];
+            chunk.cursor = 0;
+            build(0, n, 0, rootSize, chunk);
+            nodeCount = total;
+            return;
+        }
+
+        int shift = indexBits + 3 * (levels - SPLIT_LEVEL);
+        subtrees = 0;
+        for (int s = 0; s < n; ) {
+            long cell = keys[s] >>> shift;
+            int e = upperBound(cell, shift, s, n);
+            subtreeCell[subtrees] = cell;
+            subtreeStart[subtrees] = s;
+            subtreeEnd[subtrees] = e;
+            subtrees++;
+            s = e;
+        }
+
+        // root and one node per occupied cell of level 1 first
+        int top = 1;
+        for (int j = 0; j < subtrees; j++) {
+            if (j == 0 || subtreeCell[j] >>> 3 != subtreeCell[j - 1] >>> 3) top++;
+        }
+        run(COUNT_NODES, subtrees, 1);
+        int total = top;
+        for (int j = 0; j < subtrees; j++) {
+            subtreeRoot[j] = total;
+            total += subtreeNodes[j];
+        }
+        ensureNodeCapacity(total);
+        run(BUILD, subtrees, 1);
+
+        int root = 0;
+        initNode(root, 0, n, rootSize);
+        int node = root, previousUpper = -1, previous = -1;
+        for (int j = 0; j < subtrees; j++) {
+            if (j == 0 || subtreeCell[j] >>> 3 != subtreeCell[j - 1] >>> 3) {
+                if (previousUpper >= 0) combineMoments(previousUpper);
+                node++;
+                initNode(node, subtreeStart[j], subtreeStart[j], rootSize * .5);
+                if (previousUpper < 0) firstChild[root] = node;
+                else nextSibling[previousUpper] = node;
+                previousUpper = node;
+                previous = -1;
+            }
+            bodyEnd[node] = subtreeEnd[j];
+            if (previous < 0) firstChild[node] = subtreeRoot[j];
+            else nextSibling[previous] = subtreeRoot[j];
+            previous = subtreeRoot[j];
+        }
+        combineMoments(previousUpper);
+        combineMoments(root);
+        nodeCount = total;
+    }
+
+    /** First index in [start, end) whose key has a prefix above {@code cell}. */
+    private int upperBound(long cell, int shift, int start, int end) {
+        int low = start, high = end;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] >>> shift <= cell) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /** Number of nodes {@link #build} creates for the bodies. */
+    private int countNodes(int start, int end, int level) {
+        if (end - start <= leafCapacity || level == levels) return 1;
+        int shift = indexBits + 3 * (levels - 1 - level);
+        int count = 1;
+        int s = start;
+        while (s < end) {
+            long octant = (keys[s] >>> shift) & 7;
+            int e = s + 1;
+            while (e < end && ((keys[e] >>> shift) & 7) == octant) e++;
+            count += countNodes(s, e, level + 1);
+            s = e;
+        }
+        return count;
+    }
+
+    /**
+     * Builds the cell holding the sorted bodies [start, end), which all share the Morton prefix of {@code level},
+     * into the nodes from {@code chunk.cursor} on.
+     */
+    private int build(int start, int end, int level, double cellSize, Chunk chunk) {
+        int node = chunk.cursor++;
+        initNode(node, start, end, cellSize);
+
+        if (end - start <= leafCapacity || level == levels) {
+            leafMoments(node, start, end);
+            return node;
+        }
+
+        int shift = indexBits + 3 * (levels - 1 - level);
+        int previous = -1;
+        int s = start;
+        while (s < end) {
+            long octant = (keys[s] >>> shift) & 7;
+            int e = s + 1;
+            while (e < end && ((keys[e] >>> shift) & 7) == octant) e++;
+
+            int child = build(s, e, level + 1, cellSize * .5, chunk);
+            if (previous < 0) firstChild[node] = child;
+            else nextSibling[previous] = child;
+            previous = child;
+            s = e;
+        }
+        combineMoments(node);
+        return node;
+    }
+
+    private void initNode(int node, int start, int end, double cellSize) {
+        firstChild[node] = -1;
+        nextSibling[node] = -1;
+        size[node] = cellSize;
+        bodyStart[node] = start;
+        bodyEnd[node] = end;
+    }
+
+    private void leafMoments(int node, int start, int end) {
+        double m = 0, x = 0, y = 0, z = 0;
+        for (int k = start; k < end; k++) {
+            m += sm[k];
+            x += sm[k] * sx[k];
+            y += sm[k] * sy[k];
+            z += sm[k] * sz[k];
+        }
+        double inverse = m != 0 ? 1 / m : 0;
+        mass[node] = m;
+        comX[node] = x * inverse;
+        comY[node] = y * inverse;
+        comZ[node] = z * inverse;
+        if (!quadrupole) return;
+
+        clearQuadrupole(node);
+        for (int k = start; k < end; k++) {
+            addQuadrupole(node, sm[k], sx[k] - comX[node], sy[k] - comY[node], sz[k] - comZ[node]);
+        }
+    }
+
+    private void combineMoments(int node) {
+        double m = 0, x = 0, y = 0, z = 0;
+        for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+            m += mass[c];
+            x += mass[c] * comX[c];
+            y += mass[c] * comY[c];
+            z += mass[c] * comZ[c];
+        }
+        double inverse = m != 0 ? 1 / m : 0;
+        mass[node] = m;
+        comX[node] = x * inverse;
+        comY[node] = y * inverse;
+        comZ[node] = z * inverse;
+        if (!quadrupole) return;
+
+        // parallel axis theorem for the traceless quadrupole
+        clearQuadrupole(node);
+        for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+            qxx[node] += qxx[c]; qyy[node] += qyy[c]; qzz[node] += qzz[c];
+            qxy[node] += qxy[c]; qxz[node] += qxz[c]; qyz[node] += qyz[c];
+            addQuadrupole(node, mass[c], comX[c] - comX[node], comY[c] - comY[node], comZ[c] - comZ[node]);
+        }
+    }
+
+    private void clearQuadrupole(int node) {
+        qxx[node] = 0; qyy[node] = 0; qzz[node] = 0;
+        qxy[node] = 0; qxz[node] = 0; qyz[node] = 0;
+    }
+
+    /** Q += m (3 d dᵀ - |d|² E) */
+    private void addQuadrupole(int node, double m, double dx, double dy, double dz) {
+        double d2 = dx * dx + dy * dy + dz * dz;
+        qxx[node] += m * (3 * dx * dx - d2);
+        qyy[node] += m * (3 * dy * dy - d2);
+        qzz[node] += m * (3 * dz * dz - d2);
+        qxy[node] += m * 3 * dx * dy;
+        qxz[node] += m * 3 * dx * dz;
+        qyz[node] += m * 3 * dy * dz;
+    }
+
+    // Force evaluation
+
+    private void evaluate(int start, int end, Chunk chunk) {
+        double[] fx = store.fx, fy = store.fy, fz = store.fz;
+        double[] acceleration = chunk.acceleration;
+        for (int k = start; k < end; k++) {
+            accelerationAt(k, chunk.stack, acceleration);
+            int i = order[k];
+            double m = sm[k] * gravitationalConstant;
+            fx[i] += m * acceleration[0];
+            fy[i] += m * acceleration[1];
+            fz[i] += m * acceleration[2];
+        }
+    }
+
+    /**
+     * Acceleration / G at the sorted body {@code self}, excluding its own contribution.
+     */
+    private void accelerationAt(int self, int[] stack, double[] out) {
+        double x = sx[self], y = sy[self], z = sz[self];
+        double ax = 0, ay = 0, az = 0;
+        int sp = 0;
+        stack[sp++] = 0;
+
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (mass[node] == 0) continue;
+
+            double dx = comX[node] - x, dy = comY[node] - y, dz = comZ[node] - z;
+            double d2 = dx * dx + dy * dy + dz * dz;
+            boolean containsSelf = self >= bodyStart[node] && self < bodyEnd[node];
+
+            if (firstChild[node] < 0 && (containsSelf || size[node] * size[node] >= thetaSquared * d2)) {
+                for (int k = bodyStart[node]; k < bodyEnd[node]; k++) {
+                    if (k == self) continue;
+                    double bx = sx[k] - x, by = sy[k] - y, bz = sz[k] - z;
+                    double r2 = bx * bx + by * by + bz * bz + softeningSquared;
+                    double s = sm[k] / (r2 * Math.sqrt(r2));
+                    ax += bx * s;
+                    ay += by * s;
+                    az += bz * s;
+                }
+            } else if (!containsSelf && size[node] * size[node] < thetaSquared * d2) {
+                double r2 = d2 + softeningSquared;
+                double r = Math.sqrt(r2);
+                double s = mass[node] / (r2 * r);
+                ax += dx * s;
+                ay += dy * s;
+                az += dz * s;
+
+                if (quadrupole) {
+                    // r = x - com = -d: a += Q r / r⁵ - 5/2 (rᵀ Q r) r / r⁷
+                    double rx = -dx, ry = -dy, rz = -dz;
+                    double qrx = qxx[node] * rx + qxy[node] * ry + qxz[node] * rz;
+                    double qry = qxy[node] * rx + qyy[node] * ry + qyz[node] * rz;
+                    double qrz = qxz[node] * rx + qyz[node] * ry + qzz[node] * rz;
+                    double rQr = rx * qrx + ry * qry + rz * qrz;
+                    double r5 = r2 * r2 * r;
+                    double t = 2.5 * rQr / (r5 * r2);
+                    ax += qrx / r5 - t * rx;
+                    ay += qry / r5 - t * ry;
+                    az += qrz / r5 - t * rz;
+                }
+            } else {
+                for (int c = firstChild[node]; c >= 0; c = nextSibling[c]) {
+                    stack[sp++] = c;
+                }
+            }
+        }
+        out[0] = ax;
+        out[1] = ay;
+        out[2] = az;
+    }
+
+    // Storage
+
+    private void ensureNodeCapacity(int capacity) {
+        if (mass.length >= capacity) return;
+        capacity = Math.max(capacity, mass.length * 2);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        bodyStart = Arrays.copyOf(bodyStart, capacity);
+        bodyEnd = Arrays.copyOf(bodyEnd, capacity);
+        size = Arrays.copyOf(size, capacity);
+        mass = Arrays.copyOf(mass, capacity);
+        comX = Arrays.copyOf(comX, capacity);
+        comY = Arrays.copyOf(comY, capacity);
+        comZ = Arrays.copyOf(comZ, capacity);
+        qxx = Arrays.copyOf(qxx, capacity);
+        qyy = Arrays.copyOf(qyy, capacity);
+        qzz = Arrays.copyOf(qzz, capacity);
+        qxy = Arrays.copyOf(qxy, capacity);
+        qxz = Arrays.copyOf(qxz, capacity);
+        qyz = Arrays.copyOf(qyz, capacity);
+    }
+
+    private void ensureBodyCapacity(int n) {
+        if (keys.length >= n) return;
+        keys = new long[n];
+        sortBuffer = new long[n];
+        order = new int[n];
+        sx = new double[n];
+        sy = new double[n];
+        sz = new double[n];
+        sm = new double[n];
+    }
+
+    // Parallelism
+
+    /**
+     * Runs the stage over [0, n), split into equal ranges of at least {@code grain} items, one per chunk.
+     * The same n and grain always give the same ranges.
+     * @return the number of chunks used
+     */
+    private int run(int stage, int n, int grain) {
+        int count = Math.max(1, Math.min(chunks.length, n / grain));
+        for (int c = 0; c < count; c++) {
+            Chunk chunk = chunks[c];
+            chunk.reinitialize();
+            chunk.stage = stage;
+            chunk.start = (int) ((long) n * c / count);
+            chunk.end = (int) ((long) n * (c + 1) / count);
+        }
+        for (int c = 1; c < count; c++) chunks[c].fork();
+        chunks[0].invoke();
+        for (int c = 1; c < count; c++) chunks[c].join();
+        return count;
+    }
+
+    /**
+     * Reusable task with the scratch space of one worker.
+     */
+    private final class Chunk extends RecursiveAction {
+        final int[] stack = new int[8 * (MAX_LEVELS + 1)];
+        final double[] acceleration = new double[3];
+        final int[] digits = new int[RADIX];
+        int stage, start, end, cursor;
+
+        @Override
+        protected void compute() {
+            switch (stage) {
+                case KEYS -> computeKeys(start, end);
+                case COUNT_DIGITS -> countDigits(start, end, digits);
+                case SCATTER -> scatter(start, end, digits);
+                case GATHER -> gather(start, end);
+                case COUNT_NODES -> {
+                    for (int j = start; j < end; j++) subtreeNodes[j] = countNodes(subtreeStart[j], subtreeEnd[j], SPLIT_LEVEL);
+                }
+                case BUILD -> {
+                    for (int j = start; j < end; j++) {
+                        cursor = subtreeRoot[j];
+                        build(subtreeStart[j], subtreeEnd[j], SPLIT_LEVEL, rootSize / (1 << SPLIT_LEVEL), this);
+                    }
+                }
+                case EVALUATE -> evaluate(start, end, this);
+                default -> throw new IllegalStateException("Unknown stage " + stage + ".");
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.engine.physics.forces;
+
+import com.engine.config.Constants;
+import com.engine.physics.body.BodyStore;
+
+/**
+ * Exact pairwise gravitation of all bodies, O(n²). Reference for {@link BarnesHutGravity}.
+ */
+public class DirectGravity implements ForceGenerator {
+    private final double gravitationalConstant;
+    private final double softeningSquared;
+
+    public DirectGravity(double softening) {
+        this(Constants.GRAVITATIONAL_CONSTANT, softening);
+    }
+
+    public DirectGravity(double gravitationalConstant, double softening) {
+        this.gravitationalConstant = gravitationalConstant;
+        this.softeningSquared = softening * softening;
+    }
+
+    @Override
+    public void apply(BodyStore store, int from, int to) {
+        double[] px = store.px, py = store.py, pz = store.pz;
+        double[] fx = store.fx, fy = store.fy, fz = store.fz;
+        double[] mass = store.mass;
+
+        for (int i = from; i < to; i++) {
+            for (int j = i + 1; j < to; j++) {
+                double dx = px[j] - px[i], dy = py[j] - py[i], dz = pz[j] - pz[i];
+                double r2 = dx * dx + dy * dy + dz * dz + softeningSquared;
+                double s = gravitationalConstant * mass[i] * mass[j] / (r2 * Math.sqrt(r2));
+                fx[i] += dx * s; fy[i] += dy * s; fz[i] += dz * s;
+                fx[j] -= dx * s; fy[j] -= dy * s; fz[j] -= dz * s;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.engine.physics.forces;
+
+import com.engine.physics.body.BodyStore;
+
+/**
+ * Linear drag proportional to the mass, F = -k_v * m * v, and angular drag τ = -k_ω * I * ω.
+ * The coefficients are rates in 1/s.
+ */
+public class Drag implements ForceGenerator {
+    private final double linear;
+    private final double angular;
+
+    public Drag(double linear, double angular) {
+        this.linear = linear;
+        this.angular = angular;
+    }
+
+    @Override
+    public void apply(BodyStore store, int from, int to) {
+        double[] fx = store.fx, fy = store.fy, fz = store.fz;
+        double[] vx = store.vx, vy = store.vy, vz = store.vz;
+        double[] mass = store.mass;
+        for (int i = from; i < to; i++) {
+            double k = linear * mass[i];
+            fx[i] -= k * vx[i];
+            fy[i] -= k * vy[i];
+            fz[i] -= k * vz[i];
+        }
+
+        if (angular == 0) return;
+        double[] tx = store.tx, ty = store.ty, tz = store.tz;
+        double[] wx = store.wx, wy = store.wy, wz = store.wz;
+        double[] ixx = store.ixx, iyy = store.iyy, izz = store.izz;
+        for (int i = from; i < to; i++) {
+            tx[i] -= angular * ixx[i] * wx[i];
+            ty[i] -= angular * iyy[i] * wy[i];
+            tz[i] -= angular * izz[i] * wz[i];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.engine.physics.forces;
+
+import com.engine.config.Constants;
+import com.engine.core.entity.AABB;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.body.FluidCoefficients;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Buoyancy and quadratic drag of the bodies inside {@link FluidVolume}s, using the per-shape
+ * {@link FluidCoefficients}. The submerged part of a body is approximated by the slice of its
+ * world bounding box below the fluid surface. Bodies whose bounding box does not touch the union
+ * of all volumes are rejected with a single box test.
+ */
+public class FluidForces implements ForceGenerator {
+    private final List<FluidVolume> volumes = new ArrayList<>();
+    private final double dragCoefficient;
+
+    // union of all volumes
+    private double minX, minY, minZ, maxX, maxY, maxZ;
+
+    public FluidForces() {
+        this(Constants.DRAG_COEFFICIENT);
+    }
+
+    public FluidForces(double dragCoefficient) {
+        this.dragCoefficient = dragCoefficient;
+        updateBounds();
+    }
+
+    public void add(FluidVolume volume) {
+        volumes.add(volume);
+        updateBounds();
+    }
+
+    public boolean remove(FluidVolume volume) {
+        boolean removed = volumes.remove(volume);
+        updateBounds();
+        return removed;
+    }
+
+    public List<FluidVolume> getVolumes() {
+        return volumes;
+    }
+
+    private void updateBounds() {
+        minX = minY = minZ = Double.POSITIVE_INFINITY;
+        maxX = maxY = maxZ = Double.NEGATIVE_INFINITY;
+        for (FluidVolume volume : volumes) {
+            AABB b = volume.bounds();
+            minX = Math.min(minX, b.min().x); maxX = Math.max(maxX, b.max().x);
+            minY = Math.min(minY, b.min().y); maxY = Math.max(maxY, b.max().y);
+            minZ = Math.min(minZ, b.min().z); maxZ = Math.max(maxZ, b.max().z);
+        }
+    }
+
+    @Override
+    public void apply(BodyStore store, int from, int to) {
+        if (volumes.isEmpty()) return;
+
+        for (int i = from; i < to; i++) {
+            double x = store.qx[i], y = store.qy[i], z = store.qz[i], w = store.qw[i];
+            // rotation matrix R_IK of the orientation
+            double r00 = 1 - 2 * (y * y + z * z), r01 = 2 * (x * y - z * w), r02 = 2 * (x * z + y * w);
+            double r10 = 2 * (x * y + z * w), r11 = 1 - 2 * (x * x + z * z), r12 = 2 * (y * z - x * w);
+            double r20 = 2 * (x * z - y * w), r21 = 2 * (y * z + x * w), r22 = 1 - 2 * (x * x + y * y);
+
+            double hx = store.hx[i], hy = store.hy[i], hz = store.hz[i];
+            double ex = Math.abs(r00) * hx + Math.abs(r01) * hy + Math.abs(r02) * hz;
+            double ey = Math.abs(r10) * hx + Math.abs(r11) * hy + Math.abs(r12) * hz;
+            double ez = Math.abs(r20) * hx + Math.abs(r21) * hy + Math.abs(r22) * hz;
+            double px = store.px[i], py = store.py[i], pz = store.pz[i];
+
+            if (px + ex < minX || px - ex > maxX || py + ey < minY || py - ey > maxY
+                || pz + ez < minZ || pz - ez > maxZ) continue;
+
+            FluidCoefficients coefficients = store.body(i).getFluidCoefficients();
+            for (int v = 0; v < volumes.size(); v++) {
+                FluidVolume volume = volumes.get(v);
+                AABB b = volume.bounds();
+                if (px + ex < b.min().x || px - ex > b.max().x || pz + ez < b.min().z || pz - ez > b.max().z) continue;
+
+                double bottom = Math.max(py - ey, b.min().y);
+                double top = Math.min(py + ey, b.max().y);
+                if (top <= bottom || ey <= 0) continue;
+                double fraction = (top - bottom) / (2 * ey);
+                double rho = volume.density();
+
+                // buoyancy: weight of the displaced fluid
+                store.fy[i] += rho * coefficients.volume() * fraction * Constants.EARTH_ACC;
+
+                // drag: F = -½ ρ c_w A(v̂) |v| v, relative to the flow
+                double vx = store.vx[i] - volume.flowVelocity().x;
+                double vy = store.vy[i] - volume.flowVelocity().y;
+                double vz = store.vz[i] - volume.flowVelocity().z;
+                double speed = Math.sqrt(vx * vx + vy * vy + vz * vz);
+                if (speed > 1e-9) {
+                    // flow direction in body coordinates, R^T v̂
+                    double dx = (r00 * vx + r10 * vy + r20 * vz) / speed;
+                    double dy = (r01 * vx + r11 * vy + r21 * vz) / speed;
+                    double dz = (r02 * vx + r12 * vy + r22 * vz) / speed;
+                    double area = coefficients.projectedArea().x * Math.abs(dx)
+                        + coefficients.projectedArea().y * Math.abs(dy)
+                        + coefficients.projectedArea().z * Math.abs(dz);
+                    double k = .5 * rho * dragCoefficient * area * speed * fraction;
+                    store.fx[i] -= k * vx;
+                    store.fy[i] -= k * vy;
+                    store.fz[i] -= k * vz;
+                }
+
+                // rotational drag about the body axes
+                double wx = store.wx[i], wy = store.wy[i], wz = store.wz[i];
+                double c = .5 * rho * dragCoefficient * fraction;
+                store.tx[i] -= c * coefficients.angularDragMoment().x * wx * Math.abs(wx);
+                store.ty[i] -= c * coefficients.angularDragMoment().y * wy * Math.abs(wy);
+                store.tz[i] -= c * coefficients.angularDragMoment().z * wz * Math.abs(wz);
+            }
+        }
+    }
+}
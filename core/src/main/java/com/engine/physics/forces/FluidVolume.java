@@ -0,0 +1,22 @@
+package com.engine.physics.forces;
+
+import com.engine.config.Constants;
+import com.engine.core.entity.AABB;
+import org.joml.Vector3d;
+
+/**
+ * Axis-aligned region filled with a fluid. The fluid surface is the top face of the bounds.
+ *
+ * @param density density ρ of the fluid in kg / m³
+ * @param flowVelocity velocity of the fluid in m/s, e.g. wind
+ */
+public record FluidVolume(AABB bounds, double density, Vector3d flowVelocity) {
+
+    public static FluidVolume water(AABB bounds) {
+        return new FluidVolume(bounds, Constants.WATER_DENSITY, new Vector3d());
+    }
+
+    public static FluidVolume air(AABB bounds, Vector3d wind) {
+        return new FluidVolume(bounds, Constants.AIR_DENSITY, wind);
+    }
+}
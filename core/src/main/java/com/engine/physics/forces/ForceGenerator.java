@@ -0,0 +1,18 @@
+package com.engine.physics.forces;
+
+import com.engine.physics.body.BodyStore;
+
+/**
+ * Source of forces and torques, registered once in a {@link ForceRegistry} and evaluated every step.
+ * Implementations accumulate into the force ({@code fx, fy, fz}, inertial frame) and torque
+ * ({@code tx, ty, tz}, body frame) arrays of the store and must not allocate.
+ */
+@FunctionalInterface
+public interface ForceGenerator {
+
+    /**
+     * @param from first body index (inclusive)
+     * @param to last body index (exclusive)
+     */
+    void apply(BodyStore store, int from, int to);
+}
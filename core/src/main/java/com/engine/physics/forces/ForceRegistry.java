@@ -0,0 +1,32 @@
+package com.engine.physics.forces;
+
+import com.engine.physics.body.BodyStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ForceRegistry {
+    private final List<ForceGenerator> generators = new ArrayList<>();
+
+    public void add(ForceGenerator generator) {
+        generators.add(generator);
+    }
+
+    public boolean remove(ForceGenerator generator) {
+        return generators.remove(generator);
+    }
+
+    public List<ForceGenerator> getGenerators() {
+        return generators;
+    }
+
+    public void apply(BodyStore store) {
+        apply(store, 0, store.size());
+    }
+
+    public void apply(BodyStore store, int from, int to) {
+        for (int i = 0; i < generators.size(); i++) {
+            generators.get(i).apply(store, from, to);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.engine.physics.forces;
+
+import com.engine.physics.body.BodyStore;
+import org.joml.Vector3d;
+import org.joml.Vector3dc;
+
+/**
+ * Uniform gravitational field, F = m * g.
+ */
+public class Gravity implements ForceGenerator {
+    private final Vector3d acceleration;
+
+    public Gravity(Vector3dc acceleration) {
+        this.acceleration = new Vector3d(acceleration);
+    }
+
+    public Vector3d getAcceleration() {
+        return new Vector3d(acceleration);
+    }
+
+    public void setAcceleration(Vector3dc acceleration) {
+        this.acceleration.set(acceleration);
+    }
+
+    @Override
+    public void apply(BodyStore store, int from, int to) {
+        double gx = acceleration.x, gy = acceleration.y, gz = acceleration.z;
+        double[] fx = store.fx, fy = store.fy, fz = store.fz;
+        double[] mass = store.mass;
+
+        for (int i = from; i < to; i++) {
+            double m = mass[i];
+            fx[i] += m * gx;
+            fy[i] += m * gy;
+            fz[i] += m * gz;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.engine.physics.forces;
+
+import com.engine.config.Constants;
+import com.engine.physics.body.BodyStore;
+import org.joml.Vector3d;
+import org.joml.Vector3dc;
+
+/**
+ * Inverse-square attraction towards a fixed point, F = μ * m * d / |d|³ with d = center - x.
+ * Distances below {@code minDistance} are clamped to keep the force finite.
+ */
+public class PointAttractor implements ForceGenerator {
+    private final Vector3d center;
+    private final double strength;
+    private final double minDistanceSquared;
+
+    /**
+     * @param strength gravitational parameter μ in m³/s²
+     */
+    public PointAttractor(Vector3dc center, double strength, double minDistance) {
+        this.center = new Vector3d(center);
+        this.strength = strength;
+        this.minDistanceSquared = minDistance * minDistance;
+    }
+
+    /**
+     * Attractor with the gravitational pull of a point mass, μ = G * mass.
+     */
+    public static PointAttractor ofMass(Vector3dc center, double mass, double minDistance) {
+        return new PointAttractor(center, Constants.GRAVITATIONAL_CONSTANT * mass, minDistance);
+    }
+
+    public Vector3d getCenter() {
+        return new Vector3d(center);
+    }
+
+    public void setCenter(Vector3dc center) {
+        this.center.set(center);
+    }
+
+    @Override
+    public void apply(BodyStore store, int from, int to) {
+        double cx = center.x, cy = center.y, cz = center.z;
+        double[] px = store.px, py = store.py, pz = store.pz;
+        double[] fx = store.fx, fy = store.fy, fz = store.fz;
+        double[] mass = store.mass;
+
+        for (int i = from; i < to; i++) {
+            double dx = cx - px[i], dy = cy - py[i], dz = cz - pz[i];
+            double r2 = Math.max(dx * dx + dy * dy + dz * dz, minDistanceSquared);
+            double s = strength * mass[i] / (r2 * Math.sqrt(r2));
+            fx[i] += dx * s;
+            fy[i] += dy * s;
+            fz[i] += dz * s;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.engine.physics.forces;
+
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStore;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.joml.Vector3dc;
+
+/**
+ * Damped spring pulling a point fixed on a body towards an anchor in inertial coordinates.
+ * Used for the mouse grip. The damping is given relative to critical damping, c = 2ζ√(k m).
+ */
+public class Spring implements ForceGenerator {
+    private final double stiffness;
+    private final double dampingRatio;
+    private Body body = null;
+    private final Vector3d localPoint = new Vector3d();
+    private final Vector3d anchor = new Vector3d();
+
+    // scratch objects, the generator is only evaluated on the physics thread
+    private final Quaterniond orientation = new Quaterniond();
+    private final Vector3d arm = new Vector3d();
+    private final Vector3d pointVelocity = new Vector3d();
+    private final Vector3d force = new Vector3d();
+    private final Vector3d torque = new Vector3d();
+
+    public Spring(double stiffness, double dampingRatio) {
+        this.stiffness = stiffness;
+        this.dampingRatio = dampingRatio;
+    }
+
+    /**
+     * @param localPoint point of application in body coordinates
+     * @param anchor rest position of that point in inertial coordinates
+     */
+    public void attach(Body body, Vector3dc localPoint, Vector3dc anchor) {
+        this.body = body;
+        this.localPoint.set(localPoint);
+        this.anchor.set(anchor);
+    }
+
+    public void setAnchor(Vector3dc anchor) {
+        this.anchor.set(anchor);
+    }
+
+    public void detach() {
+        this.body = null;
+    }
+
+    public Body getBody() {
+        return body;
+    }
+
+    @Override
+    public void apply(BodyStore store, int from, int to) {
+        if (body == null || body.getStore() != store) return;
+        int i = body.getIndex();
+        if (i < from || i >= to) return;
+
+        orientation.set(store.qx[i], store.qy[i], store.qz[i], store.qw[i]);
+        orientation.transform(localPoint, arm); // lever arm in inertial coords
+
+        // velocity of the point: v + ω × r, with ω rotated into the inertial frame
+        orientation.transform(store.wx[i], store.wy[i], store.wz[i], pointVelocity);
+        pointVelocity.cross(arm).add(store.vx[i], store.vy[i], store.vz[i]);
+
+        double c = 2 * dampingRatio * Math.sqrt(stiffness * store.mass[i]);
+        force.set(anchor).sub(store.px[i], store.py[i], store.pz[i]).sub(arm).mul(stiffness);
+        force.fma(-c, pointVelocity);
+
+        store.fx[i] += force.x;
+        store.fy[i] += force.y;
+        store.fz[i] += force.z;
+
+        arm.cross(force, torque);
+        orientation.transformInverse(torque);
+        store.tx[i] += torque.x;
+        store.ty[i] += torque.y;
+        store.tz[i] += torque.z;
+    }
+}
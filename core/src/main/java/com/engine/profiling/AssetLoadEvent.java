@@ -0,0 +1,38 @@
+package com.engine.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading of a mesh asset, from the mesh cache or by parsing the OBJ file. Loads are rare, so all of
+ * them are recorded, with the stack trace of the caller.
+ */
+@Name("com.engine.AssetLoad")
+@Label("Asset Load")
+@Category({"Engine", "Assets"})
+@Description("Mesh asset loaded by the ObjectLoader")
+public class AssetLoadEvent extends Event {
+    @Label("Path")
+    public String path;
+
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Triangles")
+    public int triangles;
+
+    @Label("Collision Triangles")
+    @Description("Triangles of the collision mesh, fewer than the render mesh if it was decimated")
+    public int collisionTriangles;
+
+    @Label("Chunks")
+    public int chunks;
+
+    @Label("Vertex Data")
+    @DataAmount
+    public long vertexBytes;
+}
@@ -0,0 +1,29 @@
+package com.engine.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A step with far more contacts than the steps before it, e.g. a stack collapsing or bodies spawned
+ * into each other. Usually explains a slow {@link WorldStepEvent} right next to it.
+ */
+@Name("com.engine.ContactSpike")
+@Label("Contact Spike")
+@Category({"Engine", "Physics"})
+@Description("Number of contacts of a step jumped above the running average")
+@StackTrace(false)
+public class ContactSpikeEvent extends Event {
+    @Label("Step")
+    public long step;
+
+    @Label("Contacts")
+    public int contacts;
+
+    @Label("Average Contacts")
+    @Description("Exponential moving average of the contacts of the previous steps")
+    public double averageContacts;
+}
@@ -0,0 +1,49 @@
+package com.engine.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * One {@link StepProfiler.Phase} of a world step, nested in the {@link WorldStepEvent}.
+ */
+@Name("com.engine.PhysicsPhase")
+@Label("Physics Phase")
+@Category({"Engine", "Physics"})
+@Description("Stage of a simulation step")
+@Threshold("1 ms")
+@StackTrace(false)
+public class PhaseEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(PhaseEvent.class);
+    /** Returned while no recording has the event enabled, so steps do not allocate an event per phase. */
+    private static final PhaseEvent DISABLED = new PhaseEvent();
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Step")
+    public long step;
+
+    /** Creates the event and starts its timing, or returns a shared no-op event if the event type is disabled. */
+    public static PhaseEvent start() {
+        if (!TYPE.isEnabled()) return DISABLED;
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Ends the timing and commits the event if it is enabled and above the threshold. */
+    public void end(StepProfiler.Phase phase, long step) {
+        if (this == DISABLED) return;
+        end();
+        if (!shouldCommit()) return;
+        this.phase = phase.name();
+        this.step = step;
+        commit();
+    }
+}
@@ -0,0 +1,108 @@
+package com.engine.profiling;
+
+import java.util.Locale;
+
+/**
+ * Timings of the stages of a simulation step and the frame, and per-step counters, each kept in a
+ * {@link Histogram}. The physics thread records the step phases and {@link Phase#PUBLISH}, the render
+ * thread {@link Phase#SYNC} and {@link Phase#RENDER_SUBMIT}; both never block. Owners hold a nullable reference and skip all timing while it is null, so profiling
+ * costs nothing when disabled.
+ */
+public class StepProfiler {
+
+    public enum Phase {
+        /** the whole {@code PhysicsWorld.step} */
+        STEP,
+        /** forces and integration */
+        INTEGRATE,
+        /** updating the bounding volumes and finding the overlapping pairs */
+        BROADPHASE,
+        /** contacts of the overlapping pairs */
+        NARROWPHASE,
+        /** resolving the contacts */
+        SOLVE,
+        /** writing the body states to the {@code BodyStateBuffer} at the end of the step */
+        STATE_BUFFER,
+        /** capturing and publishing the transform snapshot on the physics thread */
+        PUBLISH,
+        /** interpolating the snapshot into the model instances on the render thread */
+        SYNC,
+        /** culling and drawing the entities on the render thread */
+        RENDER_SUBMIT
+    }
+
+    public enum Counter {
+        /** overlapping pairs found by the broadphase */
+        PAIRS,
+        /** pairs in contact */
+        CONTACTS,
+        /** dynamic bodies integrated */
+        ACTIVE_BODIES
+    }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final Counter[] COUNTERS = Counter.values();
+
+    private final Histogram[] phases = new Histogram[PHASES.length];
+    private final Histogram[] counters = new Histogram[COUNTERS.length];
+
+    public StepProfiler() {
+        for (int i = 0; i < phases.length; i++) phases[i] = new Histogram();
+        for (int i = 0; i < counters.length; i++) counters[i] = new Histogram();
+    }
+
+    public void record(Phase phase, long nanos) {
+        phases[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * Records the time since {@code start} for the phase.
+     * @return the current {@link System#nanoTime()}, the start of the next phase
+     */
+    public long lap(Phase phase, long start) {
+        long now = System.nanoTime();
+        phases[phase.ordinal()].record(now - start);
+        return now;
+    }
+
+    public void count(Counter counter, long value) {
+        counters[counter.ordinal()].record(value);
+    }
+
+    /** Durations of the phase in nanoseconds. */
+    public Histogram get(Phase phase) {
+        return phases[phase.ordinal()];
+    }
+
+    /** Per-step values of the counter. */
+    public Histogram get(Counter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    public void reset() {
+        for (Histogram histogram : phases) histogram.reset();
+        for (Histogram histogram : counters) histogram.reset();
+    }
+
+    /**
+     * Table of count, p50, p99 and max of all phases in microseconds and of all counters.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "%-14s %10s %10s %10s %10s%n", "phase [us]", "count", "p50", "p99", "max"));
+        for (Phase phase : PHASES) {
+            Histogram h = get(phase);
+            if (h.getCount() == 0) continue;
+            report.append(String.format(Locale.ROOT, "%-14s %10d %10.1f %10.1f %10.1f%n", phase, h.getCount(),
+                h.getPercentile(50) * 1e-3, h.getPercentile(99) * 1e-3, h.getMax() * 1e-3));
+        }
+        report.append(String.format(Locale.ROOT, "%-14s %10s %10s %10s %10s%n", "per step", "mean", "p50", "p99", "max"));
+        for (Counter counter : COUNTERS) {
+            Histogram h = get(counter);
+            if (h.getCount() == 0) continue;
+            report.append(String.format(Locale.ROOT, "%-14s %10.1f %10d %10d %10d%n", counter, h.getMean(),
+                h.getPercentile(50), h.getPercentile(99), h.getMax()));
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package com.engine.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * One {@code PhysicsWorld.step}. Steps within the threshold are not recorded, so a recording shows the
+ * hitches and not the thousands of regular steps per second.
+ */
+@Name("com.engine.WorldStep")
+@Label("World Step")
+@Category({"Engine", "Physics"})
+@Description("Simulation step of the physics world")
+@Threshold("2 ms")
+@StackTrace(false)
+public class WorldStepEvent extends Event {
+    private static final EventType TYPE = EventType.getEventType(WorldStepEvent.class);
+
+    @Label("Step")
+    public long step;
+
+    @Label("Time Step")
+    @Timespan(Timespan.NANOSECONDS)
+    public long timeStep;
+
+    @Label("Active Bodies")
+    public int bodies;
+
+    @Label("Pairs")
+    @Description("Overlapping pairs found by the broadphase")
+    public int pairs;
+
+    @Label("Contacts")
+    public int contacts;
+
+    /** Creates the event and starts its timing, or returns null if no recording has the event type enabled. */
+    public static WorldStepEvent start() {
+        if (!TYPE.isEnabled()) return null;
+        WorldStepEvent event = new WorldStepEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -6,12 +6,10 @@ import com.badlogic.gdx.graphics.PerspectiveCamera;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
 import com.engine.core.entity.Entity;
-import com.engine.physics.body.Body;
-import org.joml.Matrix3d;
+import com.engine.physics.TransformSnapshot;
+import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
-import java.util.List;
-
 public class CameraUtils {
     private CameraUtils(){}
 
@@ -57,27 +55,36 @@ public class CameraUtils {
         }
     }
 
-    public static Entity mouseInput(PerspectiveCamera camera, List<Entity> entities) {
+    /**
+     * Picks the closest entity under the mouse cursor, using the transforms of the last published snapshot.
+     * The hit point (body coordinates) and ray distance are stored on the picked body.
+     */
+    public static Entity mouseInput(PerspectiveCamera camera, TransformSnapshot snapshot) {
         Ray ray = camera.getPickRay(Gdx.input.getX(), Gdx.input.getY());
 
         Vector3d inertialCoords = new Vector3d(ray.origin.x, ray.origin.y, ray.origin.z);
         Vector3d inertialDirection = new Vector3d(ray.direction.x, ray.direction.y, ray.direction.z);
+        Vector3d position = new Vector3d();
+        Quaterniond orientation = new Quaterniond();
+        Vector3d halfExtent = new Vector3d();
 
         Entity best = null;
         double bestT = Double.POSITIVE_INFINITY;
 
-        for (Entity entity : entities) {
-            Vector3d position = entity.body().getPosition(); // in inertial coords
-            Matrix3d rotationMatrix = entity.body().getRotation(); // from RIK from K-System to I-System
+        for (int i = 0; i < snapshot.size(); i++) {
+            Entity entity = snapshot.entity(i);
+            snapshot.position(i, position); // in inertial coords
+            snapshot.orientation(i, orientation); // from K-System to I-System
+            snapshot.halfExtent(i, halfExtent);
 
-            Vector3d localCoords = new Vector3d(inertialCoords).sub(position, new Vector3d());
-            rotationMatrix.transpose().transform(localCoords);
+            Vector3d localCoords = new Vector3d(inertialCoords).sub(position);
+            orientation.transformInverse(localCoords);
 
             Vector3d localDirection = new Vector3d(inertialDirection);
-            rotationMatrix.transpose().transform(localDirection);
+            orientation.transformInverse(localDirection);
 
             double[] outT = new double[1];
-            if (intersectLocalRayAABB(localCoords, localDirection, entity.body().getHalfExtent(), outT)) {
+            if (intersectLocalRayAABB(localCoords, localDirection, halfExtent, outT)) {
                 double t = outT[0];
                 if (t < bestT) {
                     bestT = t;
@@ -123,37 +130,15 @@ public class CameraUtils {
         return true;
     }
 
-    public static Vector3d applyMouseGrip(PerspectiveCamera camera, Body body) {
-        // Zielpunkt entlang des aktuellen Rays
+    /**
+     * Target point of the mouse grip: the point at distance {@code dist} along the current pick ray.
+     */
+    public static Vector3d gripTarget(PerspectiveCamera camera, double dist) {
         Ray ray = camera.getPickRay(Gdx.input.getX(), Gdx.input.getY());
-        double dist = body.getTHit();
-        Vector3d targetWorld = new Vector3d(
+        return new Vector3d(
             ray.origin.x + ray.direction.x * dist,
             ray.origin.y + ray.direction.y * dist,
             ray.origin.z + ray.direction.z * dist
         );
-
-        Matrix3d R = body.getRotation();
-        Vector3d x = body.getPosition();
-        Vector3d localHit = body.getMouseHit(); // zuvor beim Pick gesetzt
-
-        // Aufpunkt im Welt-Raum
-        Vector3d pWorld = new Matrix3d(R).transform(localHit, new Vector3d()).add(x);
-
-        // Federkraft
-        double k = 2000000;
-        double c = 2 * Math.sqrt(k * body.getMass());
-        Vector3d dir = new Vector3d(targetWorld).sub(pWorld);
-        Vector3d F = new Vector3d(dir).mul(k);
-
-        // Geschwindigkeit am Punkt
-        Vector3d vCom = body.getVelocity();
-        Vector3d omegaWorld = new Matrix3d(R).transform(body.getAngularVelocity(), new Vector3d());
-        Vector3d r = new Vector3d(pWorld).sub(x);
-        Vector3d vPoint = new Vector3d(vCom).add(omegaWorld.cross(r, new Vector3d()));
-
-        F.fma(-c, vPoint);
-
-        return F;
     }
 }
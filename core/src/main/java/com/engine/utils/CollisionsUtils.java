@@ -12,19 +12,6 @@ import java.util.Objects;
 public class CollisionsUtils {
     private CollisionsUtils() {}
 
-    public static void checkCollision(List<Entity> entities) {
-        for (int i = 0; i < entities.size(); i++) {
-            for (int j = i + 1; j < entities.size(); j++) {
-                Entity entityA = entities.get(i);
-                Entity entityB = entities.get(j);
-                Contact c = computeContact(entityA, entityB);
-
-                if (Objects.isNull(c)) continue;
-                PhysicsUtils.resolveContact(c);
-            }
-        }
-    }
-
     public static Contact computeContact(Entity entityA, Entity entityB) {
         Vector3d centerA = entityA.body().getPosition();
         Vector3d centerB = entityB.body().getPosition();
@@ -7,13 +7,19 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.engine.config.Constants;
 import com.engine.core.MeshData;
 import com.engine.core.MeshDataD;
+import com.engine.core.MeshProperties;
 import com.engine.core.entity.AABB;
 import com.engine.core.entity.Entity;
 import com.engine.physics.body.Body;
+import com.engine.physics.body.FluidCoefficients;
 import com.engine.physics.body.StaticBody;
 import com.engine.physics.collisions.Contact;
+import com.engine.utils.math.LinearAlgebra;
+import org.joml.Matrix3d;
+import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static com.engine.utils.CollisionsUtils.resolveFloorCollision;
@@ -22,8 +28,25 @@ public class PhysicsUtils {
     private PhysicsUtils() {}
 
     public static void calcInertia(MeshData mesh, Body body) {
-        MeshDataD meshD = toMeshDataD(mesh);
-        double[] positions = meshD.positions();
+        applyMeshProperties(calcMeshProperties(mesh), body);
+    }
+
+    /**
+     * Bounding box, exact volume, center of mass and inertia per unit mass of the closed triangle mesh
+     * (divergence theorem, Mirtich/Eberly), and its fluid coefficients. The inertia is diagonalized into
+     * principal moments and axes. Open meshes, those with an edge that is not shared by exactly two
+     * triangles after welding equal positions, and meshes without enclosed volume fall back to their bounding box.
+     */
+    public static MeshProperties calcMeshProperties(MeshData mesh) {
+        return calcMeshProperties(mesh, mesh);
+    }
+
+    /**
+     * Mesh properties of {@code mesh} whose volume, center of mass and inertia are taken from {@code massMesh},
+     * e.g. a low-poly proxy of it. The bounds, half extents and fluid coefficients stay those of {@code mesh}.
+     */
+    public static MeshProperties calcMeshProperties(MeshData mesh, MeshData massMesh) {
+        float[] positions = mesh.positions();
 
         double minX = Double.POSITIVE_INFINITY;
         double maxX = Double.NEGATIVE_INFINITY;
@@ -43,27 +66,250 @@ public class PhysicsUtils {
             if (z < minZ) minZ = z;
             if (z > maxZ) maxZ = z;
         }
+        AABB bounds = new AABB(new Vector3d(minX, minY, minZ), new Vector3d(maxX, maxY, maxZ));
+
+        double width = maxX - minX;
+        double height = maxY - minY;
+        double depth = maxZ - minZ;
+        double boxVolume = width * height * depth;
+
+        double[] integrals = volumeIntegrals(massMesh.positions(), massMesh.indices());
+        double volume = integrals[0];
+        if (!(Math.abs(volume) > 1e-9 * boxVolume) || !isClosed(massMesh)) {
+            double A = (1 / 12d) * (height * height + depth * depth);
+            double B = (1 / 12d) * (width * width + depth * depth);
+            double C = (1 / 12d) * (width * width + height * height);
+            Vector3d center = new Vector3d(minX + maxX, minY + maxY, minZ + maxZ).mul(.5);
+            Vector3d halfExtent = new Vector3d(width, height, depth).mul(.5);
+            return new MeshProperties(bounds, boxVolume, center, new Vector3d(A, B, C), new Quaterniond(), halfExtent,
+                calcFluidCoefficients(mesh));
+        }
+        // inward facing triangles
+        if (volume < 0) {
+            for (int i = 0; i < integrals.length; i++) integrals[i] = -integrals[i];
+            volume = -volume;
+        }
 
-        double hx = (maxX - minX) * .5;
-        double hy = (maxY - minY) * .5;
-        double hz = (maxZ - minZ) * .5;
-        body.setHalfExtent(hx, hy, hz);
+        Vector3d centroid = new Vector3d(integrals[1], integrals[2], integrals[3]).div(volume);
+        double cx = centroid.x, cy = centroid.y, cz = centroid.z;
+        // inertia tensor per unit mass about the centroid
+        double ixx = (integrals[5] + integrals[6]) / volume - (cy * cy + cz * cz);
+        double iyy = (integrals[4] + integrals[6]) / volume - (cz * cz + cx * cx);
+        double izz = (integrals[4] + integrals[5]) / volume - (cx * cx + cy * cy);
+        double ixy = -(integrals[7] / volume - cx * cy);
+        double iyz = -(integrals[8] / volume - cy * cz);
+        double ixz = -(integrals[9] / volume - cz * cx);
+        Matrix3d tensor = new Matrix3d(
+            ixx, ixy, ixz,
+            ixy, iyy, iyz,
+            ixz, iyz, izz
+        );
+
+        Vector3d principal = new Vector3d(ixx, iyy, izz);
+        Quaterniond principalAxes = new Quaterniond();
+        // keep the model axes if they already are principal, e.g. for symmetric shapes with equal moments
+        double offDiagonal = Math.abs(ixy) + Math.abs(iyz) + Math.abs(ixz);
+        if (offDiagonal > 1e-9 * (ixx + iyy + izz)) {
+            Matrix3d axes = new Matrix3d();
+            LinearAlgebra.symmetricEigen(tensor, principal, axes);
+            principalAxes.setFromNormalized(axes);
+        }
+
+        return new MeshProperties(bounds, volume, centroid, principal, principalAxes,
+            principalHalfExtent(positions, centroid, principalAxes, new Vector3d()),
+            calcFluidCoefficients(mesh));
+    }
+
+    /**
+     * Whether every edge of the mesh is shared by exactly two triangles. Vertices at the same position are
+     * welded first, so seams of the render mesh (split texture coordinates or normals) do not open it.
+     */
+    public static boolean isClosed(MeshData mesh) {
+        float[] p = mesh.positions();
+        int[] indices = mesh.indices();
+        int vertexCount = p.length / 3;
+        if (indices.length < 12) return false;
+
+        // weld: sort the vertices by position and map each to the first of its run
+        Integer[] order = new Integer[vertexCount];
+        for (int i = 0; i < vertexCount; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> {
+            int c = Float.compare(p[3 * a], p[3 * b]);
+            if (c == 0) c = Float.compare(p[3 * a + 1], p[3 * b + 1]);
+            if (c == 0) c = Float.compare(p[3 * a + 2], p[3 * b + 2]);
+            return c;
+        });
+        int[] weld = new int[vertexCount];
+        for (int k = 0; k < vertexCount; k++) {
+            int i = order[k];
+            boolean same = k > 0 && p[3 * i] == p[3 * order[k - 1]] && p[3 * i + 1] == p[3 * order[k - 1] + 1]
+                && p[3 * i + 2] == p[3 * order[k - 1] + 2];
+            weld[i] = same ? weld[order[k - 1]] : i;
+        }
+
+        // undirected edges as (min, max) keys, every run of equal keys must have length 2
+        long[] edges = new long[indices.length];
+        int count = 0;
+        for (int t = 0; t + 2 < indices.length; t += 3) {
+            for (int k = 0; k < 3; k++) {
+                int a = weld[indices[t + k]], b = weld[indices[t + (k + 1) % 3]];
+                if (a == b) continue;
+                edges[count++] = (long) Math.min(a, b) << 32 | Math.max(a, b);
+            }
+        }
+        Arrays.sort(edges, 0, count);
+        for (int s = 0; s < count; ) {
+            int e = s + 1;
+            while (e < count && edges[e] == edges[s]) e++;
+            if (e - s != 2) return false;
+            s = e;
+        }
+        return count > 0;
+    }
+
+    /**
+     * Surface integrals of the mesh that equal the volume integrals of
+     * 1, x, y, z, x², y², z², xy, yz, zx over the enclosed solid.
+     */
+    private static double[] volumeIntegrals(float[] p, int[] indices) {
+        double[] integrals = new double[10];
+        double[] f = new double[6];
+        for (int t = 0; t + 2 < indices.length; t += 3) {
+            int i0 = 3 * indices[t], i1 = 3 * indices[t + 1], i2 = 3 * indices[t + 2];
+            double x0 = p[i0], y0 = p[i0 + 1], z0 = p[i0 + 2];
+            double x1 = p[i1], y1 = p[i1 + 1], z1 = p[i1 + 2];
+            double x2 = p[i2], y2 = p[i2 + 1], z2 = p[i2 + 2];
+
+            // normal (not normalized) of the triangle
+            double a1 = x1 - x0, b1 = y1 - y0, c1 = z1 - z0;
+            double a2 = x2 - x0, b2 = y2 - y0, c2 = z2 - z0;
+            double d0 = b1 * c2 - b2 * c1;
+            double d1 = a2 * c1 - a1 * c2;
+            double d2 = a1 * b2 - a2 * b1;
+
+            subexpressions(x0, x1, x2, f);
+            double f1x = f[0], f2x = f[1], f3x = f[2];
+            double g0x = f[3], g1x = f[4], g2x = f[5];
+            subexpressions(y0, y1, y2, f);
+            double f2y = f[1], f3y = f[2];
+            double g0y = f[3], g1y = f[4], g2y = f[5];
+            subexpressions(z0, z1, z2, f);
+            double f2z = f[1], f3z = f[2];
+            double g0z = f[3], g1z = f[4], g2z = f[5];
+
+            integrals[0] += d0 * f1x;
+            integrals[1] += d0 * f2x;
+            integrals[2] += d1 * f2y;
+            integrals[3] += d2 * f2z;
+            integrals[4] += d0 * f3x;
+            integrals[5] += d1 * f3y;
+            integrals[6] += d2 * f3z;
+            integrals[7] += d0 * (y0 * g0x + y1 * g1x + y2 * g2x);
+            integrals[8] += d1 * (z0 * g0y + z1 * g1y + z2 * g2y);
+            integrals[9] += d2 * (x0 * g0z + x1 * g1z + x2 * g2z);
+        }
+        integrals[0] /= 6;
+        for (int i = 1; i <= 3; i++) integrals[i] /= 24;
+        for (int i = 4; i <= 6; i++) integrals[i] /= 60;
+        for (int i = 7; i <= 9; i++) integrals[i] /= 120;
+        return integrals;
+    }
 
-        if (!body.isDynamic()) return;
+    private static void subexpressions(double w0, double w1, double w2, double[] f) {
+        double temp0 = w0 + w1;
+        double temp1 = w0 * w0;
+        double temp2 = temp1 + w1 * temp0;
+        f[0] = temp0 + w2;
+        f[1] = temp2 + w2 * f[0];
+        f[2] = w0 * temp1 + w1 * temp2 + w2 * f[1];
+        f[3] = f[1] + w0 * (f[0] + w0);
+        f[4] = f[1] + w1 * (f[0] + w1);
+        f[5] = f[1] + w2 * (f[0] + w2);
+    }
 
-        double width = 2 *  hx;
-        double height = 2 * hy;
-        double depth = 2 *  hz;
-        double volume = width * height * depth;
-        body.setMass(volume * body.getDensity());
+    /**
+     * Sets the half extent, fluid coefficients and, for dynamic bodies, the mass properties of the body.
+     * Static bodies keep the model frame. Dynamic bodies simulate in the principal frame of the mesh: the body
+     * position is the {@link MeshProperties#centroid()}, the body axes are the principal axes, and the half
+     * extent is the {@link MeshProperties#principalHalfExtent()}.
+     */
+    public static void applyMeshProperties(MeshProperties properties, Body body) {
+        body.setFluidCoefficients(properties.fluidCoefficients());
+        if (!body.isDynamic()) {
+            body.setHalfExtent(properties.halfExtent());
+            return;
+        }
 
-        double mass = body.getMass();
-        double A = (1 / 12d) * mass * (height * height + depth * depth);
-        double B = (1 / 12d) * mass * (width * width + depth * depth);
-        double C = (1 / 12d) * mass * (width * width + height * height);
+        Vector3d unitInertia = properties.unitInertia();
+        body.setShape(properties.volume(), unitInertia.x, unitInertia.y, unitInertia.z);
+        body.setPrincipalFrame(properties.centroid(), properties.principalAxes());
+        body.setHalfExtent(properties.principalHalfExtent());
+    }
 
-        body.getLocalInertia().zero();
-        body.setLocalInertia(A, B, C);
+    /**
+     * Largest distance of the positions from the centroid along each principal axis.
+     */
+    public static Vector3d principalHalfExtent(float[] positions, Vector3d centroid, Quaterniond principalAxes, Vector3d dest) {
+        Quaterniond toPrincipal = principalAxes.conjugate(new Quaterniond());
+        Vector3d v = new Vector3d();
+        dest.zero();
+        for (int i = 0; i < positions.length; i += 3) {
+            v.set(positions[i], positions[i + 1], positions[i + 2]).sub(centroid);
+            toPrincipal.transform(v);
+            dest.set(Math.max(dest.x, Math.abs(v.x)), Math.max(dest.y, Math.abs(v.y)), Math.max(dest.z, Math.abs(v.z)));
+        }
+        return dest;
+    }
+
+    /**
+     * Fluid coefficients of a closed triangle mesh from its face areas and normals, relative to the
+     * center of its bounding box.
+     */
+    public static FluidCoefficients calcFluidCoefficients(MeshData mesh) {
+        float[] p = mesh.positions();
+        int[] indices = mesh.indices();
+
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < p.length; i += 3) {
+            minX = Math.min(minX, p[i]); maxX = Math.max(maxX, p[i]);
+            minY = Math.min(minY, p[i + 1]); maxY = Math.max(maxY, p[i + 1]);
+            minZ = Math.min(minZ, p[i + 2]); maxZ = Math.max(maxZ, p[i + 2]);
+        }
+        Vector3d center = new Vector3d(minX + maxX, minY + maxY, minZ + maxZ).mul(.5);
+
+        Vector3d a = new Vector3d(), b = new Vector3d(), c = new Vector3d();
+        Vector3d edge = new Vector3d(), normal = new Vector3d(), centroid = new Vector3d();
+        Vector3d projectedArea = new Vector3d();
+        Vector3d angularDragMoment = new Vector3d();
+        double volume = 0;
+
+        for (int t = 0; t + 2 < indices.length; t += 3) {
+            vertex(p, indices[t], center, a);
+            vertex(p, indices[t + 1], center, b);
+            vertex(p, indices[t + 2], center, c);
+
+            volume += a.dot(b.cross(c, normal)) / 6; // divergence theorem, signed tetrahedra
+            edge.set(b).sub(a).cross(c.x - a.x, c.y - a.y, c.z - a.z, normal);
+            double doubleArea = normal.length();
+            if (doubleArea < 1e-12) continue;
+
+            double area = doubleArea * .5;
+            normal.div(doubleArea);
+            centroid.set(a).add(b).add(c).div(3);
+
+            projectedArea.x += .5 * area * Math.abs(normal.x);
+            projectedArea.y += .5 * area * Math.abs(normal.y);
+            projectedArea.z += .5 * area * Math.abs(normal.z);
+            angularDragMoment.x += .5 * area * Math.pow(centroid.y * centroid.y + centroid.z * centroid.z, 1.5);
+            angularDragMoment.y += .5 * area * Math.pow(centroid.x * centroid.x + centroid.z * centroid.z, 1.5);
+            angularDragMoment.z += .5 * area * Math.pow(centroid.x * centroid.x + centroid.y * centroid.y, 1.5);
+        }
+        return new FluidCoefficients(Math.abs(volume), projectedArea, angularDragMoment);
+    }
+
+    private static void vertex(float[] positions, int index, Vector3d center, Vector3d dest) {
+        dest.set(positions[3 * index], positions[3 * index + 1], positions[3 * index + 2]).sub(center);
     }
 
     public static MeshDataD toMeshDataD(MeshData mesh) {
@@ -150,12 +396,16 @@ public class PhysicsUtils {
         double normalRelVel = relativeVelocity.dot(n);
         if (normalRelVel > 0) return;
 
-        double jN = -(1 + Constants.restitution) * normalRelVel / (bodyA.getInverseMass() + bodyB.getInverseMass());
+        double inverseMassA = bodyA.getMassProperties().getInverseMass();
+        double inverseMassB = bodyB.getMassProperties().getInverseMass();
+        double massSum = bodyA.getMassProperties().getMass() + bodyB.getMassProperties().getMass();
+
+        double jN = -(1 + Constants.restitution) * normalRelVel / (inverseMassA + inverseMassB);
         Vector3d normalImpulse = new Vector3d(n).mul(jN);
 
-        Vector3d newAVelocity = bodyA.getVelocity().sub(new Vector3d(normalImpulse).mul(bodyA.getInverseMass()), new Vector3d());
+        Vector3d newAVelocity = bodyA.getVelocity().sub(new Vector3d(normalImpulse).mul(inverseMassA), new Vector3d());
         bodyA.setVelocity(newAVelocity);
-        Vector3d newBVelocity = bodyB.getVelocity().add(new Vector3d(normalImpulse).mul(bodyB.getInverseMass()), new Vector3d());
+        Vector3d newBVelocity = bodyB.getVelocity().add(new Vector3d(normalImpulse).mul(inverseMassB), new Vector3d());
         bodyB.setVelocity(newBVelocity);
 
         relativeVelocityA = new Vector3d(bodyA.getVelocity()
@@ -170,14 +420,14 @@ public class PhysicsUtils {
         double vTLength = tangentialVelocity.length();
         if (vTLength > 1e-5) {
             Vector3d t = tangentialVelocity.normalize(new Vector3d());
-            double jT = -vTLength * (bodyA.getMass() + bodyB.getMass());
+            double jT = -vTLength * massSum;
             double maxJT = Constants.frictionCoefficient * Math.abs(jN);
             jT = Math.max(-maxJT, Math.min(jT, maxJT));
             Vector3d impulseT = new Vector3d(t).mul(jT);
 
-            Vector3d newAFrictionVel = bodyA.getVelocity().sub(new Vector3d(impulseT).mul(bodyA.getInverseMass()), new Vector3d());
+            Vector3d newAFrictionVel = bodyA.getVelocity().sub(new Vector3d(impulseT).mul(inverseMassA), new Vector3d());
             bodyA.setVelocity(newAFrictionVel);
-            Vector3d newBFrictionVel = bodyB.getVelocity().add(new Vector3d(impulseT).mul(bodyB.getInverseMass()), new Vector3d());
+            Vector3d newBFrictionVel = bodyB.getVelocity().add(new Vector3d(impulseT).mul(inverseMassB), new Vector3d());
             bodyB.setVelocity(newBFrictionVel);
         }
 
@@ -186,14 +436,14 @@ public class PhysicsUtils {
             double percent = 0.2;   // 20% der Penetration pro Step korrigieren
             double slop    = 0.001; // kleiner Toleranzwert gegen Jitter
 
-            double corrMargin = Math.max(penetration - slop, 0) * percent * (bodyA.getMass() + bodyB.getMass());
+            double corrMargin = Math.max(penetration - slop, 0) * percent * massSum;
             Vector3d correction = new Vector3d(contact.normal()).mul(corrMargin);
 
             Vector3d newPosA = bodyA.getPosition()
-                .sub(new Vector3d(correction).mul(bodyA.getInverseMass()), new Vector3d());
+                .sub(new Vector3d(correction).mul(inverseMassA), new Vector3d());
             bodyA.setPosition(newPosA);
             Vector3d newPosB = bodyB.getPosition()
-                .add(new Vector3d(correction).mul(bodyB.getInverseMass()), new Vector3d());
+                .add(new Vector3d(correction).mul(inverseMassB), new Vector3d());
             bodyB.setPosition(newPosB);
         }
     }
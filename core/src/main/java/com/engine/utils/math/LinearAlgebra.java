@@ -2,7 +2,16 @@ package com.engine.utils.math;
 
 import com.engine.utils.math.interfaces.Function2;
 import com.engine.utils.math.interfaces.Function3;
-import org.joml.*;
+import org.joml.Matrix2d;
+import org.joml.Matrix3d;
+import org.joml.Matrix3dc;
+import org.joml.Matrix3x2d;
+import org.joml.Quaterniond;
+import org.joml.Quaterniondc;
+import org.joml.Vector2d;
+import org.joml.Vector3d;
+import org.joml.Vector3dc;
+import org.joml.Vector4d;
 import java.util.function.Function;
 
 import static com.engine.config.Constants.*;
@@ -35,6 +44,32 @@ public class LinearAlgebra {
         return inertia.invert(new Matrix3d()).transform(vec, new Vector3d());
     }
 
+    /**
+     * Same as {@link #derivative(Vector3d, Matrix3d, Vector3d)} with an already inverted inertia tensor.
+     */
+    public static Vector3d derivative(Vector3d angularVelocity, Matrix3d inertia, Matrix3d inverseInertia, Vector3d torque) {
+        Vector3d IOmega = inertia.transform(angularVelocity, new Vector3d());
+        Vector3d cross = angularVelocity.cross(IOmega, new Vector3d());
+        return inverseInertia.transform(torque.sub(cross, new Vector3d()), new Vector3d());
+    }
+
+    /**
+     * Advances the orientation q by the body angular velocity ω over the time h with the exponential map
+     * q(t + h) = q(t) * exp(h/2 * ω). Stays on the unit sphere up to round-off, so no re-orthonormalization is needed.
+     */
+    public static Quaterniond integrateOrientation(Quaterniondc orientation, Vector3dc angularVelocity, double h, Quaterniond dest) {
+        double rx = angularVelocity.x() * h;
+        double ry = angularVelocity.y() * h;
+        double rz = angularVelocity.z() * h;
+        double angle = Math.sqrt(rx * rx + ry * ry + rz * rz);
+        if (angle < 1e-12) return dest.set(orientation);
+
+        double halfAngle = angle * .5;
+        double s = Math.sin(halfAngle) / angle;
+        double dqx = rx * s, dqy = ry * s, dqz = rz * s, dqw = Math.cos(halfAngle);
+        return orientation.mul(dqx, dqy, dqz, dqw, dest).normalize();
+    }
+
     public static double partialDerivativeX(double x, double y, double z, Function3<Double, Double, Double, Double> function) {
         return (function.apply(x + h, y, z) - function.apply(x - h, y, z)) / (2 * h);
     }
@@ -405,4 +440,59 @@ public class LinearAlgebra {
             x.z, y.z, z.z
         );
     }
+
+    /**
+     * Eigen decomposition A = V diag(λ) Vᵀ of a symmetric matrix with cyclic Jacobi rotations.
+     * @param eigenvalues receives λ
+     * @param eigenvectors receives V, the eigenvectors as columns forming a right-handed basis
+     */
+    public static void symmetricEigen(Matrix3dc A, Vector3d eigenvalues, Matrix3d eigenvectors) {
+        double[][] a = {
+            {A.m00(), A.m10(), A.m20()},
+            {A.m01(), A.m11(), A.m21()},
+            {A.m02(), A.m12(), A.m22()}
+        };
+        double[][] v = {{1, 0, 0}, {0, 1, 0}, {0, 0, 1}};
+
+        for (int sweep = 0; sweep < 50; sweep++) {
+            double offDiagonal = a[0][1] * a[0][1] + a[0][2] * a[0][2] + a[1][2] * a[1][2];
+            double diagonal = a[0][0] * a[0][0] + a[1][1] * a[1][1] + a[2][2] * a[2][2];
+            if (offDiagonal <= 1e-30 * diagonal || offDiagonal == 0) break;
+
+            for (int p = 0; p < 2; p++) {
+                for (int q = p + 1; q < 3; q++) {
+                    if (a[p][q] == 0) continue;
+                    // rotation angle that zeroes a[p][q]
+                    double theta = (a[q][q] - a[p][p]) / (2 * a[p][q]);
+                    double t = Math.signum(theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+                    if (theta == 0) t = 1;
+                    double c = 1 / Math.sqrt(t * t + 1);
+                    double s = t * c;
+
+                    for (int k = 0; k < 3; k++) {
+                        double akp = a[k][p], akq = a[k][q];
+                        a[k][p] = c * akp - s * akq;
+                        a[k][q] = s * akp + c * akq;
+                    }
+                    for (int k = 0; k < 3; k++) {
+                        double apk = a[p][k], aqk = a[q][k];
+                        a[p][k] = c * apk - s * aqk;
+                        a[q][k] = s * apk + c * aqk;
+                    }
+                    for (int k = 0; k < 3; k++) {
+                        double vkp = v[k][p], vkq = v[k][q];
+                        v[k][p] = c * vkp - s * vkq;
+                        v[k][q] = s * vkp + c * vkq;
+                    }
+                }
+            }
+        }
+
+        eigenvalues.set(a[0][0], a[1][1], a[2][2]);
+        Vector3d x = new Vector3d(v[0][0], v[1][0], v[2][0]);
+        Vector3d y = new Vector3d(v[0][1], v[1][1], v[2][1]);
+        Vector3d z = new Vector3d(v[0][2], v[1][2], v[2][2]);
+        if (x.cross(y, new Vector3d()).dot(z) < 0) z.negate();
+        eigenvectors.set(x, y, z);
+    }
 }
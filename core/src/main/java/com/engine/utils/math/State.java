@@ -1,20 +1,23 @@
 package com.engine.utils.math;
 
 import org.joml.Matrix3d;
+import org.joml.Quaterniond;
 import org.joml.Vector3d;
 
 public class State {
     public Vector3d position;
     public Vector3d velocity;
-    public Matrix3d rotation;
+    public Quaterniond orientation;
     public Vector3d angularVelocity;
     public final Matrix3d localInertia;
+    public final Matrix3d inverseLocalInertia;
 
-    public State(Vector3d position, Vector3d velocity, Matrix3d rotation, Vector3d angularVelocity, Matrix3d localInertia) {
+    public State(Vector3d position, Vector3d velocity, Quaterniond orientation, Vector3d angularVelocity, Matrix3d localInertia, Matrix3d inverseLocalInertia) {
         this.position = new Vector3d(position);
         this.velocity = new Vector3d(velocity);
-        this.rotation = new Matrix3d(rotation);
+        this.orientation = new Quaterniond(orientation);
         this.angularVelocity = new Vector3d(angularVelocity);
         this.localInertia = localInertia;
+        this.inverseLocalInertia = inverseLocalInertia;
     }
 }
@@ -0,0 +1,66 @@
+package com.engine.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeshAssetTest {
+
+    @Test
+    void boundsComeFromTheRenderMeshAndMassFromTheProxy() {
+        MeshAsset asset = MeshAsset.of(new ObjParser().parse(new ByteArrayInputStream(sphereObj(96, 192))));
+        assertTrue(asset.hasCollisionProxy());
+
+        float[] positions = asset.meshData().positions();
+        float maxX = Float.NEGATIVE_INFINITY, minY = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < positions.length; i += 3) {
+            maxX = Math.max(maxX, positions[i]);
+            minY = Math.min(minY, positions[i + 1]);
+        }
+        MeshProperties properties = asset.properties();
+        assertEquals(maxX, properties.bounds().max().x, 0);
+        assertEquals(minY, properties.bounds().min().y, 0);
+        assertEquals(.5, properties.halfExtent().y, 1e-6);
+        assertEquals(.5, properties.principalHalfExtent().y, 1e-3);
+
+        // the proxy is smaller than the sphere, so its volume is a bit below 4/3 π r³
+        double sphere = 4 / 3d * Math.PI * .125;
+        assertEquals(sphere, properties.volume(), .05 * sphere);
+        assertTrue(properties.volume() < sphere);
+    }
+
+    /**
+     * OBJ text of a UV sphere of radius 0.5 with shared vertices.
+     */
+    private static byte[] sphereObj(int stacks, int slices) {
+        StringBuilder obj = new StringBuilder();
+        obj.append("v 0 0.5 0\n");
+        for (int i = 1; i < stacks; i++) {
+            double theta = Math.PI * i / stacks;
+            for (int j = 0; j < slices; j++) {
+                double phi = 2 * Math.PI * j / slices;
+                obj.append(String.format(Locale.ROOT, "v %.7f %.7f %.7f%n",
+                    .5 * Math.sin(theta) * Math.cos(phi), .5 * Math.cos(theta), .5 * Math.sin(theta) * Math.sin(phi)));
+            }
+        }
+        obj.append("v 0 -0.5 0\n");
+        int bottom = 2 + (stacks - 1) * slices;
+        for (int j = 0; j < slices; j++) {
+            int next = (j + 1) % slices;
+            obj.append("f 1 ").append(2 + next).append(' ').append(2 + j).append('\n');
+            for (int i = 0; i < stacks - 2; i++) {
+                int a = 2 + i * slices + j, b = 2 + i * slices + next, c = a + slices, d = b + slices;
+                obj.append("f ").append(a).append(' ').append(b).append(' ').append(d).append('\n');
+                obj.append("f ").append(a).append(' ').append(d).append(' ').append(c).append('\n');
+            }
+            int a = 2 + (stacks - 2) * slices + j, b = 2 + (stacks - 2) * slices + next;
+            obj.append("f ").append(a).append(' ').append(b).append(' ').append(bottom).append('\n');
+        }
+        return obj.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
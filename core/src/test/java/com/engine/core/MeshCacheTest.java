@@ -0,0 +1,92 @@
+package com.engine.core;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeshCacheTest {
+    private static final String TETRAHEDRON = """
+        v 0 0 0
+        v 1 0 0
+        v 0 1 0
+        v 0 0 1
+        f 1 3 2
+        f 1 2 4
+        f 1 4 3
+        f 2 3 4
+        """;
+
+    @TempDir
+    Path root;
+
+    private Path source(String folder) throws IOException {
+        Path directory = Files.createDirectories(root.resolve(folder));
+        return Files.writeString(directory.resolve("mesh.obj"), TETRAHEDRON, StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void writesTheCacheIntoTheCacheDirectoryOnly() throws IOException {
+        Path source = source("assets");
+        Path cacheDirectory = root.resolve("cache");
+        MeshAsset parsed = MeshCache.load(source, cacheDirectory, new ObjParser());
+
+        try (Stream<Path> files = Files.list(source.getParent())) {
+            assertEquals(1, files.count(), "nothing is written next to the source");
+        }
+        Path cache = MeshCache.cachePath(cacheDirectory, source);
+        assertTrue(Files.isRegularFile(cache));
+
+        MeshAsset cached = MeshCache.read(cache, MeshCache.contentHash(source), Files.size(source));
+        assertNotNull(cached);
+        assertEquals(parsed.vertexCount(), cached.vertexCount());
+        assertArrayEquals(parsed.meshData().indices(), cached.meshData().indices());
+    }
+
+    @Test
+    void sourcesWithTheSameNameGetTheirOwnCache() throws IOException {
+        Path cacheDirectory = root.resolve("cache");
+        assertNotEquals(MeshCache.cachePath(cacheDirectory, source("a")), MeshCache.cachePath(cacheDirectory, source("b")));
+    }
+
+    @Test
+    void cacheBuiltWithOtherProxyParametersIsStale() throws IOException {
+        Path source = source("assets");
+        Path cacheDirectory = root.resolve("cache");
+        MeshCache.load(source, cacheDirectory, new ObjParser());
+        Path cache = MeshCache.cachePath(cacheDirectory, source);
+        long hash = MeshCache.contentHash(source), size = Files.size(source);
+        assertNotNull(MeshCache.read(cache, hash, size));
+
+        byte[] original = Files.readAllBytes(cache);
+        byte[] bytes = original.clone();
+        bytes[36]++; // proxy target triangles
+        Files.write(cache, bytes);
+        assertNull(MeshCache.read(cache, hash, size));
+
+        bytes = original.clone();
+        bytes[240]++; // proxy parameter hash
+        Files.write(cache, bytes);
+        assertNull(MeshCache.read(cache, hash, size));
+    }
+
+    @Test
+    void loadsWithoutAWritableCacheDirectory() throws IOException {
+        Path source = source("assets");
+        // a file where the directory should be
+        Path blocked = Files.writeString(root.resolve("blocked"), "");
+        MeshAsset asset = MeshCache.load(source, blocked, new ObjParser());
+        assertEquals(4, asset.vertexCount());
+    }
+}
@@ -0,0 +1,115 @@
+package com.engine.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ObjParserTest {
+
+    @Test
+    void sharesVerticesWithTheSameTriple() {
+        String obj = """
+            v 0 0 0
+            v 1 0 0
+            v 0 1 0
+            v 1 1 0
+            vt 0 0
+            vt 1 1
+            vn 0 0 1
+            f 1/1/1 2/1/1 3/1/1
+            f 2/1/1 4/1/1 3/1/1
+            f 1/2/1 2/1/1 3/1/1
+            f -4 -3 -2
+            """;
+        ObjMesh mesh = new ObjParser().parse(new ByteArrayInputStream(obj.getBytes(StandardCharsets.US_ASCII)));
+        // 4 shared corners, vertex 1 with the other texture coordinate, 3 corners without texture and normal
+        assertEquals(8, mesh.vertexCount());
+        assertArrayEquals(new int[] {0, 1, 2, 1, 3, 2, 4, 1, 2, 5, 6, 7}, mesh.indices());
+        assertEquals(1, mesh.vertices()[4 * ObjMesh.STRIDE + 3]);
+    }
+
+    @Test
+    void parsesAndChunksMoreVerticesThanTwentyOneBitsAddress() {
+        int triangles = 700_001;
+        int vertexCount = 3 * triangles;
+        assertTrue(vertexCount > (1 << 21) - 1);
+
+        ObjMesh mesh = new ObjParser().parse(new GeneratedObj(triangles));
+        assertEquals(vertexCount, mesh.vertexCount());
+        assertEquals(vertexCount - 1, mesh.indices()[mesh.indices().length - 1]);
+        assertEquals(vertexCount - 1, mesh.vertices()[(vertexCount - 1) * ObjMesh.STRIDE]);
+
+        List<MeshChunk> chunks = MeshChunker.split(FloatBuffer.wrap(mesh.vertices()), IntBuffer.wrap(mesh.indices()),
+            MeshChunker.MAX_VERTICES);
+        int chunkVertices = 0, chunkIndices = 0;
+        for (MeshChunk chunk : chunks) {
+            assertTrue(chunk.vertexCount() <= MeshChunker.MAX_VERTICES);
+            chunkVertices += chunk.vertexCount();
+            chunkIndices += chunk.indices().length;
+        }
+        // the triangles share no vertices, so every vertex lands in exactly one chunk
+        assertEquals(vertexCount, chunkVertices);
+        assertEquals(mesh.indices().length, chunkIndices);
+    }
+
+    /**
+     * OBJ of separate triangles along the x axis, generated while it is read: vertex i at (i, i % 3, 0),
+     * triangle k over the vertices 3k + 1 .. 3k + 3.
+     */
+    private static final class GeneratedObj extends InputStream {
+        private final int triangles;
+        private int line = 0;
+        private byte[] current = new byte[0];
+        private int position = 0;
+
+        GeneratedObj(int triangles) {
+            this.triangles = triangles;
+        }
+
+        @Override
+        public int read() {
+            if (position == current.length && !next()) return -1;
+            return current[position++];
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            int n = 0;
+            while (n < len) {
+                if (position == current.length && !next()) break;
+                int count = Math.min(len - n, current.length - position);
+                System.arraycopy(current, position, b, off + n, count);
+                position += count;
+                n += count;
+            }
+            return n == 0 ? -1 : n;
+        }
+
+        private boolean next() {
+            int vertices = 3 * triangles;
+            String text;
+            if (line < vertices) {
+                text = "v " + line + " " + line % 3 + " 0\n";
+            } else if (line < vertices + triangles) {
+                int k = line - vertices;
+                text = "f " + (3 * k + 1) + " " + (3 * k + 2) + " " + (3 * k + 3) + "\n";
+            } else {
+                return false;
+            }
+            line++;
+            current = text.getBytes(StandardCharsets.US_ASCII);
+            position = 0;
+            return true;
+        }
+    }
+}
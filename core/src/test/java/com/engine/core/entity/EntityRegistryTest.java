@@ -0,0 +1,136 @@
+package com.engine.core.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityRegistryTest {
+    private static final int SLOT_MASK = (1 << EntityRegistry.SLOT_BITS) - 1;
+
+    /** Entities are records, so distinct instances are compared by identity. */
+    private static Entity entity() {
+        return new Entity(null, null, null);
+    }
+
+    private static int slot(int handle) {
+        return handle & SLOT_MASK;
+    }
+
+    private static int generation(int handle) {
+        return handle >>> EntityRegistry.SLOT_BITS;
+    }
+
+    @Test
+    void staleHandlesFailAfterRemovalAndSlotReuse() {
+        EntityRegistry registry = new EntityRegistry();
+        Entity a = entity(), b = entity();
+        int handleA = registry.add(a);
+        assertSame(a, registry.remove(handleA));
+
+        assertFalse(registry.contains(handleA));
+        assertNull(registry.get(handleA));
+        assertEquals(-1, registry.indexOf(handleA));
+        assertNull(registry.remove(handleA), "removing twice is a no-op");
+
+        int handleB = registry.add(b);
+        assertEquals(slot(handleA), slot(handleB), "the free slot is reused");
+        assertNotEquals(handleA, handleB);
+        assertNull(registry.get(handleA));
+        assertNull(registry.remove(handleA), "a stale handle does not remove the new entity");
+        assertSame(b, registry.get(handleB));
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void nullAndUnknownHandlesDoNotResolve() {
+        EntityRegistry registry = new EntityRegistry();
+        int handle = registry.add(entity());
+        assertNotEquals(EntityRegistry.NULL, handle);
+        assertNull(registry.get(EntityRegistry.NULL));
+        assertNull(registry.get(handle + 1), "slot that was never handed out");
+        assertNull(registry.get(handle + (1 << EntityRegistry.SLOT_BITS)), "generation that was never handed out");
+    }
+
+    @Test
+    void removalIncrementsTheGenerationAndWrapsPastNull() {
+        EntityRegistry registry = new EntityRegistry();
+        int handle = registry.add(entity());
+        assertEquals(1, generation(handle));
+        int slot = slot(handle);
+        int maxGeneration = (1 << (31 - EntityRegistry.SLOT_BITS)) - 1;
+
+        for (int expected = 2; expected <= maxGeneration; expected++) {
+            registry.remove(handle);
+            handle = registry.add(entity());
+            assertEquals(slot, slot(handle));
+            assertEquals(expected, generation(handle));
+        }
+        assertTrue(handle > 0, "handles never use the sign bit");
+
+        // the generation wraps to 1, never to 0: slot 0 with generation 0 would be NULL
+        registry.remove(handle);
+        handle = registry.add(entity());
+        assertEquals(1, generation(handle));
+        assertNotEquals(EntityRegistry.NULL, handle);
+        assertTrue(registry.contains(handle));
+    }
+
+    @Test
+    void swapRemoveKeepsTheHandleOfTheMovedEntity() {
+        EntityRegistry registry = new EntityRegistry();
+        List<Entity> entities = new ArrayList<>();
+        List<Integer> handles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Entity entity = entity();
+            entities.add(entity);
+            handles.add(registry.add(entity));
+        }
+
+        Entity last = entities.get(4);
+        registry.remove(handles.get(1));
+        // the last entity fills the gap at index 1
+        assertEquals(4, registry.size());
+        assertSame(last, registry.entity(1));
+        assertEquals(handles.get(4), registry.handle(1));
+        assertEquals(1, registry.indexOf(handles.get(4)));
+        assertSame(last, registry.get(handles.get(4)));
+
+        // removing the last entity moves nothing
+        registry.remove(handles.get(3));
+        for (int i : new int[]{0, 2, 4}) {
+            int index = registry.indexOf(handles.get(i));
+            assertSame(entities.get(i), registry.entity(index));
+            assertEquals(handles.get(i), registry.handle(index));
+        }
+        assertEquals(3, registry.asList().size());
+        assertThrows(IndexOutOfBoundsException.class, () -> registry.entity(3));
+    }
+
+    @Test
+    void rejectsEntitiesBeyondTheSlotLimit() {
+        EntityRegistry registry = new EntityRegistry();
+        Entity entity = entity();
+        int capacity = 1 << EntityRegistry.SLOT_BITS;
+        int first = registry.add(entity);
+        for (int i = 1; i < capacity; i++) registry.add(entity);
+        assertEquals(capacity, registry.size());
+
+        assertThrows(IllegalStateException.class, () -> registry.add(entity));
+        assertEquals(capacity, registry.size());
+
+        // a freed slot can be used again
+        registry.remove(first);
+        int handle = registry.add(entity);
+        assertEquals(slot(first), slot(handle));
+        assertEquals(capacity, registry.size());
+    }
+}
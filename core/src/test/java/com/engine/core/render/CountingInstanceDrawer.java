@@ -0,0 +1,41 @@
+package com.engine.core.render;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Records the draws of an {@link InstancedRenderer} instead of issuing them, no GL context needed.
+ */
+class CountingInstanceDrawer implements InstanceDrawer {
+    int frames = 0;
+    int draws = 0;
+    int instances = 0;
+    final IntArray counts = new IntArray();
+    boolean disposed = false;
+
+    @Override
+    public void begin(Camera camera, Environment environment, int instances) {
+        frames++;
+        draws = 0;
+        this.instances = instances;
+        counts.clear();
+    }
+
+    @Override
+    public void draw(MeshPart part, Material material, float[] transforms, int count) {
+        draws++;
+        counts.add(count);
+    }
+
+    @Override
+    public void end() {
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+    }
+}
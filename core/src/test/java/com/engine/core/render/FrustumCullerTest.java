@@ -0,0 +1,80 @@
+package com.engine.core.render;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.utils.Array;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrustumCullerTest {
+
+    @Test
+    void disablesThePartsOutsideTheFrustum() {
+        ModelInstance instance = new ModelInstance(model(chunk(0, 1), chunk(10, 1)));
+        Frustum frustum = box(5);
+        FrustumCuller culler = new FrustumCuller();
+
+        assertEquals(1, culler.cullParts(instance, frustum));
+        Array<NodePart> parts = instance.nodes.first().parts;
+        assertTrue(parts.get(0).enabled);
+        assertFalse(parts.get(1).enabled);
+
+        // moving the instance brings the second part into view and the first out of it
+        instance.transform.setToTranslation(-10, 0, 0);
+        assertEquals(1, culler.cullParts(instance, frustum));
+        assertFalse(parts.get(0).enabled);
+        assertTrue(parts.get(1).enabled);
+    }
+
+    @Test
+    void keepsPartsOverlappingTheFrustumAndPartsWithoutBounds() {
+        MeshPart unbounded = new MeshPart("unbounded", null, 0, 36, GL20.GL_TRIANGLES);
+        ModelInstance instance = new ModelInstance(model(chunk(5.5f, 1), unbounded));
+        assertEquals(0, new FrustumCuller().cullParts(instance, box(5)));
+        for (NodePart part : instance.nodes.first().parts) assertTrue(part.enabled);
+    }
+
+    private static MeshPart chunk(float x, float halfExtent) {
+        MeshPart part = new MeshPart("chunk", null, 0, 36, GL20.GL_TRIANGLES);
+        part.center.set(x, 0, 0);
+        part.halfExtents.set(halfExtent, halfExtent, halfExtent);
+        part.radius = part.halfExtents.len();
+        return part;
+    }
+
+    /** One node with a part per mesh part; the meshes are never touched, so no GL context is needed. */
+    private static Model model(MeshPart... meshParts) {
+        Model model = new Model();
+        Material material = new Material();
+        model.materials.add(material);
+        Node node = new Node();
+        node.id = "node";
+        for (MeshPart meshPart : meshParts) {
+            model.meshParts.add(meshPart);
+            node.parts.add(new NodePart(meshPart, material));
+        }
+        model.nodes.add(node);
+        return model;
+    }
+
+    /** Cube of the given half width around the origin, planes facing inwards like a camera frustum. */
+    private static Frustum box(float halfWidth) {
+        Frustum frustum = new Frustum();
+        frustum.planes[0].set(1, 0, 0, halfWidth);
+        frustum.planes[1].set(-1, 0, 0, halfWidth);
+        frustum.planes[2].set(0, 1, 0, halfWidth);
+        frustum.planes[3].set(0, -1, 0, halfWidth);
+        frustum.planes[4].set(0, 0, 1, halfWidth);
+        frustum.planes[5].set(0, 0, -1, halfWidth);
+        return frustum;
+    }
+}
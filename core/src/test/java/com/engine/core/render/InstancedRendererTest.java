@@ -0,0 +1,89 @@
+package com.engine.core.render;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.Node;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InstancedRendererTest {
+
+    @Test
+    void instancesOfOneModelShareOneDraw() {
+        Model model = model(new Material("red", ColorAttribute.createDiffuse(Color.RED)));
+        CountingInstanceDrawer drawer = new CountingInstanceDrawer();
+        InstancedRenderer renderer = new InstancedRenderer(drawer);
+
+        renderer.begin();
+        for (int i = 0; i < 100; i++) {
+            ModelInstance instance = new ModelInstance(model);
+            instance.transform.setToTranslation(i, 0, 0);
+            renderer.add(instance);
+        }
+        renderer.end(null, null);
+
+        assertEquals(1, drawer.draws);
+        assertEquals(1, renderer.getDrawCalls());
+        assertEquals(100, drawer.instances);
+        assertEquals(100, drawer.counts.get(0));
+    }
+
+    @Test
+    void twoMaterialsGiveTwoDraws() {
+        Model model = model(new Material("red", ColorAttribute.createDiffuse(Color.RED)),
+            new Material("blue", ColorAttribute.createDiffuse(Color.BLUE)));
+        CountingInstanceDrawer drawer = new CountingInstanceDrawer();
+        InstancedRenderer renderer = new InstancedRenderer(drawer);
+
+        renderer.begin();
+        for (int i = 0; i < 10; i++) renderer.add(new ModelInstance(model));
+        renderer.end(null, null);
+
+        assertEquals(2, drawer.draws);
+        assertEquals(20, renderer.getInstances());
+        assertEquals(10, drawer.counts.get(0));
+        assertEquals(10, drawer.counts.get(1));
+    }
+
+    @Test
+    void emptyGroupsAreDropped() {
+        Model model = model(new Material("red", ColorAttribute.createDiffuse(Color.RED)));
+        CountingInstanceDrawer drawer = new CountingInstanceDrawer();
+        InstancedRenderer renderer = new InstancedRenderer(drawer);
+
+        renderer.begin();
+        renderer.add(new ModelInstance(model));
+        renderer.end(null, null);
+        renderer.begin();
+        renderer.end(null, null);
+
+        assertEquals(2, drawer.frames);
+        assertEquals(0, drawer.draws);
+        renderer.dispose();
+        assertTrue(drawer.disposed);
+    }
+
+    /**
+     * Model with one node part per material over the same triangles; the mesh is never touched by the
+     * renderer, so no GL context is needed.
+     */
+    private static Model model(Material... materials) {
+        Model model = new Model();
+        Node node = new Node();
+        node.id = "node";
+        for (Material material : materials) {
+            model.materials.add(material);
+            node.parts.add(new NodePart(new MeshPart("part", null, 0, 36, GL20.GL_TRIANGLES), material));
+        }
+        model.nodes.add(node);
+        return model;
+    }
+}
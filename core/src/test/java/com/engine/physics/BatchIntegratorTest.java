@@ -0,0 +1,94 @@
+package com.engine.physics;
+
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.body.RidigBody;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchIntegratorTest {
+    private static final double G = -9.81;
+
+    private static Body body(BodyStore store, double a, double b, double c) {
+        Body body = new RidigBody(2, store);
+        body.setShape(1, a, b, c);
+        return body;
+    }
+
+    /** Position after {@code t} seconds of free fall from rest, with the step h. */
+    private static double fall(double h, double t) {
+        BodyStore store = new BodyStore(1);
+        Body body = body(store, 1, 1, 1);
+        BatchIntegrator integrator = new BatchIntegrator();
+        int steps = (int) Math.round(t / h);
+        for (int i = 0; i < steps; i++) {
+            store.clearForces();
+            store.fy[body.getIndex()] = body.getMass() * G;
+            integrator.integrate(store, h);
+        }
+        assertEquals(G * t, body.getVelocity().y, 1e-9);
+        return body.getPosition().y;
+    }
+
+    @Test
+    void freeFallIsFirstOrder() {
+        double t = 2, h = 1 / 120.;
+        double exact = .5 * G * t * t;
+        double error = fall(h, t) - exact;
+        // semi-implicit Euler: p_n = ½ g t² + ½ g h t
+        assertEquals(.5 * G * h * t, error, 1e-9);
+        // halving the step halves the error
+        assertEquals(2, error / (fall(h / 2, t) - exact), 1e-6);
+    }
+
+    @Test
+    void freeFlightKeepsTheVelocity() {
+        BodyStore store = new BodyStore(1);
+        Body body = body(store, 1, 1, 1);
+        body.setPosition(1, 2, 3);
+        body.setVelocity(new Vector3d(.5, -1, 2));
+        BatchIntegrator integrator = new BatchIntegrator();
+        for (int i = 0; i < 240; i++) integrator.integrate(store, 1 / 120.);
+
+        Vector3d expected = new Vector3d(1 + .5 * 2, 2 - 1 * 2, 3 + 2 * 2);
+        assertTrue(expected.equals(body.getPosition(), 1e-9), body.getPosition() + " != " + expected);
+    }
+
+    @Test
+    void torqueFreeRotationFollowsTheExponentialMap() {
+        // equal principal moments: no gyroscopic torque, ω stays constant and q(t) = q0 exp(ω t / 2)
+        BodyStore store = new BodyStore(1);
+        Body body = body(store, .4, .4, .4);
+        Quaterniond start = new Quaterniond().rotationXYZ(.3, -.2, .9);
+        body.setOrientation(start);
+        Vector3d omega = new Vector3d(.3, -1.2, .7);
+        body.setAngularVelocity(omega);
+
+        double t = 2, h = 1 / 120.;
+        BatchIntegrator integrator = new BatchIntegrator();
+        for (int i = 0; i < Math.round(t / h); i++) integrator.integrate(store, h);
+
+        Quaterniond expected = new Quaterniond(start).rotateAxis(omega.length() * t, new Vector3d(omega).normalize());
+        Quaterniond actual = body.getOrientation();
+        assertEquals(1, Math.abs(expected.dot(actual)), 1e-12);
+        assertTrue(omega.equals(body.getAngularVelocity(), 1e-12));
+    }
+
+    @Test
+    void rotationAboutAPrincipalAxisIsStable() {
+        // asymmetric body spinning about its axis of largest moment: ω does not change
+        BodyStore store = new BodyStore(1);
+        Body body = body(store, .1, .2, .3);
+        body.setAngularVelocity(new Vector3d(0, 0, 4));
+        BatchIntegrator integrator = new BatchIntegrator();
+        for (int i = 0; i < 1200; i++) integrator.integrate(store, 1 / 120.);
+
+        assertTrue(new Vector3d(0, 0, 4).equals(body.getAngularVelocity(), 1e-12));
+        Quaterniond expected = new Quaterniond().rotationZ(4 * 10);
+        assertEquals(1, Math.abs(expected.dot(body.getOrientation())), 1e-12);
+    }
+}
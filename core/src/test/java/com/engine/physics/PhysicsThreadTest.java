@@ -0,0 +1,30 @@
+package com.engine.physics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhysicsThreadTest {
+
+    @Test
+    void failingCommandStopsTheThreadWithoutAnApplication() throws InterruptedException {
+        PhysicsThread thread = new PhysicsThread(new PhysicsWorld(), new FixedTimestep(1 / 120., 4));
+        IllegalStateException error = new IllegalStateException("test failure");
+        CountDownLatch executed = new CountDownLatch(1);
+        thread.submit(world -> {
+            executed.countDown();
+            throw error;
+        });
+        thread.start();
+        assertTrue(executed.await(5, TimeUnit.SECONDS));
+        thread.stop();
+
+        assertSame(error, thread.getFailure());
+        assertFalse(thread.isRunning());
+    }
+}
@@ -0,0 +1,82 @@
+package com.engine.physics;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.engine.core.entity.Entity;
+import com.engine.core.entity.TransformSync;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.RidigBody;
+import org.joml.Matrix3d;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransformSnapshotTest {
+
+    private static Entity entity(double halfExtent, double x) {
+        Body body = new RidigBody(400);
+        body.setHalfExtent(halfExtent, 2 * halfExtent, 3 * halfExtent);
+        body.setPosition(x, 0, 0);
+        body.storePreviousTransform();
+        return new Entity(null, body, null);
+    }
+
+    @Test
+    void capturesTheShapeOfEveryEntityAfterSwapRemoval() {
+        PhysicsWorld world = new PhysicsWorld();
+        Entity a = entity(1, 10), b = entity(2, 20), c = entity(3, 30);
+        world.add(a);
+        world.add(b);
+        world.add(c);
+        // moves the slot of c into that of a
+        world.remove(a);
+
+        TransformSnapshot snapshot = new TransformSnapshot();
+        snapshot.capture(world.getEntities(), 0, 1);
+        assertEquals(2, snapshot.size());
+        Vector3d halfExtent = new Vector3d(), position = new Vector3d();
+        for (int i = 0; i < snapshot.size(); i++) {
+            Entity entity = snapshot.entity(i);
+            assertEquals(entity.body().getHalfExtent(), snapshot.halfExtent(i, halfExtent));
+            assertEquals(entity.body().getPosition(), snapshot.position(i, position));
+        }
+    }
+
+    @Test
+    void modelTransformFromTheShapeMatchesTheMassProperties() {
+        Body body = new RidigBody(400);
+        body.setPrincipalFrame(new Vector3d(.1, -.2, .3), new Quaterniond().rotationXYZ(.4, -.5, .6));
+        body.setPosition(1, 2, 3);
+        body.setOrientation(new Quaterniond().rotationXYZ(-.3, .2, .1));
+        body.storePreviousTransform();
+        Entity entity = new Entity(null, body, null);
+
+        TransformSnapshot snapshot = new TransformSnapshot();
+        snapshot.capture(List.of(entity), 0, 1);
+        double[] scratch = new double[TransformSnapshot.STRIDE + TransformSnapshot.SHAPE_STRIDE];
+        snapshot.interpolate(0, 1, scratch);
+        snapshot.shape(0, scratch, TransformSnapshot.STRIDE);
+
+        Matrix4 fromShape = new Matrix4(), fromMass = new Matrix4();
+        TransformSync.setModelTransform(fromShape, scratch, 0, scratch, TransformSnapshot.STRIDE);
+        TransformSync.setModelTransform(fromMass, body.getMassProperties(), scratch, 0);
+        assertArrayEquals(fromMass.val, fromShape.val, 1e-6f);
+    }
+
+    @Test
+    void worldInverseInertiaFromComponentsMatchesTheQuaternion() {
+        Body body = new RidigBody(400);
+        body.setShape(1, 1, 2, 3);
+        Quaterniond orientation = new Quaterniond().rotationXYZ(.7, -.2, 1.3);
+        body.setOrientation(orientation);
+
+        Matrix3d expected = body.getMassProperties().getWorldInverseInertia(orientation, new Matrix3d());
+        Matrix3d actual = body.getWorldInverseInertia(new Matrix3d());
+        assertTrue(expected.equals(actual, 1e-12), actual + " != " + expected);
+    }
+}
@@ -0,0 +1,77 @@
+package com.engine.physics.body;
+
+import com.engine.core.entity.Entity;
+import com.engine.physics.PhysicsWorld;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BodyStateBufferTest {
+
+    @Test
+    void writeBeyondTheCapacityKeepsTheFirstBodies() {
+        BodyStore store = store(5);
+        BodyStateBuffer buffer = new BodyStateBuffer(3);
+        assertFalse(buffer.write(store, 7, .5));
+        assertEquals(3, buffer.size());
+        assertEquals(7, buffer.getStep());
+        assertEquals(2, buffer.get(2, BodyStateBuffer.POSITION));
+    }
+
+    @Test
+    void growKeepsTheRecords() throws IOException {
+        BodyStore store = store(3);
+        BodyStateBuffer buffer = new BodyStateBuffer(3);
+        assertTrue(buffer.write(store, 1, .1));
+        BodyStateBuffer grown = buffer.grow(10);
+        assertEquals(10, grown.capacity());
+        assertEquals(3, grown.size());
+        assertEquals(2, grown.get(2, BodyStateBuffer.POSITION));
+        assertTrue(buffer.grow(2) == buffer);
+    }
+
+    @Test
+    void growRemapsAMappedFile() throws IOException {
+        Path file = Files.createTempFile("bodies", ".state");
+        try {
+            BodyStateBuffer buffer = BodyStateBuffer.map(file, 2);
+            buffer.write(store(2), 4, .4);
+            BodyStateBuffer grown = buffer.grow(8);
+            grown.write(store(8), 5, .5);
+            assertEquals(8, BodyStateBuffer.map(file, 8).size());
+            assertEquals(BodyStateBuffer.HEADER_BYTES + 8 * BodyStateBuffer.STRIDE, Files.size(file));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void worldGrowsTheBufferWhenBodiesAreAdded() {
+        PhysicsWorld world = new PhysicsWorld();
+        world.setStateBuffer(new BodyStateBuffer(2));
+        for (int i = 0; i < 5; i++) world.add(new Entity(null, body(10 * i), null));
+        world.step(1 / 60.);
+        assertEquals(5, world.getStateBuffer().size());
+        assertEquals(1, world.getStateBuffer().getStep());
+    }
+
+    private static BodyStore store(int n) {
+        BodyStore store = new BodyStore(n);
+        for (int i = 0; i < n; i++) store.attach(body(i));
+        return store;
+    }
+
+    private static Body body(double x) {
+        Body body = new RidigBody(1);
+        body.setMass(1);
+        body.setHalfExtent(.5, .5, .5);
+        body.setPosition(x, 0, 0);
+        return body;
+    }
+}
@@ -0,0 +1,185 @@
+package com.engine.physics.collisions;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Plane;
+import com.badlogic.gdx.math.Vector3;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DynamicAabbTreeTest {
+    private static final double MARGIN = .1;
+
+    @Test
+    void staysValidAndBalancedUnderInsertRemoveAndMove() {
+        Random random = new Random(1);
+        DynamicAabbTree tree = new DynamicAabbTree(MARGIN);
+        List<Integer> proxies = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            proxies.add(create(tree, random, i));
+            tree.validate();
+        }
+        // sorted insertion along a line is the worst case for an unbalanced tree
+        for (int i = 0; i < 1000; i++) proxies.add(tree.createProxy(i, 0, 0, i + .5, .5, .5, null));
+        tree.validate();
+        assertEquals(3000, tree.getProxyCount());
+        // log2(3000) is about 11.6
+        assertTrue(tree.getHeight() <= 2 * 12, "height " + tree.getHeight());
+
+        for (int round = 0; round < 2000; round++) {
+            int k = random.nextInt(proxies.size());
+            switch (random.nextInt(3)) {
+                case 0 -> tree.destroyProxy(proxies.remove(k));
+                case 1 -> proxies.add(create(tree, random, round));
+                default -> {
+                    double x = 100 * random.nextDouble(), y = 100 * random.nextDouble(), z = 100 * random.nextDouble();
+                    tree.moveProxy(proxies.get(k), x, y, z, x + 1, y + 1, z + 1);
+                }
+            }
+            tree.validate();
+        }
+        assertEquals(proxies.size(), tree.getProxyCount());
+
+        for (int proxy : proxies) tree.destroyProxy(proxy);
+        tree.validate();
+        assertEquals(-1, tree.getHeight());
+        assertEquals(0, tree.getProxyCount());
+    }
+
+    @Test
+    void moveWithinTheMarginKeepsTheProxy() {
+        DynamicAabbTree tree = new DynamicAabbTree(MARGIN);
+        int proxy = tree.createProxy(0, 0, 0, 1, 1, 1, "a");
+        assertFalse(tree.moveProxy(proxy, .05, 0, 0, 1.05, 1, 1));
+        assertTrue(tree.moveProxy(proxy, .5, 0, 0, 1.5, 1, 1));
+        assertEquals("a", tree.getUserData(proxy));
+        tree.validate();
+        assertThrows(IllegalArgumentException.class, () -> tree.destroyProxy(proxy + 1));
+    }
+
+    @Test
+    void queryPairsMatchesBruteForce() {
+        Random random = new Random(2);
+        DynamicAabbTree tree = new DynamicAabbTree(MARGIN);
+        List<double[]> boxes = new ArrayList<>();
+        List<Integer> proxies = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double[] box = randomBox(random, 30);
+            boxes.add(box);
+            proxies.add(tree.createProxy(box[0], box[1], box[2], box[3], box[4], box[5], i));
+        }
+
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < boxes.size(); i++) {
+            for (int j = i + 1; j < boxes.size(); j++) {
+                if (overlap(boxes.get(i), boxes.get(j), MARGIN)) {
+                    int a = proxies.get(i), b = proxies.get(j);
+                    expected.add(key(Math.min(a, b), Math.max(a, b)));
+                }
+            }
+        }
+        Set<Long> actual = new HashSet<>();
+        tree.queryPairs((a, b) -> {
+            assertTrue(a < b);
+            assertTrue(actual.add(key(a, b)), "pair reported twice");
+        });
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void frustumQueryMatchesBruteForce() {
+        Random random = new Random(3);
+        DynamicAabbTree tree = new DynamicAabbTree(MARGIN);
+        List<double[]> boxes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            double[] box = randomBox(random, 100);
+            for (int k = 0; k < 6; k++) box[k] -= 50;
+            boxes.add(box);
+            tree.createProxy(box[0], box[1], box[2], box[3], box[4], box[5], i);
+        }
+
+        Frustum frustum = frustum(.1f, 40, (float) Math.toRadians(30));
+
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < boxes.size(); i++) {
+            double[] b = boxes.get(i);
+            if (classify(frustum, b[0] - MARGIN, b[1] - MARGIN, b[2] - MARGIN, b[3] + MARGIN, b[4] + MARGIN, b[5] + MARGIN)
+                != DynamicAabbTree.OUTSIDE) {
+                expected.add(i);
+            }
+        }
+        Set<Integer> actual = new HashSet<>();
+        tree.query((minX, minY, minZ, maxX, maxY, maxZ) -> classify(frustum, minX, minY, minZ, maxX, maxY, maxZ),
+            proxy -> assertTrue(actual.add((Integer) tree.getUserData(proxy))));
+
+        assertFalse(expected.isEmpty());
+        assertTrue(expected.size() < boxes.size());
+        assertEquals(expected, actual);
+    }
+
+    private static int create(DynamicAabbTree tree, Random random, int data) {
+        double[] box = randomBox(random, 100);
+        return tree.createProxy(box[0], box[1], box[2], box[3], box[4], box[5], data);
+    }
+
+    private static double[] randomBox(Random random, double extent) {
+        double x = extent * random.nextDouble(), y = extent * random.nextDouble(), z = extent * random.nextDouble();
+        return new double[] {x, y, z, x + 2 * random.nextDouble(), y + 2 * random.nextDouble(), z + 2 * random.nextDouble()};
+    }
+
+    private static boolean overlap(double[] a, double[] b, double margin) {
+        for (int k = 0; k < 3; k++) {
+            if (a[k] - margin > b[k + 3] + margin || b[k] - margin > a[k + 3] + margin) return false;
+        }
+        return true;
+    }
+
+    private static long key(int a, int b) {
+        return (long) a << 32 | b;
+    }
+
+    /**
+     * View from the origin along +x with the given half angle, planes facing inwards like a camera frustum.
+     * Built directly, the camera update needs the native library.
+     */
+    private static Frustum frustum(float near, float far, float halfAngle) {
+        float tan = (float) Math.tan(halfAngle);
+        Frustum frustum = new Frustum();
+        set(frustum.planes[0], new Vector3(1, 0, 0), -near);
+        set(frustum.planes[1], new Vector3(-1, 0, 0), far);
+        set(frustum.planes[2], new Vector3(tan, -1, 0).nor(), 0);
+        set(frustum.planes[3], new Vector3(tan, 1, 0).nor(), 0);
+        set(frustum.planes[4], new Vector3(tan, 0, -1).nor(), 0);
+        set(frustum.planes[5], new Vector3(tan, 0, 1).nor(), 0);
+        return frustum;
+    }
+
+    private static void set(Plane plane, Vector3 normal, float d) {
+        plane.set(normal.x, normal.y, normal.z, d);
+    }
+
+    /** Box against the inward facing planes of the frustum, like the frustum culler. */
+    private static int classify(Frustum frustum, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double cx = (minX + maxX) * .5, cy = (minY + maxY) * .5, cz = (minZ + maxZ) * .5;
+        double ex = (maxX - minX) * .5, ey = (maxY - minY) * .5, ez = (maxZ - minZ) * .5;
+        int result = DynamicAabbTree.INSIDE;
+        for (Plane plane : frustum.planes) {
+            Vector3 n = plane.normal;
+            double distance = n.x * cx + n.y * cy + n.z * cz + plane.d;
+            double radius = Math.abs(n.x) * ex + Math.abs(n.y) * ey + Math.abs(n.z) * ez;
+            if (distance + radius < 0) return DynamicAabbTree.OUTSIDE;
+            if (distance - radius < 0) result = DynamicAabbTree.INTERSECTS;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package com.engine.physics.forces;
+
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.body.RidigBody;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarnesHutGravityTest {
+    private static final double G = 1;
+    private static final double SOFTENING = 1e-3;
+
+    @Test
+    void zeroOpeningAngleIsExact() {
+        BodyStore store = cluster(300, 1);
+        assertTrue(relativeError(store, new BarnesHutGravity(G, 0, SOFTENING, false, 4)) < 1e-10);
+    }
+
+    @Test
+    void monopoleErrorStaysBelowOnePercent() {
+        BodyStore store = cluster(5000, 2);
+        double error = relativeError(store, new BarnesHutGravity(G, .5, SOFTENING, false, 8));
+        assertTrue(error < 1e-2, "error " + error);
+    }
+
+    @Test
+    void quadrupoleImprovesTheAccuracy() {
+        BodyStore store = cluster(5000, 3);
+        double monopole = relativeError(store, new BarnesHutGravity(G, .7, SOFTENING, false, 8));
+        double quadrupole = relativeError(store, new BarnesHutGravity(G, .7, SOFTENING, true, 8));
+        assertTrue(quadrupole < monopole, "quadrupole " + quadrupole + ", monopole " + monopole);
+    }
+
+    @Test
+    void parallelAndSequentialBuildsAgree() {
+        // 5000 bodies take the parallel build, the subset of 500 the sequential one
+        BodyStore store = cluster(5000, 4);
+        BarnesHutGravity gravity = new BarnesHutGravity(G, .5, SOFTENING, true, 8);
+        double[] first = forces(store, gravity);
+        double[] second = forces(store, gravity);
+        assertArrayEquals(first, second);
+        assertTrue(relativeError(cluster(500, 4), gravity) < 1e-2);
+    }
+
+    /**
+     * RMS of |F_bh - F_direct| over the RMS of |F_direct|.
+     */
+    private static double relativeError(BodyStore store, ForceGenerator gravity) {
+        double[] exact = forces(store, new DirectGravity(G, SOFTENING));
+        double[] approximate = forces(store, gravity);
+        double error = 0, norm = 0;
+        for (int i = 0; i < exact.length; i++) {
+            double d = approximate[i] - exact[i];
+            error += d * d;
+            norm += exact[i] * exact[i];
+        }
+        return Math.sqrt(error / norm);
+    }
+
+    private static double[] forces(BodyStore store, ForceGenerator gravity) {
+        store.clearForces();
+        gravity.apply(store, 0, store.size());
+        int n = store.size();
+        double[] forces = new double[3 * n];
+        for (int i = 0; i < n; i++) {
+            forces[3 * i] = store.fx[i];
+            forces[3 * i + 1] = store.fy[i];
+            forces[3 * i + 2] = store.fz[i];
+        }
+        return forces;
+    }
+
+    /**
+     * Bodies of random mass, every other one in a dense core, the rest spread over a ten times larger sphere.
+     */
+    private static BodyStore cluster(int n, long seed) {
+        Random random = new Random(seed);
+        BodyStore store = new BodyStore(n);
+        for (int i = 0; i < n; i++) {
+            double radius = i % 2 == 0 ? 1 : 10;
+            double x, y, z;
+            do {
+                x = 2 * random.nextDouble() - 1;
+                y = 2 * random.nextDouble() - 1;
+                z = 2 * random.nextDouble() - 1;
+            } while (x * x + y * y + z * z > 1);
+            Body body = new RidigBody(1);
+            body.setMass(.5 + random.nextDouble());
+            body.setPosition(radius * x, radius * y, radius * z);
+            store.attach(body);
+        }
+        return store;
+    }
+}
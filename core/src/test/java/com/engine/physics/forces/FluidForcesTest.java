@@ -0,0 +1,82 @@
+package com.engine.physics.forces;
+
+import com.engine.config.Constants;
+import com.engine.core.entity.AABB;
+import com.engine.core.entity.Entity;
+import com.engine.physics.BatchIntegrator;
+import com.engine.physics.PhysicsWorld;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.BodyStore;
+import com.engine.physics.body.FluidCoefficients;
+import com.engine.physics.body.RidigBody;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FluidForcesTest {
+    private static final double H = 1e-3;
+
+    /** Unit cube of the density with the fluid coefficients of a cube of side 1. */
+    private static Body cube(double density, BodyStore store) {
+        Body body = new RidigBody(density, store);
+        body.setShape(1, 1 / 6., 1 / 6., 1 / 6.);
+        body.setHalfExtent(.5, .5, .5);
+        body.setFluidCoefficients(new FluidCoefficients(1, new Vector3d(1, 1, 1), new Vector3d(1 / 32., 1 / 32., 1 / 32.)));
+        return body;
+    }
+
+    private static FluidVolume water() {
+        return FluidVolume.water(new AABB(new Vector3d(-10, -10, -10), new Vector3d(10, 0, 10)));
+    }
+
+    @Test
+    void lighterBodySettlesAtTheDensityRatio() {
+        PhysicsWorld world = new PhysicsWorld();
+        world.getFluids().add(water());
+        Body body = cube(400, world.getStore());
+        body.setPosition(0, 1, 0);
+        world.add(new Entity(null, body, null));
+
+        // four minutes, the small oscillations left by the quadratic drag decay through the linear world drag
+        for (int i = 0; i < 240 * 120; i++) world.step(1 / 120.);
+
+        // submerged fraction ρ_body / ρ_water = 0.4 of the unit height: bottom at -0.4, center at 0.1
+        double submerged = .5 - body.getPosition().y;
+        assertEquals(400 / Constants.WATER_DENSITY, submerged, 1e-3);
+        assertEquals(0, body.getVelocity().y, 1e-3);
+    }
+
+    @Test
+    void dragSlowsASubmergedBodyLikeQuadraticDrag() {
+        BodyStore store = new BodyStore();
+        Body body = cube(Constants.WATER_DENSITY, store);
+        body.setPosition(0, -5, 0);
+        double v0 = 2;
+        body.setVelocity(new Vector3d(v0, 0, 0));
+
+        // neutral buoyancy, so only the drag acts
+        ForceRegistry forces = new ForceRegistry();
+        forces.add(new Gravity(new Vector3d(0, -Constants.EARTH_ACC, 0)));
+        FluidForces fluids = new FluidForces();
+        fluids.add(water());
+        forces.add(fluids);
+        BatchIntegrator integrator = new BatchIntegrator();
+
+        double previous = v0;
+        for (int i = 1; i <= 1000; i++) {
+            store.clearForces();
+            forces.apply(store);
+            integrator.integrate(store, H);
+            double v = body.getVelocity().x;
+            assertTrue(v < previous && v > 0, "speed " + v + " after " + previous);
+            previous = v;
+        }
+
+        // m dv/dt = -½ ρ c_w A v², so v(t) = v0 / (1 + c v0 t) with c = ½ ρ c_w A / m
+        double c = .5 * Constants.WATER_DENSITY * Constants.DRAG_COEFFICIENT / body.getMass();
+        assertEquals(v0 / (1 + c * v0 * 1), body.getVelocity().x, 1e-3);
+        assertEquals(0, body.getVelocity().y, 1e-9);
+    }
+}
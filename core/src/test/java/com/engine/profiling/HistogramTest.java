@@ -0,0 +1,99 @@
+package com.engine.profiling;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistogramTest {
+
+    @Test
+    void countsSmallValuesExactly() {
+        for (long value = 0; value < 128; value++) {
+            assertEquals(value, Histogram.index(value));
+            assertEquals(value, Histogram.highestValue((int) value));
+        }
+    }
+
+    @Test
+    void bucketsAreContiguousAndOrdered() {
+        // every bucket starts right after the previous one ends
+        int last = Histogram.index(Histogram.MAX_VALUE);
+        for (int i = 1; i <= last; i++) {
+            long lowest = Histogram.highestValue(i - 1) + 1;
+            assertEquals(i, Histogram.index(lowest), "first value of bucket " + i);
+            assertEquals(i, Histogram.index(Histogram.highestValue(i)), "last value of bucket " + i);
+        }
+        assertEquals(Histogram.MAX_VALUE, Histogram.highestValue(last));
+    }
+
+    @Test
+    void keepsTheRelativeErrorBelowOneSixtyFourth() {
+        for (long value = 128; value <= Histogram.MAX_VALUE; value = value * 3 / 2 + 7) {
+            long highest = Histogram.highestValue(Histogram.index(value));
+            assertTrue(highest >= value, "bucket of " + value + " ends at " + highest);
+            assertTrue(highest - value < value / 64.0, "bucket of " + value + " ends at " + highest);
+        }
+        // first buckets with a width of 2 and 4
+        assertEquals(128, Histogram.index(128));
+        assertEquals(128, Histogram.index(129));
+        assertEquals(191, Histogram.index(255));
+        assertEquals(192, Histogram.index(256));
+        assertEquals(259, Histogram.highestValue(192));
+    }
+
+    @Test
+    void percentilesOfExactValues() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100; value++) histogram.record(value);
+        assertEquals(1, histogram.getPercentile(0));
+        assertEquals(50, histogram.getPercentile(50));
+        assertEquals(99, histogram.getPercentile(99));
+        assertEquals(100, histogram.getPercentile(100));
+        assertEquals(100, histogram.getMax());
+        assertEquals(100, histogram.getCount());
+        assertEquals(50.5, histogram.getMean(), 1e-12);
+    }
+
+    @Test
+    void percentilesOfLargeValuesAreTheEndOfTheirBucket() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1000; value++) histogram.record(value);
+        // 500 falls into the bucket [500, 503]
+        assertEquals(503, histogram.getPercentile(50));
+        // the last bucket is capped at the maximum
+        assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    @Test
+    void clampsValuesOutsideTheRange() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(Histogram.MAX_VALUE, histogram.getPercentile(100));
+        assertEquals(Histogram.MAX_VALUE, histogram.getMax());
+        assertEquals(Histogram.MAX_VALUE / 2.0, histogram.getMean(), 1);
+    }
+
+    @Test
+    void resetClearsEverything() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(99));
+        histogram.record(1_000_000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(99));
+    }
+
+    @Test
+    void rejectsPercentilesOutsideZeroToHundred() {
+        Histogram histogram = new Histogram();
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(100.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(Double.NaN));
+    }
+}
@@ -0,0 +1,32 @@
+package com.engine.profiling;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PhaseEventTest {
+
+    @Test
+    void allocatesEventsOnlyWhileARecordingEnablesThem() {
+        PhaseEvent disabled = PhaseEvent.start();
+        assertSame(disabled, PhaseEvent.start());
+        disabled.end(StepProfiler.Phase.INTEGRATE, 1);
+        assertNull(WorldStepEvent.start());
+
+        try (Recording recording = new Recording()) {
+            recording.enable(PhaseEvent.class);
+            recording.enable(WorldStepEvent.class);
+            recording.start();
+            PhaseEvent event = PhaseEvent.start();
+            assertNotSame(disabled, event);
+            assertNotSame(event, PhaseEvent.start());
+            event.end(StepProfiler.Phase.INTEGRATE, 1);
+            assertNotNull(WorldStepEvent.start());
+        }
+        assertSame(disabled, PhaseEvent.start());
+    }
+}
@@ -0,0 +1,151 @@
+package com.engine.utils;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.engine.core.MeshData;
+import com.engine.core.MeshProperties;
+import com.engine.core.entity.TransformSync;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.RidigBody;
+import org.joml.Matrix3d;
+import org.joml.Quaterniond;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PhysicsUtilsTest {
+    private static final double EPSILON = 1e-6;
+
+    // corners of the box by bits x, y, z, and its faces as outward quads
+    private static final int[][] QUADS = {{0, 2, 3, 1}, {4, 5, 7, 6}, {0, 1, 5, 4}, {2, 6, 7, 3}, {0, 4, 6, 2}, {1, 3, 7, 5}};
+
+    @Test
+    void offsetBoxKeepsItsAxesAndMovesTheBodyToTheCentroid() {
+        MeshData box = box(new Vector3d(1, 2, 3), new Vector3d(3, 3, 7), new Quaterniond());
+        MeshProperties properties = PhysicsUtils.calcMeshProperties(box);
+        assertEquals(8, properties.volume(), EPSILON);
+        assertVector(new Vector3d(2, 2.5, 5), properties.centroid());
+        assertVector(new Vector3d(17 / 12d, 20 / 12d, 5 / 12d), properties.unitInertia());
+        assertEquals(1, Math.abs(properties.principalAxes().w), EPSILON);
+
+        Body body = new RidigBody(1);
+        PhysicsUtils.applyMeshProperties(properties, body);
+        assertVector(new Vector3d(1, .5, 2), body.getHalfExtent());
+        assertEquals(8, body.getMass(), EPSILON);
+
+        // the body at the origin shows the model centered on it
+        Matrix4 model = new Matrix4();
+        TransformSync.setModelTransform(model, body.getMassProperties(), 0, 0, 0, 0, 0, 0, 1);
+        assertVector(new Vector3d(-2, -2.5, -5), new Vector3d(model.val[Matrix4.M03], model.val[Matrix4.M13], model.val[Matrix4.M23]));
+    }
+
+    @Test
+    void rotatedBoxSimulatesInItsPrincipalFrame() {
+        Vector3d min = new Vector3d(1, 2, 3), max = new Vector3d(3, 3, 7);
+        Quaterniond rotation = new Quaterniond().rotationXYZ(.3, -.5, .9);
+        MeshProperties properties = PhysicsUtils.calcMeshProperties(box(min, max, rotation));
+        assertEquals(8, properties.volume(), EPSILON);
+        assertVector(rotation.transform(new Vector3d(2, 2.5, 5)), properties.centroid());
+        assertSameMoments(new double[] {5 / 12d, 17 / 12d, 20 / 12d}, properties.unitInertia());
+
+        // P D Pᵀ gives back the tensor of the rotated box, R diag Rᵀ
+        Matrix3d expected = new Matrix3d().set(rotation).mul(new Matrix3d().scaling(17 / 12d, 20 / 12d, 5 / 12d))
+            .mul(new Matrix3d().set(rotation).transpose());
+        Matrix3d axes = new Matrix3d().set(properties.principalAxes());
+        Vector3d d = properties.unitInertia();
+        Matrix3d actual = new Matrix3d(axes).mul(new Matrix3d().scaling(d)).mul(new Matrix3d(axes).transpose());
+        assertTrue(actual.equals(expected, EPSILON), actual + " vs " + expected);
+
+        Body body = new RidigBody(1);
+        PhysicsUtils.applyMeshProperties(properties, body);
+        assertSameMoments(new double[] {.5, 1, 2}, body.getHalfExtent());
+
+        // with the body frame at the origin, the model is the axis-aligned box of the half extent
+        Matrix4 model = new Matrix4();
+        TransformSync.setModelTransform(model, body.getMassProperties(), 0, 0, 0, 0, 0, 0, 1);
+        MeshData mesh = box(min, max, rotation);
+        Vector3d halfExtent = body.getHalfExtent();
+        float[] m = model.val;
+        for (int i = 0; i < mesh.positions().length; i += 3) {
+            float x = mesh.positions()[i], y = mesh.positions()[i + 1], z = mesh.positions()[i + 2];
+            double bx = m[Matrix4.M00] * x + m[Matrix4.M01] * y + m[Matrix4.M02] * z + m[Matrix4.M03];
+            double by = m[Matrix4.M10] * x + m[Matrix4.M11] * y + m[Matrix4.M12] * z + m[Matrix4.M13];
+            double bz = m[Matrix4.M20] * x + m[Matrix4.M21] * y + m[Matrix4.M22] * z + m[Matrix4.M23];
+            assertEquals(halfExtent.x, Math.abs(bx), 1e-4);
+            assertEquals(halfExtent.y, Math.abs(by), 1e-4);
+            assertEquals(halfExtent.z, Math.abs(bz), 1e-4);
+        }
+    }
+
+    @Test
+    void tetrahedron() {
+        MeshData tetrahedron = new MeshData(
+            new float[] {0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1},
+            new int[] {0, 2, 1, 0, 1, 3, 0, 3, 2, 1, 2, 3});
+        assertTrue(PhysicsUtils.isClosed(tetrahedron));
+        MeshProperties properties = PhysicsUtils.calcMeshProperties(tetrahedron);
+        assertEquals(1 / 6d, properties.volume(), EPSILON);
+        assertVector(new Vector3d(.25, .25, .25), properties.centroid());
+        // about the centroid: 1/10 about the (1, 1, 1) diagonal, 1/16 about every axis perpendicular to it
+        assertSameMoments(new double[] {1 / 16d, 1 / 16d, 1 / 10d}, properties.unitInertia());
+    }
+
+    @Test
+    void openMeshFallsBackToItsBoundingBox() {
+        MeshData open = new MeshData(
+            new float[] {0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1},
+            new int[] {0, 2, 1, 0, 1, 3, 0, 3, 2});
+        assertFalse(PhysicsUtils.isClosed(open));
+        MeshProperties properties = PhysicsUtils.calcMeshProperties(open);
+        assertEquals(1, properties.volume(), EPSILON);
+        assertVector(new Vector3d(.5, .5, .5), properties.centroid());
+    }
+
+    @Test
+    void seamsDoNotOpenAMesh() {
+        MeshData box = box(new Vector3d(0, 0, 0), new Vector3d(1, 1, 1), new Quaterniond());
+        assertEquals(24, box.positions().length / 3);
+        assertTrue(PhysicsUtils.isClosed(box));
+
+        MeshData missingFace = new MeshData(box.positions(), Arrays.copyOf(box.indices(), box.indices().length - 6));
+        assertFalse(PhysicsUtils.isClosed(missingFace));
+    }
+
+    /**
+     * Box with separate vertices per face, like a render mesh with split normals, rotated about the origin.
+     */
+    private static MeshData box(Vector3d min, Vector3d max, Quaterniond rotation) {
+        float[] positions = new float[6 * 4 * 3];
+        int[] indices = new int[6 * 6];
+        Vector3d corner = new Vector3d();
+        for (int f = 0; f < 6; f++) {
+            for (int k = 0; k < 4; k++) {
+                int c = QUADS[f][k];
+                corner.set((c & 1) == 0 ? min.x : max.x, (c & 2) == 0 ? min.y : max.y, (c & 4) == 0 ? min.z : max.z);
+                rotation.transform(corner);
+                int v = 4 * f + k;
+                positions[3 * v] = (float) corner.x;
+                positions[3 * v + 1] = (float) corner.y;
+                positions[3 * v + 2] = (float) corner.z;
+            }
+            int v = 4 * f;
+            System.arraycopy(new int[] {v, v + 1, v + 2, v, v + 2, v + 3}, 0, indices, 6 * f, 6);
+        }
+        return new MeshData(positions, indices);
+    }
+
+    private static void assertVector(Vector3d expected, Vector3d actual) {
+        assertTrue(expected.equals(actual, 1e-5), "expected " + expected + " but was " + actual);
+    }
+
+    private static void assertSameMoments(double[] expected, Vector3d actual) {
+        double[] sorted = {actual.x, actual.y, actual.z};
+        Arrays.sort(sorted);
+        assertArrayEquals(expected, sorted, 1e-5);
+    }
+}
@@ -0,0 +1,73 @@
+package com.engine.headless;
+
+import com.engine.config.Constants;
+import com.engine.core.MeshAsset;
+import com.engine.physics.PhysicsWorld;
+import com.engine.profiling.StepProfiler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Runs the simulation without input, rendering or a display: builds a {@link HeadlessScene}, steps the
+ * world as fast as possible and reports the throughput, with {@code --profile} also the step phases.
+ * <pre>
+ * usage: HeadlessLauncher [--steps N] [--warmup N] [--bodies N] [--step SECONDS] [--model PATH] [--water DEPTH] [--profile]
+ * </pre>
+ */
+public class HeadlessLauncher {
+    private static final String USAGE =
+        "usage: HeadlessLauncher [--steps N] [--warmup N] [--bodies N] [--step SECONDS] [--model PATH] [--water DEPTH] [--profile]";
+
+    public static void main(String[] args) throws IOException {
+        int steps = 10_000;
+        int warmup = 1_000;
+        int bodies = 1_000;
+        double h = Constants.FIXED_TIME_STEP;
+        Path model = Path.of("models/Cube.obj");
+        double water = 0;
+        boolean profile = false;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals("--profile")) {
+                profile = true;
+                continue;
+            }
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + option + ".\n" + USAGE);
+            String value = args[++i];
+            switch (option) {
+                case "--steps" -> steps = Integer.parseInt(value);
+                case "--warmup" -> warmup = Integer.parseInt(value);
+                case "--bodies" -> bodies = Integer.parseInt(value);
+                case "--step" -> h = Double.parseDouble(value);
+                case "--model" -> model = Path.of(value);
+                case "--water" -> water = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option " + option + ".\n" + USAGE);
+            }
+        }
+        if (steps < 1) throw new IllegalArgumentException("At least one step is required.");
+        if (h <= 0) throw new IllegalArgumentException("The time step has to be positive.");
+
+        MeshAsset mesh = HeadlessScene.loadMesh(model);
+        PhysicsWorld world = HeadlessScene.create(mesh, bodies, water);
+        System.out.printf(Locale.ROOT, "%d bodies of %s, step %.5f s%n", bodies, model, h);
+
+        StepProfiler profiler = profile ? new StepProfiler() : null;
+        world.setProfiler(profiler);
+
+        for (int i = 0; i < warmup; i++) world.step(h);
+        if (profiler != null) profiler.reset();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < steps; i++) world.step(h);
+        double seconds = (System.nanoTime() - start) * 1e-9;
+
+        System.out.printf(Locale.ROOT, "%d steps in %.3f s%n", steps, seconds);
+        System.out.printf(Locale.ROOT, "%.1f steps/s, %.3f ms/step, %.0f body steps/s%n",
+            steps / seconds, seconds * 1e3 / steps, (double) steps * bodies / seconds);
+        System.out.printf(Locale.ROOT, "%.1f x real time (%.1f s simulated)%n", steps * h / seconds, steps * h);
+        if (profiler != null) System.out.print(profiler.report());
+    }
+}
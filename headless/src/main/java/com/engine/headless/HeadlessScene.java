@@ -0,0 +1,76 @@
+package com.engine.headless;
+
+import com.engine.core.MeshAsset;
+import com.engine.core.MeshCache;
+import com.engine.core.ObjParser;
+import com.engine.core.entity.AABB;
+import com.engine.core.entity.Entity;
+import com.engine.physics.PhysicsWorld;
+import com.engine.physics.body.Body;
+import com.engine.physics.body.RidigBody;
+import com.engine.physics.body.StaticBody;
+import com.engine.physics.forces.FluidVolume;
+import com.engine.utils.PhysicsUtils;
+import org.joml.Vector3d;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Builds simulation scenes without models or a GL context: entities have no {@code ModelInstance},
+ * only a body and the collision mesh.
+ */
+public final class HeadlessScene {
+    public static final double FLOOR_HALF_WIDTH = 100;
+    public static final double FLOOR_HALF_HEIGHT = 2.5;
+    public static final double DENSITY = 400;
+
+    private HeadlessScene() {}
+
+    public static MeshAsset loadMesh(Path obj) throws IOException {
+        return MeshCache.load(obj, new ObjParser());
+    }
+
+    /**
+     * Creates a world with the floor of the desktop scene and {@code bodies} rigid bodies of the mesh,
+     * stacked in a grid above the floor.
+     */
+    public static PhysicsWorld create(MeshAsset mesh, int bodies) {
+        return create(mesh, bodies, 0);
+    }
+
+    /**
+     * As {@link #create(MeshAsset, int)}, with water filled {@code waterDepth} meters high above the floor.
+     */
+    public static PhysicsWorld create(MeshAsset mesh, int bodies, double waterDepth) {
+        if (bodies < 0) throw new IllegalArgumentException("The number of bodies must not be negative.");
+        if (waterDepth < 0) throw new IllegalArgumentException("The water depth must not be negative.");
+        PhysicsWorld world = new PhysicsWorld();
+        if (waterDepth > 0) {
+            world.getFluids().add(FluidVolume.water(new AABB(
+                new Vector3d(-FLOOR_HALF_WIDTH, FLOOR_HALF_HEIGHT, -FLOOR_HALF_WIDTH),
+                new Vector3d(FLOOR_HALF_WIDTH, FLOOR_HALF_HEIGHT + waterDepth, FLOOR_HALF_WIDTH))));
+        }
+
+        Body floor = new StaticBody();
+        floor.setPosition(0, 0, 0);
+        floor.setHalfExtent(FLOOR_HALF_WIDTH, FLOOR_HALF_HEIGHT, FLOOR_HALF_WIDTH);
+        world.add(new Entity(null, floor, null));
+
+        Vector3d halfExtent = mesh.properties().halfExtent();
+        double spacing = 2.5 * Math.max(halfExtent.x, Math.max(halfExtent.y, halfExtent.z));
+        int side = Math.max(1, (int) Math.ceil(Math.cbrt(bodies)));
+        double offset = (side - 1) * spacing * .5;
+        for (int i = 0; i < bodies; i++) {
+            int x = i % side;
+            int z = (i / side) % side;
+            int y = i / (side * side);
+            Body body = new RidigBody(DENSITY, world.getStore());
+            PhysicsUtils.applyMeshProperties(mesh.properties(), body);
+            body.setPosition(x * spacing - offset, FLOOR_HALF_HEIGHT + spacing * (y + 1), z * spacing - offset);
+            body.storePreviousTransform();
+            world.add(new Entity(null, body, mesh.collisionMesh()));
+        }
+        return world;
+    }
+}